@@ -0,0 +1,86 @@
+package com.cuido.cuido.dto;
+
+import com.cuido.cuido.dto.response.PacienteResponseDTO;
+import com.cuido.cuido.dto.response.RecordatorioResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de las respuestas más frecuentes, con un ObjectMapper
+ * configurado como el de Spring MVC (módulos de java.time, fechas ISO)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDtoBenchmark {
+
+    private ObjectWriter writer;
+    private List<RecordatorioResponseDTO> recordatorios;
+    private PacienteResponseDTO paciente;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+
+        recordatorios = new ArrayList<>();
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 8, 0);
+        for (int i = 0; i < 100; i++) {
+            recordatorios.add(RecordatorioResponseDTO.builder()
+                .id((long) i)
+                .tipo("MEDICAMENTO")
+                .referenciaId(1L + i % 10)
+                .pacienteId(1L)
+                .pacienteNombre("Paciente de prueba")
+                .fechaHora(fecha.plusHours(i))
+                .estado("PENDIENTE")
+                .descripcion("Ibuprofeno - 400 mg")
+                .nombreMedicamento("Ibuprofeno")
+                .dosis("400 mg")
+                .build());
+        }
+
+        paciente = new PacienteResponseDTO();
+        paciente.setId(1L);
+        paciente.setUsuarioId(1L);
+        paciente.setNombreCompleto("Paciente de prueba");
+        paciente.setEmail("paciente@cuido.test");
+        paciente.setEdad(78);
+        paciente.setTipoSanguineo("O+");
+        paciente.setPeso(70.5);
+        paciente.setAltura(1.68);
+        paciente.setAlergias("Penicilina");
+        paciente.setCondicionesMedicas(List.of("Diabetes tipo 2", "Hipertensión", "Artrosis"));
+        paciente.setNotasImportantes(List.of("Usa audífono", "Dieta sin sal"));
+        paciente.setObraSocial("OSDE");
+        paciente.setNumeroAfiliado("123456789");
+    }
+
+    @Benchmark
+    public byte[] listaRecordatorios() throws JsonProcessingException {
+        return writer.writeValueAsBytes(recordatorios);
+    }
+
+    @Benchmark
+    public byte[] perfilPaciente() throws JsonProcessingException {
+        return writer.writeValueAsBytes(paciente);
+    }
+}
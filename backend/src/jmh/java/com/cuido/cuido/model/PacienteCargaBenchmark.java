@@ -0,0 +1,183 @@
+package com.cuido.cuido.model;
+
+import com.cuido.cuido.model.converter.ListaStringJsonConverter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de N pacientes con Hibernate desde H2 en memoria, con las dos formas de mapear
+ * condiciones_medicas y notas_importantes:
+ * - anterior: columnas String y @PostLoad que crea un ObjectMapper por entidad
+ * - actual: ListaStringJsonConverter con lector compartido y copia de lista para el snapshot
+ *
+ * Cada operación abre una sesión y lee las N filas, como un listado completo.
+ * Con -prof gc (activo en el perfil benchmark) gc.alloc.rate.norm da los bytes por carga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacienteCargaBenchmark {
+
+    @Param({"10000"})
+    private int pacientes;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Sin la configuración de Spring, logback registra todo en DEBUG
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+            .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        StandardServiceRegistry registro = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:pacientes-carga;DB_CLOSE_DELAY=-1")
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 500)
+            .build();
+        sessionFactory = new MetadataSources(registro)
+            .addAnnotatedClass(PacienteAnterior.class)
+            .addAnnotatedClass(PacienteActual.class)
+            .buildMetadata()
+            .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            for (long id = 1; id <= pacientes; id++) {
+                List<String> condiciones = List.of("Diabetes tipo 2", "Hipertensión arterial", "Artrosis de rodilla " + id);
+                List<String> notas = List.of("Alérgico a la penicilina", "Usa audífono del lado \"izquierdo\"");
+
+                PacienteAnterior anterior = new PacienteAnterior();
+                anterior.id = id;
+                anterior.condicionesMedicasJson = aJson(condiciones);
+                anterior.notasImportantesJson = aJson(notas);
+                session.persist(anterior);
+
+                PacienteActual actual = new PacienteActual();
+                actual.id = id;
+                actual.condicionesMedicas = new ArrayList<>(condiciones);
+                actual.notasImportantes = new ArrayList<>(notas);
+                session.persist(actual);
+
+                if (id % 500 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<PacienteAnterior> cargarConPostLoad() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("from PacienteAnterior", PacienteAnterior.class).getResultList();
+        }
+    }
+
+    @Benchmark
+    public List<PacienteActual> cargarConConverter() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("from PacienteActual", PacienteActual.class).getResultList();
+        }
+    }
+
+    private static String aJson(List<String> lista) {
+        return new ListaStringJsonConverter().convertToDatabaseColumn(lista);
+    }
+
+    /**
+     * Mapeo de Paciente antes de ListaStringJsonConverter
+     */
+    @Entity(name = "PacienteAnterior")
+    @Table(name = "pacientes_anterior")
+    public static class PacienteAnterior {
+
+        @Id
+        private Long id;
+
+        @Column(name = "condiciones_medicas", columnDefinition = "TEXT")
+        private String condicionesMedicasJson;
+
+        @Transient
+        private List<String> condicionesMedicas = new ArrayList<>();
+
+        @Column(name = "notas_importantes", columnDefinition = "TEXT")
+        private String notasImportantesJson;
+
+        @Transient
+        private List<String> notasImportantes = new ArrayList<>();
+
+        @PostLoad
+        protected void deserializeArrays() {
+            ObjectMapper mapper = new ObjectMapper();
+            try {
+                if (condicionesMedicasJson != null && !condicionesMedicasJson.isEmpty()) {
+                    condicionesMedicas = mapper.readValue(condicionesMedicasJson, new TypeReference<List<String>>() {});
+                }
+                if (notasImportantesJson != null && !notasImportantesJson.isEmpty()) {
+                    notasImportantes = mapper.readValue(notasImportantesJson, new TypeReference<List<String>>() {});
+                }
+            } catch (JsonProcessingException e) {
+                condicionesMedicas = new ArrayList<>();
+                notasImportantes = new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * Mapeo actual de Paciente
+     */
+    @Entity(name = "PacienteActual")
+    @Table(name = "pacientes_actual")
+    public static class PacienteActual {
+
+        @Id
+        private Long id;
+
+        @Convert(converter = ListaStringJsonConverter.class)
+        @Column(name = "condiciones_medicas", columnDefinition = "TEXT")
+        private List<String> condicionesMedicas = new ArrayList<>();
+
+        @Convert(converter = ListaStringJsonConverter.class)
+        @Column(name = "notas_importantes", columnDefinition = "TEXT")
+        private List<String> notasImportantes = new ArrayList<>();
+    }
+}
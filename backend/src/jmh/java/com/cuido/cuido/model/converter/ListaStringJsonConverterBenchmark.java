@@ -0,0 +1,62 @@
+package com.cuido.cuido.model.converter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de las listas de Paciente (condiciones médicas, notas importantes)
+ * entre List y la columna JSON, en cada carga y en cada flush del perfil
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListaStringJsonConverterBenchmark {
+
+    private final ListaStringJsonConverter converter = new ListaStringJsonConverter();
+    private final ListaStringJsonConverter.CopiaDeLista copia = new ListaStringJsonConverter.CopiaDeLista();
+
+    private List<String> condiciones;
+    private String columna;
+
+    @Setup
+    public void setUp() {
+        condiciones = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            condiciones.add("Condición médica número " + i + " con \"detalle\" y acentos: diabetes, hipertensión");
+        }
+        columna = converter.convertToDatabaseColumn(condiciones);
+    }
+
+    @Benchmark
+    public String serializar() {
+        return converter.convertToDatabaseColumn(condiciones);
+    }
+
+    @Benchmark
+    public List<String> deserializar() {
+        return converter.convertToEntityAttribute(columna);
+    }
+
+    /**
+     * Copia que hace Hibernate al cargar la entidad para detectar cambios en el flush
+     */
+    @Benchmark
+    public List<String> copiarParaDirtyChecking() {
+        return copia.deepCopy(condiciones);
+    }
+}
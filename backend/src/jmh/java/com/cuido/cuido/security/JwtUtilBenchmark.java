@@ -0,0 +1,59 @@
+package com.cuido.cuido.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación y validación de tokens JWT. validarSolicitud repite lo que hace
+ * JwtAuthenticationFilter en cada solicitud autenticada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String EMAIL = "paciente@cuido.test";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey",
+            "6d304f2e4d41665b4f6a5c4b325d2c786e614c5a55664867696a55504275405a");
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", 1800000L);
+        token = jwtUtil.generateToken(EMAIL, "PACIENTE");
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generateToken(EMAIL, "PACIENTE");
+    }
+
+    @Benchmark
+    public String extraerUsuario() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validarSolicitud() {
+        String email = jwtUtil.extractUsername(token);
+        String rol = jwtUtil.extractRole(token);
+        return rol != null && jwtUtil.isTokenValid(token, email);
+    }
+}
@@ -0,0 +1,48 @@
+package com.cuido.cuido.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armado del HTML de los emails (sin envío SMTP)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailServiceBenchmark {
+
+    private EmailService emailService;
+
+    @Setup
+    public void setUp() {
+        emailService = new EmailService(null, null);
+    }
+
+    @Benchmark
+    public String bienvenida() {
+        return emailService.construirEmailBienvenida("María Fernández", "paciente");
+    }
+
+    @Benchmark
+    public String codigoOtp() {
+        return emailService.construirEmailOTP("María Fernández", "482913");
+    }
+
+    @Benchmark
+    public String invitacion() {
+        return emailService.construirEmailInvitacion("María Fernández", "Juan Pérez");
+    }
+}
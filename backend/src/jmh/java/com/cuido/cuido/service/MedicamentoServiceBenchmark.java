@@ -0,0 +1,73 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.model.HorarioMedicamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansión de horarios en tomas (MedicamentoService.expandirOcurrencias), el paso
+ * en memoria de crear y editar medicamentos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MedicamentoServiceBenchmark {
+
+    @Param({"30", "365"})
+    private int dias;
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private List<HorarioMedicamento> horariosDiarios;
+    private List<HorarioMedicamento> horariosPorDia;
+
+    @Setup
+    public void setUp() {
+        desde = LocalDate.of(2025, 1, 1);
+        hasta = desde.plusDays(dias - 1L);
+        horariosDiarios = List.of(
+            horario(LocalTime.of(8, 0), null),
+            horario(LocalTime.of(14, 0), null),
+            horario(LocalTime.of(20, 0), null)
+        );
+        horariosPorDia = List.of(
+            horario(LocalTime.of(8, 0), "[\"L\",\"X\",\"V\"]"),
+            horario(LocalTime.of(21, 0), "[\"M\",\"J\",\"S\",\"D\"]")
+        );
+    }
+
+    @Benchmark
+    public List<LocalDateTime> expandirDiario() {
+        return MedicamentoService.expandirOcurrencias(horariosDiarios, desde, hasta);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> expandirPorDiaDeSemana() {
+        return MedicamentoService.expandirOcurrencias(horariosPorDia, desde, hasta);
+    }
+
+    private static HorarioMedicamento horario(LocalTime hora, String diasSemana) {
+        HorarioMedicamento horario = new HorarioMedicamento();
+        horario.setHora(hora);
+        horario.setDiasSemana(diasSemana);
+        return horario;
+    }
+}
@@ -0,0 +1,98 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.dto.response.RecordatorioResponseDTO;
+import com.cuido.cuido.model.CitaMedica;
+import com.cuido.cuido.model.Medicamento;
+import com.cuido.cuido.model.RecordatorioInstancia;
+import com.cuido.cuido.model.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo de recordatorios a DTO con las referencias ya cargadas, como en las
+ * lecturas de la lista de un paciente (100 recordatorios, 10 medicamentos y 5 citas)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordatorioServiceBenchmark {
+
+    private RecordatorioService recordatorioService;
+    private List<RecordatorioInstancia> recordatorios;
+    private RecordatorioService.Referencias referencias;
+
+    @Setup
+    public void setUp() {
+        // El mapeo no usa los repositorios
+        recordatorioService = new RecordatorioService(null, null, null, null, null, null, null, null);
+
+        Usuario paciente = new Usuario();
+        paciente.setId(1L);
+        paciente.setNombreCompleto("Paciente de prueba");
+
+        Map<Long, Medicamento> medicamentos = new HashMap<>();
+        for (long id = 1; id <= 10; id++) {
+            Medicamento medicamento = new Medicamento();
+            medicamento.setId(id);
+            medicamento.setNombre("Medicamento " + id);
+            medicamento.setDosis(id * 10 + " mg");
+            medicamentos.put(id, medicamento);
+        }
+        Map<Long, CitaMedica> citas = new HashMap<>();
+        for (long id = 1; id <= 5; id++) {
+            CitaMedica cita = new CitaMedica();
+            cita.setId(id);
+            cita.setUbicacion("Consultorio " + id);
+            cita.setNombreDoctor("Doctor " + id);
+            cita.setEspecialidad("Cardiología");
+            cita.setMotivo("Control");
+            citas.put(id, cita);
+        }
+        referencias = new RecordatorioService.Referencias(medicamentos, citas);
+
+        recordatorios = new ArrayList<>();
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 8, 0);
+        for (int i = 0; i < 100; i++) {
+            RecordatorioInstancia recordatorio = new RecordatorioInstancia();
+            recordatorio.setId((long) i);
+            recordatorio.setPaciente(paciente);
+            recordatorio.setFechaHora(fecha.plusHours(i));
+            if (i % 5 == 0) {
+                recordatorio.setTipo(RecordatorioInstancia.TipoRecordatorio.CITA_MEDICA);
+                recordatorio.setReferenciaId(1L + i % 5);
+            } else {
+                recordatorio.setTipo(RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO);
+                recordatorio.setReferenciaId(1L + i % 10);
+            }
+            recordatorio.setDescripcion("Recordatorio " + i);
+            recordatorios.add(recordatorio);
+        }
+    }
+
+    @Benchmark
+    public List<RecordatorioResponseDTO> mapearLista() {
+        List<RecordatorioResponseDTO> resultado = new ArrayList<>(recordatorios.size());
+        for (RecordatorioInstancia recordatorio : recordatorios) {
+            resultado.add(recordatorioService.mapToResponseDTO(recordatorio, referencias));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cuido.cuido.concurrencia;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Vuelve a ejecutar el método, en una transacción nueva, cuando su escritura choca
+ * con otra por la versión de la entidad (bloqueo optimista).
+ *
+ * Se aplica antes que @Transactional: cada intento relee las entidades y decide sobre
+ * el estado confirmado por la otra escritura. Solo sirve para operaciones que siguen
+ * siendo correctas al repetirse sobre datos nuevos (fijar un estado, alternar, reordenar).
+ * Si el llamador ya tiene una transacción, el método se ejecuta una sola vez y el
+ * conflicto se propaga para que lo resuelva quien abrió la transacción.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReintentarConflictos {
+}
@@ -0,0 +1,77 @@
+package com.cuido.cuido.concurrencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reintenta los métodos anotados con {@link ReintentarConflictos} ante un conflicto de
+ * versión: cuido.conflictos{clase,metodo,resultado=reintentado|agotado}.
+ *
+ * Va después de ContextoCargaAspect y antes del interceptor de transacciones, así cada
+ * intento abre su propia transacción. Entre intentos espera un tiempo aleatorio que crece
+ * con cada intento para que dos escrituras que chocaron no vuelvan a coincidir.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ReintentoConflictosAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReintentoConflictosAspect.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.concurrencia.reintentos:3}")
+    private int reintentos;
+
+    @Value("${app.concurrencia.espera-ms:20}")
+    private long esperaMillis;
+
+    @Around("@annotation(com.cuido.cuido.concurrencia.ReintentarConflictos)")
+    public Object reintentar(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int intento = 1; ; intento++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (intento > reintentos) {
+                    contador(joinPoint, "agotado").increment();
+                    logger.warn("Conflicto de versión en {} sin resolver tras {} intentos",
+                        joinPoint.getSignature().toShortString(), intento);
+                    throw e;
+                }
+                contador(joinPoint, "reintentado").increment();
+                logger.debug("Conflicto de versión en {}, intento {}: {}",
+                    joinPoint.getSignature().toShortString(), intento, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(esperaMillis * intento + 1));
+            }
+        }
+    }
+
+    private Counter contador(ProceedingJoinPoint joinPoint, String resultado) {
+        return Counter.builder("cuido.conflictos")
+            .description("Conflictos de bloqueo optimista en los métodos de servicio")
+            .tag("clase", joinPoint.getSignature().getDeclaringType().getSimpleName())
+            .tag("metodo", joinPoint.getSignature().getName())
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+}
@@ -2,6 +2,8 @@ package com.cuido.cuido.config;
 
 import com.cuido.cuido.model.*;
 import com.cuido.cuido.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -11,6 +13,8 @@ import java.sql.Date;
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
@@ -21,6 +25,6 @@ public class DataInitializer implements CommandLineRunner {
     public void run(String... args) throws Exception {
         // No se crean usuarios por defecto
         // Los usuarios se registran desde la app
-        System.out.println("DataInitializer ejecutado - Sin usuarios por defecto");
+        logger.debug("DataInitializer ejecutado - Sin usuarios por defecto");
     }
 }
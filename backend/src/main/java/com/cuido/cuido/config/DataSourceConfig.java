@@ -0,0 +1,85 @@
+package com.cuido.cuido.config;
+
+import com.cuido.cuido.datasource.AfinidadEscritura;
+import com.cuido.cuido.datasource.EnrutadorDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Pools de conexiones separados para solicitudes interactivas, trabajo por lotes y,
+ * opcionalmente, una réplica de lectura.
+ *
+ * Los pools primario y de lotes usan la URL y credenciales de spring.datasource.*. El pool
+ * interactivo toma su configuración de spring.datasource.hikari.* y el de lotes de
+ * app.datasource.lotes.hikari.*, así las tareas programadas y las escrituras masivas
+ * (ver CargaPorLotes) no dejan sin conexiones a la app. Con app.datasource.replica.enabled
+ * las transacciones readOnly interactivas leen de app.datasource.replica.hikari.*.
+ * Todos los pools publican métricas hikaricp.* con el tag pool.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource poolInteractivo(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.lotes.hikari")
+    public HikariDataSource poolLotes(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Réplica de lectura: hereda driver y credenciales del primario salvo que
+     * app.datasource.replica.hikari.* los redefina (jdbc-url es obligatoria)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource poolReplica(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public AfinidadEscritura afinidadEscritura(
+            @Value("${app.datasource.replica.afinidad-ms:5000}") long afinidadMillis
+    ) {
+        return new AfinidadEscritura(Duration.ofMillis(afinidadMillis), Clock.systemUTC());
+    }
+
+    /**
+     * La conexión real se pide recién en la primera sentencia: el pool se elige con el
+     * contexto y el flag readOnly vigentes en ese momento, y las transacciones que no
+     * llegan a la base (p. ej. aciertos de caché) no ocupan una conexión.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("poolInteractivo") HikariDataSource poolInteractivo,
+            @Qualifier("poolLotes") HikariDataSource poolLotes,
+            @Qualifier("poolReplica") ObjectProvider<HikariDataSource> poolReplica,
+            AfinidadEscritura afinidadEscritura,
+            @Value("${app.datasource.alerta-adquisicion-ms:500}") long alertaAdquisicionMillis
+    ) {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(
+            poolInteractivo, poolLotes, poolReplica.getIfAvailable(), afinidadEscritura, alertaAdquisicionMillis
+        );
+        enrutador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+}
@@ -0,0 +1,33 @@
+package com.cuido.cuido.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Modo de hilos de la aplicación. Con spring.threads.virtual.enabled=true Spring Boot
+ * pasa Tomcat, @Async y @Scheduled a hilos virtuales, pero solo si la JVM es Java 21
+ * o superior: en una anterior ignora la propiedad sin avisar y rigen los pools de
+ * hilos de plataforma. Para que el modo pedido sea el que corre, el arranque falla.
+ *
+ * Ansioso también con el perfil arranque-rapido (inicialización perezosa).
+ */
+@Configuration
+@Lazy(false)
+public class HilosConfig {
+
+    private static final int VERSION_MINIMA_HILOS_VIRTUALES = 21;
+
+    public HilosConfig(@Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        verificarModo(hilosVirtuales, Runtime.version().feature());
+    }
+
+    private static void verificarModo(boolean hilosVirtuales, int versionJava) {
+        if (hilosVirtuales && versionJava < VERSION_MINIMA_HILOS_VIRTUALES) {
+            throw new IllegalStateException(
+                "spring.threads.virtual.enabled=true requiere Java " + VERSION_MINIMA_HILOS_VIRTUALES
+                + " o superior y la JVM es Java " + versionJava
+                + ". Desactivar VIRTUAL_THREADS_ENABLED o ejecutar con Java " + VERSION_MINIMA_HILOS_VIRTUALES);
+        }
+    }
+}
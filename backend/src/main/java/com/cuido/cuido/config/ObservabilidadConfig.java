@@ -0,0 +1,108 @@
+package com.cuido.cuido.config;
+
+import com.cuido.cuido.observabilidad.MonitorSentencias;
+import com.cuido.cuido.observabilidad.ObservacionRepositorios;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.Map;
+
+/**
+ * Instrumentación de las sentencias SQL de Hibernate: conteo por solicitud y log de
+ * consultas lentas (ver MonitorSentencias). Las estadísticas globales de Hibernate
+ * (hibernate.generate_statistics) se publican como métricas hibernate.*.
+ * Las tareas @Async heredan el MDC (requestId) y la traza de la solicitud que las inició.
+ *
+ * Trazas (Micrometer Tracing sobre OpenTelemetry): Spring Boot crea los spans de la
+ * solicitud HTTP, de la cadena de filtros de seguridad y de las tareas @Scheduled; acá
+ * se agregan los de cada llamada a repositorio. Los de SMTP y archivos se crean en
+ * EmailService y DocumentoService.
+ */
+@Configuration
+public class ObservabilidadConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer monitorSentencias(
+            @Value("${app.observabilidad.consultas.lenta-ms:200}") long lentaMillis
+    ) {
+        MonitorSentencias.configurar(lentaMillis);
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new MonitorSentencias());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, MonitorSentencias.Medicion.class.getName());
+        };
+    }
+
+    /**
+     * Span por cada llamada a un repositorio de Spring Data (ver ObservacionRepositorios).
+     * Es static porque un BeanPostProcessor debe crearse antes que el resto de los beans
+     */
+    @Bean
+    public static BeanPostProcessor observarRepositorios(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String nombre) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(repositorios -> repositorios.addRepositoryProxyPostProcessor(
+                        (proxy, informacion) -> proxy.addAdvice(
+                            new ObservacionRepositorios(observationRegistry, informacion.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Exportador de trazas a archivo para pruebas locales: cada lote de spans se escribe
+     * en JSON OTLP en logs/cuido-trazas.log (ver logback-spring.xml)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.trazas.archivo", havingValue = "true")
+    public SpanExporter exportadorTrazasArchivo() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+
+    /**
+     * Copia el MDC del hilo que encola la tarea al hilo del pool de @Async y lo limpia
+     * al terminar, para no dejar el requestId de otra solicitud en el hilo reutilizado.
+     * La observación en curso se propaga con ContextPropagatingTaskDecorator, así el
+     * envío de un email queda como hijo del span de la solicitud
+     */
+    @Bean
+    public TaskDecorator propagarMdc() {
+        TaskDecorator propagarObservacion = new ContextPropagatingTaskDecorator();
+        return tareaOriginal -> {
+            Map<String, String> contexto = MDC.getCopyOfContextMap();
+            Runnable tarea = propagarObservacion.decorate(tareaOriginal);
+            return () -> {
+                Map<String, String> anterior = MDC.getCopyOfContextMap();
+                if (contexto != null) {
+                    MDC.setContextMap(contexto);
+                } else {
+                    MDC.clear();
+                }
+                try {
+                    tarea.run();
+                } finally {
+                    if (anterior != null) {
+                        MDC.setContextMap(anterior);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
@@ -6,9 +6,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -16,8 +18,10 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -38,7 +42,47 @@ public class SecurityConfig {
 	@Value("${app.cors.allowed-origins:http://localhost:5173,http://localhost:19006,http://localhost:8081}")
 	private String allowedOrigins;
 
+	@Value("${app.metricas.usuario:prometheus}")
+	private String usuarioMetricas;
+
+	@Value("${app.metricas.password:}")
+	private String passwordMetricas;
+
+	/**
+	 * /actuator/prometheus con HTTP Basic para el scraper, separado de los usuarios de la app.
+	 * Sin app.metricas.password el endpoint queda cerrado.
+	 */
+	@Bean
+	@Order(1)
+	public SecurityFilterChain metricasFilterChain(HttpSecurity http) throws Exception {
+		http
+				.securityMatcher("/actuator/prometheus")
+				.csrf(CsrfConfigurer::disable)
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+		if (passwordMetricas.isBlank()) {
+			http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+			return http.build();
+		}
+
+		// Costo bajo: se verifica en cada scrape y la credencial es un secreto largo, no una contraseña de usuario
+		PasswordEncoder encoder = new BCryptPasswordEncoder(4);
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(usuarioMetricas)
+				.password(encoder.encode(passwordMetricas))
+				.roles("METRICAS")
+				.build()));
+		provider.setPasswordEncoder(encoder);
+
+		http
+				.authenticationManager(new ProviderManager(provider))
+				.authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICAS"))
+				.httpBasic(Customizer.withDefaults());
+		return http.build();
+	}
+
 	@Bean
+	@Order(2)
 	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 		http
 				.cors(Customizer.withDefaults())
@@ -50,6 +94,10 @@ public class SecurityConfig {
 						// =============================================
 						.requestMatchers("/api/auth/**").permitAll()
 						.requestMatchers("/api/imagenes/**").permitAll()
+						.requestMatchers("/actuator/health").permitAll()
+
+						// Métricas y demás endpoints de actuator: solo administradores
+						.requestMatchers("/actuator/**").hasRole("ADMIN")
 
 						// =============================================
 						// RUTAS PARA CUIDADORES
@@ -151,12 +199,16 @@ public class SecurityConfig {
 				"Content-Type",
 				"Accept",
 				"Origin",
-				"X-Requested-With"));
+				"X-Requested-With",
+				"X-Request-Id",
+				"Idempotency-Key"));
 
 		// Headers expuestos al cliente
 		config.setExposedHeaders(Arrays.asList(
 				"Authorization",
-				"Content-Disposition"));
+				"Content-Disposition",
+				"X-Request-Id",
+				"X-Trace-Id"));
 
 		// Permitir credenciales (cookies, authorization headers)
 		config.setAllowCredentials(true);
@@ -0,0 +1,35 @@
+package com.cuido.cuido.controller;
+
+import com.cuido.cuido.dto.response.AdherenciaResponseDTO;
+import com.cuido.cuido.service.AdherenciaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/pacientes")
+@RequiredArgsConstructor
+public class AdherenciaController {
+
+    private final AdherenciaService adherenciaService;
+
+    /**
+     * GET /api/pacientes/{pacienteId}/adherencia?desde=2025-11-01&hasta=2025-11-30&granularidad=SEMANA
+     * Obtiene la adherencia a la medicación por período (DIA, SEMANA o MES),
+     * desglosada por medicamento y franja horaria.
+     * pacienteId es el id de usuario del paciente, igual que en /api/recordatorios
+     */
+    @GetMapping("/{pacienteId}/adherencia")
+    public ResponseEntity<AdherenciaResponseDTO> obtenerAdherencia(
+        @PathVariable Long pacienteId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+        @RequestParam(defaultValue = "DIA") String granularidad
+    ) {
+        AdherenciaResponseDTO adherencia = adherenciaService.obtenerAdherencia(pacienteId, desde, hasta, granularidad);
+        return ResponseEntity.ok(adherencia);
+    }
+}
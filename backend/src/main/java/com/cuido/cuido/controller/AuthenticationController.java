@@ -52,12 +52,12 @@ public class AuthenticationController {
     }
 
     /**
-     * Resetea la contraseña usando el código OTP
+     * Resetea la contraseña usando el email y el código OTP
      */
     @PostMapping("/reset-password")
     @RateLimited(limit = 100, periodSeconds = 60) // 5 intentos cada 5 minutos
     public ResponseEntity<Map<String, String>> resetPassword(@Valid @RequestBody ResetPasswordRequestDTO request) {
-        passwordResetService.resetearPassword(request.getCodigoOtp(), request.getNuevaPassword());
+        passwordResetService.resetearPassword(request.getEmail(), request.getCodigoOtp(), request.getNuevaPassword());
         return ResponseEntity.ok(Map.of(
             "message", "Contraseña actualizada exitosamente.",
             "success", "true"
@@ -3,12 +3,15 @@ package com.cuido.cuido.controller;
 import com.cuido.cuido.dto.request.ContactoEmergenciaRequest;
 import com.cuido.cuido.dto.response.ContactoEmergenciaResponseDTO;
 import com.cuido.cuido.service.ContactoEmergenciaService;
+import com.cuido.cuido.service.VersionRecursoService;
+import com.cuido.cuido.service.VersionRecursoService.Recurso;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -17,10 +20,13 @@ import java.util.List;
 public class ContactoEmergenciaController {
 
     private final ContactoEmergenciaService contactoService;
+    private final VersionRecursoService versionRecursoService;
 
     @Autowired
-    public ContactoEmergenciaController(ContactoEmergenciaService contactoService) {
+    public ContactoEmergenciaController(ContactoEmergenciaService contactoService,
+                                        VersionRecursoService versionRecursoService) {
         this.contactoService = contactoService;
+        this.versionRecursoService = versionRecursoService;
     }
 
     @PostMapping
@@ -52,7 +58,13 @@ public class ContactoEmergenciaController {
 
     @GetMapping("/paciente/{pacienteId}")
     @PreAuthorize("hasAnyRole('PACIENTE', 'CUIDADOR')")
-    public ResponseEntity<List<ContactoEmergenciaResponseDTO>> getByPaciente(@PathVariable Long pacienteId) {
+    public ResponseEntity<List<ContactoEmergenciaResponseDTO>> getByPaciente(
+            @PathVariable Long pacienteId,
+            ServletWebRequest request
+    ) {
+        if (RespuestaCondicional.noModificado(request, versionRecursoService.etag(Recurso.CONTACTOS, pacienteId))) {
+            return null;
+        }
         List<ContactoEmergenciaResponseDTO> contactos = contactoService.getByPaciente(pacienteId);
         return ResponseEntity.ok(contactos);
     }
@@ -5,6 +5,8 @@ import com.cuido.cuido.dto.response.DocumentoResponseDTO;
 import com.cuido.cuido.model.Documento;
 import com.cuido.cuido.model.Usuario;
 import com.cuido.cuido.service.DocumentoService;
+import com.cuido.cuido.service.VersionRecursoService;
+import com.cuido.cuido.service.VersionRecursoService.Recurso;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -13,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -24,6 +27,7 @@ import java.util.List;
 public class DocumentoController {
 
     private final DocumentoService documentoService;
+    private final VersionRecursoService versionRecursoService;
 
     /**
      * Subir un documento
@@ -66,8 +70,13 @@ public class DocumentoController {
      */
     @GetMapping("/paciente/{pacienteId}")
     public ResponseEntity<List<DocumentoResponseDTO>> getDocumentosByPaciente(
-        @PathVariable Long pacienteId
+        @PathVariable Long pacienteId,
+        ServletWebRequest request
     ) {
+        if (RespuestaCondicional.noModificado(request, versionRecursoService.etag(Recurso.DOCUMENTOS, pacienteId))) {
+            return null;
+        }
+
         List<DocumentoResponseDTO> documentos = documentoService.getDocumentosByPaciente(pacienteId);
 
         // Agregar URLs de descarga
@@ -84,8 +93,13 @@ public class DocumentoController {
      */
     @GetMapping("/paciente/{pacienteId}/fichas")
     public ResponseEntity<List<DocumentoResponseDTO>> getFichasMedicas(
-        @PathVariable Long pacienteId
+        @PathVariable Long pacienteId,
+        ServletWebRequest request
     ) {
+        if (RespuestaCondicional.noModificado(request, versionRecursoService.etag(Recurso.DOCUMENTOS, pacienteId))) {
+            return null;
+        }
+
         List<DocumentoResponseDTO> fichas = documentoService.getFichasMedicas(pacienteId);
 
         fichas.forEach(doc ->
@@ -101,8 +115,13 @@ public class DocumentoController {
      */
     @GetMapping("/paciente/{pacienteId}/otros")
     public ResponseEntity<List<DocumentoResponseDTO>> getOtrosDocumentos(
-        @PathVariable Long pacienteId
+        @PathVariable Long pacienteId,
+        ServletWebRequest request
     ) {
+        if (RespuestaCondicional.noModificado(request, versionRecursoService.etag(Recurso.DOCUMENTOS, pacienteId))) {
+            return null;
+        }
+
         List<DocumentoResponseDTO> otros = documentoService.getOtrosDocumentos(pacienteId);
 
         otros.forEach(doc ->
@@ -119,8 +138,13 @@ public class DocumentoController {
     @GetMapping("/paciente/{pacienteId}/categoria/{categoria}")
     public ResponseEntity<List<DocumentoResponseDTO>> getDocumentosPorCategoria(
         @PathVariable Long pacienteId,
-        @PathVariable Documento.CategoriaArchivo categoria
+        @PathVariable Documento.CategoriaArchivo categoria,
+        ServletWebRequest request
     ) {
+        if (RespuestaCondicional.noModificado(request, versionRecursoService.etag(Recurso.DOCUMENTOS, pacienteId))) {
+            return null;
+        }
+
         List<DocumentoResponseDTO> documentos = documentoService.getDocumentosPorCategoria(pacienteId, categoria);
 
         documentos.forEach(doc ->
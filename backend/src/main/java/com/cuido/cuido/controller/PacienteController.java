@@ -3,11 +3,14 @@ package com.cuido.cuido.controller;
 import com.cuido.cuido.dto.request.ActualizarPerfilPacienteRequest;
 import com.cuido.cuido.dto.response.PacienteResponseDTO;
 import com.cuido.cuido.service.PacienteService;
+import com.cuido.cuido.service.VersionRecursoService;
+import com.cuido.cuido.service.VersionRecursoService.Recurso;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -18,6 +21,9 @@ public class PacienteController {
     @Autowired
     private PacienteService pacienteService;
 
+    @Autowired
+    private VersionRecursoService versionRecursoService;
+
     /**
      * Obtener todos los pacientes (solo admin)
      */
@@ -43,7 +49,13 @@ public class PacienteController {
      */
     @GetMapping("/usuario/{usuarioId}")
     @PreAuthorize("hasAnyRole('CUIDADOR', 'PACIENTE', 'ADMIN')")
-    public ResponseEntity<PacienteResponseDTO> getPacientePorUsuarioId(@PathVariable Long usuarioId) {
+    public ResponseEntity<PacienteResponseDTO> getPacientePorUsuarioId(
+            @PathVariable Long usuarioId,
+            ServletWebRequest request
+    ) {
+        if (RespuestaCondicional.noModificado(request, versionRecursoService.etag(Recurso.PERFIL, usuarioId))) {
+            return null;
+        }
         return pacienteService.getPacientePorUsuarioId(usuarioId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
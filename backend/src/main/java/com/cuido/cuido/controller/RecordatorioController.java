@@ -1,21 +1,30 @@
 package com.cuido.cuido.controller;
 
 import com.cuido.cuido.dto.request.ActualizarEstadoRecordatorioRequestDTO;
+import com.cuido.cuido.dto.request.ActualizarEstadoRecordatoriosRequestDTO;
 import com.cuido.cuido.dto.request.CitaMedicaRequestDTO;
 import com.cuido.cuido.dto.request.MedicamentoRequestDTO;
+import com.cuido.cuido.dto.response.ActualizacionEstadoMasivaResponseDTO;
 import com.cuido.cuido.dto.response.CitaMedicaResponseDTO;
 import com.cuido.cuido.dto.response.MedicamentoResponseDTO;
 import com.cuido.cuido.dto.response.RecordatorioResponseDTO;
 import com.cuido.cuido.service.CitaMedicaService;
+import com.cuido.cuido.service.IdempotenciaService;
 import com.cuido.cuido.service.MedicamentoService;
 import com.cuido.cuido.service.RecordatorioService;
+import com.cuido.cuido.service.RecordatorioSseService;
+import com.cuido.cuido.service.VersionRecursoService;
+import com.cuido.cuido.service.VersionRecursoService.Recurso;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -29,6 +38,9 @@ public class RecordatorioController {
     private final RecordatorioService recordatorioService;
     private final MedicamentoService medicamentoService;
     private final CitaMedicaService citaMedicaService;
+    private final RecordatorioSseService recordatorioSseService;
+    private final IdempotenciaService idempotenciaService;
+    private final VersionRecursoService versionRecursoService;
 
     // ==================== RECORDATORIOS (Vista unificada) ====================
 
@@ -83,6 +95,15 @@ public class RecordatorioController {
         return ResponseEntity.ok(recordatorios);
     }
 
+    /**
+     * GET /api/recordatorios/paciente/{pacienteId}/eventos
+     * Suscripción SSE a los recordatorios del paciente a medida que vencen
+     */
+    @GetMapping(value = "/paciente/{pacienteId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirEventos(@PathVariable Long pacienteId) {
+        return recordatorioSseService.suscribir(pacienteId);
+    }
+
     /**
      * PATCH /api/recordatorios/{id}/estado
      * Actualiza el estado de un recordatorio
@@ -97,12 +118,41 @@ public class RecordatorioController {
     }
 
     /**
-     * PATCH /api/recordatorios/{id}/ciclar-estado
-     * Cambia el estado del recordatorio de forma cíclica (PENDIENTE -> COMPLETADO -> CANCELADO -> PENDIENTE)
+     * PATCH /api/recordatorios/estado
+     * Actualiza el estado de varios recordatorios. Con la cabecera Idempotency-Key
+     * los reintentos devuelven la respuesta original sin volver a aplicar el cambio
+     */
+    @PatchMapping("/estado")
+    public ResponseEntity<ActualizacionEstadoMasivaResponseDTO> actualizarEstadoRecordatorios(
+        @Valid @RequestBody ActualizarEstadoRecordatoriosRequestDTO request,
+        @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+        Authentication authentication
+    ) {
+        if (claveIdempotencia == null || claveIdempotencia.isBlank()) {
+            return ResponseEntity.ok(
+                recordatorioService.actualizarEstadoRecordatorios(request.getIds(), request.getEstado())
+            );
+        }
+
+        String clave = obtenerUsuarioIdDeAuthentication(authentication) + ":" + claveIdempotencia;
+        String huella = request.getEstado().toUpperCase() + ":" + request.getIds();
+        ActualizacionEstadoMasivaResponseDTO resultado = idempotenciaService.ejecutar(clave, huella,
+            ActualizacionEstadoMasivaResponseDTO.class, () -> recordatorioService.actualizarEstadoRecordatorios(request.getIds(), request.getEstado()));
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * PATCH /api/recordatorios/{id}/ciclar-estado?desde=PENDIENTE
+     * Cambia el estado del recordatorio de forma cíclica (PENDIENTE -> COMPLETADO -> CANCELADO -> PENDIENTE).
+     * Con "desde" (el estado que ve el cliente) repetir la solicitud no vuelve a ciclar, y si
+     * otro usuario ya lo cambió a un estado distinto responde 409
      */
     @PatchMapping("/{id}/ciclar-estado")
-    public ResponseEntity<RecordatorioResponseDTO> ciclarEstadoRecordatorio(@PathVariable Long id) {
-        RecordatorioResponseDTO recordatorio = recordatorioService.ciclarEstadoRecordatorio(id);
+    public ResponseEntity<RecordatorioResponseDTO> ciclarEstadoRecordatorio(
+        @PathVariable Long id,
+        @RequestParam(required = false) String desde
+    ) {
+        RecordatorioResponseDTO recordatorio = recordatorioService.ciclarEstadoRecordatorio(id, desde);
         return ResponseEntity.ok(recordatorio);
     }
 
@@ -139,8 +189,12 @@ public class RecordatorioController {
     @GetMapping("/medicamentos/paciente/{pacienteId}")
     public ResponseEntity<List<MedicamentoResponseDTO>> obtenerMedicamentosPorPaciente(
         @PathVariable Long pacienteId,
-        @RequestParam(required = false) Boolean soloActivos
+        @RequestParam(required = false) Boolean soloActivos,
+        ServletWebRequest request
     ) {
+        if (RespuestaCondicional.noModificado(request, versionRecursoService.etag(Recurso.MEDICAMENTOS, pacienteId))) {
+            return null;
+        }
         List<MedicamentoResponseDTO> medicamentos = medicamentoService.obtenerMedicamentosPorPaciente(pacienteId, soloActivos);
         return ResponseEntity.ok(medicamentos);
     }
@@ -155,6 +209,20 @@ public class RecordatorioController {
         return ResponseEntity.ok(medicamento);
     }
 
+    /**
+     * PUT /api/recordatorios/medicamentos/{id}
+     * Actualiza un medicamento y sus horarios. Solo se regeneran los recordatorios
+     * futuros pendientes; el historial y los estados registrados se conservan
+     */
+    @PutMapping("/medicamentos/{id}")
+    public ResponseEntity<MedicamentoResponseDTO> actualizarMedicamento(
+        @PathVariable Long id,
+        @Valid @RequestBody MedicamentoRequestDTO request
+    ) {
+        MedicamentoResponseDTO medicamento = medicamentoService.actualizarMedicamento(id, request);
+        return ResponseEntity.ok(medicamento);
+    }
+
     /**
      * PATCH /api/recordatorios/medicamentos/{id}/desactivar
      * Desactiva un medicamento (no elimina sus recordatorios pasados)
@@ -0,0 +1,29 @@
+package com.cuido.cuido.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * GET condicional con If-None-Match para los recursos versionados por paciente
+ */
+final class RespuestaCondicional {
+
+    // El cliente puede guardar la respuesta pero debe revalidarla siempre con el ETag
+    private static final String REVALIDAR = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private RespuestaCondicional() {
+    }
+
+    /**
+     * Agrega ETag y Cache-Control a la respuesta. Retorna true si el cliente ya tiene
+     * esta versión: la respuesta queda en 304 y el controlador no debe consultar nada más.
+     * Sin ETag (null) la respuesta se envía completa.
+     */
+    static boolean noModificado(ServletWebRequest request, String etag) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDAR);
+        }
+        return etag != null && request.checkNotModified(etag);
+    }
+}
@@ -1,5 +1,6 @@
 package com.cuido.cuido.controller;
 
+import com.cuido.cuido.dto.request.ActualizarCompletadaTareaRequestDTO;
 import com.cuido.cuido.dto.request.TareaRequestDTO;
 import com.cuido.cuido.dto.response.TareaResponseDTO;
 import com.cuido.cuido.model.Usuario;
@@ -98,6 +99,19 @@ public class TareaController {
         return ResponseEntity.ok(tarea);
     }
 
+    /**
+     * Marcar como completada o pendiente. Idempotente: repetirla no cambia nada
+     * PATCH /api/tareas/{id}/completada
+     */
+    @PatchMapping("/{id}/completada")
+    public ResponseEntity<TareaResponseDTO> marcarCompletada(
+        @PathVariable Long id,
+        @Valid @RequestBody ActualizarCompletadaTareaRequestDTO request
+    ) {
+        TareaResponseDTO tarea = tareaService.marcarCompletada(id, request.getCompletada());
+        return ResponseEntity.ok(tarea);
+    }
+
     /**
      * Toggle estado completada
      * PATCH /api/tareas/{id}/toggle
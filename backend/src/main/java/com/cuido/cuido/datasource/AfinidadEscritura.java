@@ -0,0 +1,53 @@
+package com.cuido.cuido.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lectura de las propias escrituras con réplica: después de que un usuario confirma
+ * una transacción de escritura, sus lecturas van al primario durante una ventana
+ * mayor que el retraso de replicación esperado.
+ */
+public class AfinidadEscritura {
+
+    private final Duration ventana;
+    private final Clock reloj;
+
+    // usuario -> instante hasta el que sus lecturas van al primario
+    private final Map<String, Instant> vigentes = new ConcurrentHashMap<>();
+
+    public AfinidadEscritura(Duration ventana, Clock reloj) {
+        this.ventana = ventana;
+        this.reloj = reloj;
+    }
+
+    public void registrarEscritura(String usuario) {
+        vigentes.put(usuario, reloj.instant().plus(ventana));
+    }
+
+    public boolean leeDelPrimario(String usuario) {
+        Instant hasta = vigentes.get(usuario);
+        if (hasta == null) {
+            return false;
+        }
+        if (hasta.isAfter(reloj.instant())) {
+            return true;
+        }
+        vigentes.remove(usuario, hasta);
+        return false;
+    }
+
+    /**
+     * Quita las ventanas vencidas de usuarios que no volvieron a leer
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgarVencidas() {
+        Instant ahora = reloj.instant();
+        vigentes.values().removeIf(hasta -> !hasta.isAfter(ahora));
+    }
+}
@@ -0,0 +1,18 @@
+package com.cuido.cuido.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Ejecuta el método (o todos los métodos de la clase) con conexiones del pool de lotes.
+ *
+ * Se aplica antes que @Transactional, por lo que la transacción que abra el método
+ * ya toma su conexión del pool de lotes. Si el llamador tenía una transacción con
+ * conexión abierta, se sigue usando esa conexión.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CargaPorLotes {
+}
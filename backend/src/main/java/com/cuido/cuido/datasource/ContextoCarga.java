@@ -0,0 +1,39 @@
+package com.cuido.cuido.datasource;
+
+/**
+ * Tipo de carga del hilo actual, usado para elegir el pool de conexiones
+ */
+public final class ContextoCarga {
+
+    public enum Tipo {
+        INTERACTIVO,    // Solicitudes HTTP de la app
+        LOTES           // Tareas programadas y escrituras masivas
+    }
+
+    private static final ThreadLocal<Tipo> ACTUAL = new ThreadLocal<>();
+
+    private ContextoCarga() {
+    }
+
+    public static Tipo actual() {
+        Tipo tipo = ACTUAL.get();
+        return tipo != null ? tipo : Tipo.INTERACTIVO;
+    }
+
+    /**
+     * Cambia el tipo de carga del hilo y retorna el anterior para restaurarlo
+     */
+    static Tipo establecer(Tipo tipo) {
+        Tipo anterior = ACTUAL.get();
+        ACTUAL.set(tipo);
+        return anterior;
+    }
+
+    static void restaurar(Tipo anterior) {
+        if (anterior == null) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(anterior);
+        }
+    }
+}
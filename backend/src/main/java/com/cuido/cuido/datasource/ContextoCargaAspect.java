@@ -0,0 +1,28 @@
+package com.cuido.cuido.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marca el hilo como carga de lotes mientras dura un método anotado con {@link CargaPorLotes}.
+ * Tiene la mayor precedencia para envolver al interceptor de transacciones.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ContextoCargaAspect {
+
+    @Around("@within(com.cuido.cuido.datasource.CargaPorLotes) || @annotation(com.cuido.cuido.datasource.CargaPorLotes)")
+    public Object enLotes(ProceedingJoinPoint joinPoint) throws Throwable {
+        ContextoCarga.Tipo anterior = ContextoCarga.establecer(ContextoCarga.Tipo.LOTES);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ContextoCarga.restaurar(anterior);
+        }
+    }
+}
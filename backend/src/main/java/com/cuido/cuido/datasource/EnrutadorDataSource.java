@@ -0,0 +1,120 @@
+package com.cuido.cuido.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Elige el pool de conexiones de cada transacción:
+ * - carga de lotes ({@link ContextoCarga}): pool de lotes
+ * - transacción readOnly interactiva: réplica, si está configurada y el usuario
+ *   no escribió dentro de la ventana de {@link AfinidadEscritura}
+ * - resto: primario
+ *
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy, para que la conexión se pida
+ * cuando el flag readOnly de la transacción ya está establecido.
+ *
+ * Avisa en el log cuando obtener una conexión tarda más que el umbral configurado,
+ * con el estado del pool en ese momento (activas, ociosas y en espera).
+ */
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrutadorDataSource.class);
+
+    public enum Destino {
+        PRIMARIO,
+        LOTES,
+        REPLICA
+    }
+
+    private final Map<Destino, HikariDataSource> pools = new EnumMap<>(Destino.class);
+    private final AfinidadEscritura afinidad;
+    private final long umbralAdquisicionMillis;
+
+    /**
+     * @param replica pool de la réplica de lectura, o null si no hay réplica
+     */
+    public EnrutadorDataSource(HikariDataSource primario, HikariDataSource lotes, HikariDataSource replica,
+                               AfinidadEscritura afinidad, long umbralAdquisicionMillis) {
+        pools.put(Destino.PRIMARIO, primario);
+        pools.put(Destino.LOTES, lotes);
+        if (replica != null) {
+            pools.put(Destino.REPLICA, replica);
+        }
+        this.afinidad = afinidad;
+        this.umbralAdquisicionMillis = umbralAdquisicionMillis;
+        setTargetDataSources(Map.copyOf(pools));
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return destinoActual();
+    }
+
+    Destino destinoActual() {
+        boolean replicaHabilitada = pools.containsKey(Destino.REPLICA);
+        boolean enTransaccion = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean soloLectura = enTransaccion && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String usuario = replicaHabilitada ? usuarioActual() : null;
+
+        // Escritura (también por lotes): al confirmarse, las lecturas del usuario van al primario
+        if (enTransaccion && !soloLectura && usuario != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    afinidad.registrarEscritura(usuario);
+                }
+            });
+        }
+
+        if (ContextoCarga.actual() == ContextoCarga.Tipo.LOTES) {
+            return Destino.LOTES;
+        }
+        if (soloLectura && replicaHabilitada && (usuario == null || !afinidad.leeDelPrimario(usuario))) {
+            return Destino.REPLICA;
+        }
+        return Destino.PRIMARIO;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        HikariDataSource pool = pools.get(destinoActual());
+        // La primera conexión incluye el arranque del pool y no cuenta como espera
+        boolean iniciado = pool.isRunning();
+        long inicio = System.nanoTime();
+        Connection conexion = pool.getConnection();
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+        if (iniciado && millis >= umbralAdquisicionMillis) {
+            registrarAdquisicionLenta(pool, millis);
+        }
+        return conexion;
+    }
+
+    private void registrarAdquisicionLenta(HikariDataSource pool, long millis) {
+        HikariPoolMXBean estado = pool.getHikariPoolMXBean();
+        logger.warn("Adquisición lenta de conexión - pool: {}, espera: {} ms, activas: {}, ociosas: {}, en espera: {}, máximo: {}",
+                   pool.getPoolName(), millis, estado.getActiveConnections(), estado.getIdleConnections(),
+                   estado.getThreadsAwaitingConnection(), pool.getMaximumPoolSize());
+    }
+
+    private static String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion == null || !autenticacion.isAuthenticated() || autenticacion instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return autenticacion.getName();
+    }
+}
@@ -0,0 +1,15 @@
+package com.cuido.cuido.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActualizarCompletadaTareaRequestDTO {
+
+    @NotNull(message = "El estado completada es obligatorio")
+    private Boolean completada;
+}
@@ -11,5 +11,5 @@ import lombok.NoArgsConstructor;
 public class ActualizarEstadoRecordatorioRequestDTO {
 
     @NotNull(message = "El estado es obligatorio")
-    private String estado; // PENDIENTE, COMPLETADO, CANCELADO
+    private String estado; // PENDIENTE, COMPLETADO, CANCELADO, OMITIDO
 }
@@ -0,0 +1,23 @@
+package com.cuido.cuido.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActualizarEstadoRecordatoriosRequestDTO {
+
+    @NotEmpty(message = "Debe indicar al menos un recordatorio")
+    @Size(max = 500, message = "No se pueden actualizar más de 500 recordatorios por solicitud")
+    private List<@NotNull Long> ids;
+
+    @NotNull(message = "El estado es obligatorio")
+    private String estado; // PENDIENTE, COMPLETADO, CANCELADO, OMITIDO
+}
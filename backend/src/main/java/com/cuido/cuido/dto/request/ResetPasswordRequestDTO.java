@@ -1,5 +1,6 @@
 package com.cuido.cuido.dto.request;
 
+import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -7,6 +8,11 @@ import lombok.Data;
 @Data
 public class ResetPasswordRequestDTO {
 
+    // El código solo es válido junto con el email al que se envió
+    @NotBlank(message = "El email es requerido")
+    @Email(message = "El email debe ser válido")
+    private String email;
+
     @NotBlank(message = "El código OTP es requerido")
     @Size(min = 6, max = 6, message = "El código OTP debe tener 6 dígitos")
     private String codigoOtp;
@@ -0,0 +1,31 @@
+package com.cuido.cuido.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActualizacionEstadoMasivaResponseDTO {
+
+    private String estado;
+    private Integer actualizados;
+    private Integer sinCambios;
+    private Integer noEncontrados;
+    private List<ResultadoDTO> resultados;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ResultadoDTO {
+        private Long id;
+        private String resultado; // ACTUALIZADO, SIN_CAMBIOS, NO_ENCONTRADO
+        private String estadoAnterior;
+    }
+}
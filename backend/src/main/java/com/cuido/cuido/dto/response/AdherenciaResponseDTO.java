@@ -0,0 +1,60 @@
+package com.cuido.cuido.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdherenciaResponseDTO {
+
+    private Long pacienteId;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private String granularidad; // DIA, SEMANA, MES
+    private LocalDateTime calculadoHasta; // Las dosis posteriores aún no se contabilizan
+    private ContadoresDTO total;
+    private List<PeriodoDTO> periodos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ContadoresDTO {
+        private Integer programados;
+        private Integer completados;
+        private Integer omitidos;
+        private Integer cancelados;
+        private Double porcentajeAdherencia; // null si no hubo dosis esperadas
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PeriodoDTO {
+        private LocalDate inicio;
+        private LocalDate fin;
+        private ContadoresDTO total;
+        private List<MedicamentoAdherenciaDTO> porMedicamento;
+        private Map<String, ContadoresDTO> porFranja; // MADRUGADA, MANANA, TARDE, NOCHE
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MedicamentoAdherenciaDTO {
+        private Long medicamentoId;
+        private String nombre;
+        private ContadoresDTO contadores;
+    }
+}
@@ -19,7 +19,7 @@ public class RecordatorioResponseDTO {
     private Long pacienteId;
     private String pacienteNombre;
     private LocalDateTime fechaHora;
-    private String estado; // PENDIENTE, COMPLETADO, CANCELADO
+    private String estado; // PENDIENTE, COMPLETADO, CANCELADO, OMITIDO
     private String descripcion;
     private String observaciones;
 
@@ -0,0 +1,7 @@
+package com.cuido.cuido.exception;
+
+public class ConflictoEdicionException extends RuntimeException {
+    public ConflictoEdicionException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.cuido.cuido.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -38,6 +39,19 @@ public class GlobalExceptionHandler {
         return new ErrorResponse(ex.getMessage());
     }
 
+    @ExceptionHandler(ConflictoEdicionException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictoEdicion(ConflictoEdicionException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    // Otra escritura confirmó antes sobre la misma fila y no se pudo reintentar
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return new ErrorResponse("El registro fue modificado por otra persona. Actualiza e intenta nuevamente.");
+    }
+
     @ExceptionHandler(BadRequestException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBadRequest(BadRequestException ex) {
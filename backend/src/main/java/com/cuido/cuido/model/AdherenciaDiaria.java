@@ -0,0 +1,83 @@
+package com.cuido.cuido.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Contadores diarios de adherencia por paciente, medicamento y franja horaria.
+ * Se mantienen de forma incremental; las consultas de adherencia leen estas
+ * filas en lugar de recorrer recordatorios_instancia.
+ */
+@Entity
+@Table(name = "adherencia_diaria",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_adherencia_clave",
+        columnNames = {"paciente_id", "medicamento_id", "fecha", "franja"}
+    ),
+    indexes = {
+        @Index(name = "idx_adherencia_paciente_fecha", columnList = "paciente_id, fecha"),
+        @Index(name = "idx_adherencia_medicamento", columnList = "medicamento_id")
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdherenciaDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "paciente_id", nullable = false)
+    private Long pacienteId;
+
+    @Column(name = "medicamento_id", nullable = false)
+    private Long medicamentoId;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "franja", nullable = false, length = 20)
+    private FranjaHoraria franja;
+
+    @Column(name = "programados", nullable = false)
+    private Integer programados = 0;
+
+    @Column(name = "completados", nullable = false)
+    private Integer completados = 0;
+
+    @Column(name = "omitidos", nullable = false)
+    private Integer omitidos = 0;
+
+    @Column(name = "cancelados", nullable = false)
+    private Integer cancelados = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum FranjaHoraria {
+        MADRUGADA,  // 00:00 - 05:59
+        MANANA,     // 06:00 - 11:59
+        TARDE,      // 12:00 - 17:59
+        NOCHE;      // 18:00 - 23:59
+
+        public static FranjaHoraria deHora(int hora) {
+            if (hora < 6) return MADRUGADA;
+            if (hora < 12) return MANANA;
+            if (hora < 18) return TARDE;
+            return NOCHE;
+        }
+    }
+}
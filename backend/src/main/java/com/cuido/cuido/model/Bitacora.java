@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bitacoras", indexes = {
-    @Index(name = "idx_paciente_fecha", columnList = "paciente_id, fecha")
+    @Index(name = "idx_bitacora_paciente_fecha_creado", columnList = "paciente_id, fecha, created_at"),
+    @Index(name = "idx_bitacora_cuidador_fecha", columnList = "cuidador_id, fecha")
 })
 @Data
 @NoArgsConstructor
@@ -21,11 +22,11 @@ public class Bitacora {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Usuario paciente;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "cuidador_id", nullable = false)
     private Usuario cuidador;
 
@@ -50,6 +51,10 @@ public class Bitacora {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
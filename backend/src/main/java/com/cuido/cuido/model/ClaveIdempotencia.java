@@ -0,0 +1,39 @@
+package com.cuido.cuido.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de idempotencia (cabecera Idempotency-Key) y la respuesta de la primera
+ * ejecución. Sin respuesta, la operación sigue en curso en alguna instancia.
+ */
+@Entity
+@Table(name = "claves_idempotencia", indexes = {
+    @Index(name = "idx_idempotencia_expiracion", columnList = "expira_en")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaveIdempotencia {
+
+    @Id
+    @Column(name = "clave", length = 160)
+    private String clave;
+
+    // SHA-256 de la solicitud: la misma clave con otra solicitud es un error
+    @Column(name = "huella", nullable = false, length = 64)
+    private String huella;
+
+    @Column(name = "respuesta", columnDefinition = "MEDIUMTEXT")
+    private String respuesta;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -11,9 +11,8 @@ import java.time.LocalDateTime;
 @Table(name = "cuidadores_pacientes",
     uniqueConstraints = @UniqueConstraint(columnNames = {"cuidador_id", "paciente_id"}),
     indexes = {
-        @Index(name = "idx_cuidador", columnList = "cuidador_id"),
-        @Index(name = "idx_paciente", columnList = "paciente_id"),
-        @Index(name = "idx_estado", columnList = "estado")
+        @Index(name = "idx_cuidador_estado", columnList = "cuidador_id, estado"),
+        @Index(name = "idx_paciente_estado", columnList = "paciente_id, estado")
     }
 )
 @Data
@@ -25,11 +24,11 @@ public class CuidadorPaciente {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "cuidador_id", nullable = false)
     private Usuario cuidador;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Usuario paciente;
 
@@ -9,9 +9,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "documentos", indexes = {
-    @Index(name = "idx_paciente_tipo", columnList = "paciente_id, tipo"),
-    @Index(name = "idx_paciente_categoria", columnList = "paciente_id, categoria_archivo"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_documento_paciente_creado", columnList = "paciente_id, created_at"),
+    @Index(name = "idx_documento_paciente_tipo_creado", columnList = "paciente_id, tipo, created_at"),
+    @Index(name = "idx_documento_paciente_categoria_creado", columnList = "paciente_id, categoria_archivo, created_at"),
+    @Index(name = "idx_documento_cuidador_creado", columnList = "cuidador_id, created_at")
 })
 @Data
 @NoArgsConstructor
@@ -22,11 +23,11 @@ public class Documento {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Usuario paciente;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "cuidador_id", nullable = false)
     private Usuario cuidador;
 
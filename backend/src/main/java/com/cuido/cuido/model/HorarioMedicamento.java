@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "horarios_medicamento")
+@Table(name = "horarios_medicamento", indexes = {
+    @Index(name = "idx_horario_medicamento_hora", columnList = "medicamento_id, hora")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +21,7 @@ public class HorarioMedicamento {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "medicamento_id", nullable = false)
     private Medicamento medicamento;
 
@@ -0,0 +1,35 @@
+package com.cuido.cuido.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de agua de un proceso incremental: hasta qué instante ya fue procesado
+ */
+@Entity
+@Table(name = "job_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+
+    @Id
+    @Column(name = "nombre", length = 100)
+    private String nombre;
+
+    @Column(name = "valor", nullable = false)
+    private LocalDateTime valor;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
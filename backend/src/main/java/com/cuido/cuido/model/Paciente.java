@@ -6,20 +6,21 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.cuido.cuido.model.converter.ListaStringJsonConverter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "pacientes")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Paciente {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(optional = false)
     @JoinColumn(name = "usuario_id", nullable = false, unique = true)
     private Usuario usuario;
 
@@ -35,18 +36,14 @@ public class Paciente {
     @Column(columnDefinition = "TEXT")
     private String alergias;
 
-    // Condiciones médicas ahora como JSON array
+    // Condiciones médicas como JSON array
+    @Convert(converter = ListaStringJsonConverter.class)
     @Column(name = "condiciones_medicas", columnDefinition = "TEXT")
-    private String condicionesMedicasJson;
-
-    @Transient
     private List<String> condicionesMedicas = new ArrayList<>();
 
-    // Notas importantes ahora como JSON array
+    // Notas importantes como JSON array
+    @Convert(converter = ListaStringJsonConverter.class)
     @Column(name = "notas_importantes", columnDefinition = "TEXT")
-    private String notasImportantesJson;
-
-    @Transient
     private List<String> notasImportantes = new ArrayList<>();
 
     @Column(name = "obra_social")
@@ -65,42 +62,10 @@ public class Paciente {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        serializeArrays();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
-        serializeArrays();
-    }
-
-    @PostLoad
-    protected void deserializeArrays() {
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            if (condicionesMedicasJson != null && !condicionesMedicasJson.isEmpty()) {
-                condicionesMedicas = mapper.readValue(condicionesMedicasJson, new TypeReference<List<String>>() {});
-            }
-            if (notasImportantesJson != null && !notasImportantesJson.isEmpty()) {
-                notasImportantes = mapper.readValue(notasImportantesJson, new TypeReference<List<String>>() {});
-            }
-        } catch (JsonProcessingException e) {
-            condicionesMedicas = new ArrayList<>();
-            notasImportantes = new ArrayList<>();
-        }
-    }
-
-    private void serializeArrays() {
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            condicionesMedicasJson = (condicionesMedicas != null && !condicionesMedicas.isEmpty())
-                ? mapper.writeValueAsString(condicionesMedicas)
-                : null;
-            notasImportantesJson = (notasImportantes != null && !notasImportantes.isEmpty())
-                ? mapper.writeValueAsString(notasImportantes)
-                : null;
-        } catch (JsonProcessingException e) {
-            // Mantener valores anteriores si hay error
-        }
     }
 }
@@ -8,7 +8,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+    @Index(name = "uk_reset_codigo_hash", columnList = "codigo_hash", unique = true),
+    @Index(name = "idx_reset_usuario_usado", columnList = "usuario_id, usado"),
+    @Index(name = "idx_reset_expiracion", columnList = "fecha_expiracion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,12 +22,17 @@ public class PasswordResetToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
 
-    @Column(name = "codigo_otp", nullable = false, length = 6)
-    private String codigoOtp;
+    // HMAC-SHA256 en hexadecimal del email del usuario y el código; el código no se guarda
+    @Column(name = "codigo_hash", nullable = false, length = 64)
+    private String codigoHash;
+
+    // Validaciones contadas contra este código, acertadas o no
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
 
     @Column(name = "fecha_expiracion", nullable = false)
     private LocalDateTime fechaExpiracion;
@@ -40,6 +49,9 @@ public class PasswordResetToken {
         if (usado == null) {
             usado = false;
         }
+        if (intentos == null) {
+            intentos = 0;
+        }
     }
 
     public boolean isExpired() {
@@ -0,0 +1,60 @@
+package com.cuido.cuido.model;
+
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.model.RecordatorioInstancia.TipoRecordatorio;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recordatorio histórico movido fuera de recordatorios_instancia al superar
+ * el período de retención. Conserva el id original y es de solo lectura.
+ */
+@Entity
+@Table(name = "recordatorios_instancia_archivo", indexes = {
+    @Index(name = "idx_archivo_paciente_fecha", columnList = "paciente_id, fecha_hora"),
+    @Index(name = "idx_archivo_tipo_referencia", columnList = "tipo, referencia_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordatorioArchivado {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false)
+    private TipoRecordatorio tipo;
+
+    @Column(name = "referencia_id", nullable = false)
+    private Long referenciaId;
+
+    @Column(name = "paciente_id", nullable = false)
+    private Long pacienteId;
+
+    @Column(name = "fecha_hora", nullable = false)
+    private LocalDateTime fechaHora;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado")
+    private EstadoRecordatorio estado;
+
+    @Column(name = "descripcion", length = 500)
+    private String descripcion;
+
+    @Column(name = "observaciones", columnDefinition = "TEXT")
+    private String observaciones;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archivado_at", nullable = false)
+    private LocalDateTime archivadoAt;
+}
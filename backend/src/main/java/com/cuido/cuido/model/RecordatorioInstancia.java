@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "recordatorios_instancia", indexes = {
     @Index(name = "idx_paciente_fecha", columnList = "paciente_id, fecha_hora"),
-    @Index(name = "idx_tipo_referencia", columnList = "tipo, referencia_id")
+    @Index(name = "idx_recordatorio_paciente_estado_fecha", columnList = "paciente_id, estado, fecha_hora"),
+    @Index(name = "idx_tipo_referencia_fecha", columnList = "tipo, referencia_id, fecha_hora"),
+    @Index(name = "idx_estado_fecha", columnList = "estado, fecha_hora")
 })
 @Data
 @NoArgsConstructor
@@ -28,7 +30,7 @@ public class RecordatorioInstancia {
     @Column(name = "referencia_id", nullable = false)
     private Long referenciaId; // medicamento_id o cita_medica_id
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Usuario paciente;
 
@@ -51,6 +53,10 @@ public class RecordatorioInstancia {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -70,6 +76,7 @@ public class RecordatorioInstancia {
     public enum EstadoRecordatorio {
         PENDIENTE,
         COMPLETADO,
-        CANCELADO
+        CANCELADO,
+        OMITIDO     // Dosis no registrada dentro del margen de tolerancia
     }
 }
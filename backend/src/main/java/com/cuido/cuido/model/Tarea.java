@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tareas", indexes = {
-    @Index(name = "idx_paciente_orden", columnList = "paciente_id, orden_manual")
+    @Index(name = "idx_paciente_orden", columnList = "paciente_id, orden_manual"),
+    @Index(name = "idx_tarea_paciente_completada_orden", columnList = "paciente_id, completada, orden_manual"),
+    @Index(name = "idx_tarea_paciente_vencimiento", columnList = "paciente_id, fecha_vencimiento"),
+    @Index(name = "idx_tarea_cuidador_creado", columnList = "cuidador_id, created_at")
 })
 @Data
 @NoArgsConstructor
@@ -20,11 +23,11 @@ public class Tarea {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Usuario paciente;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "cuidador_id", nullable = false)
     private Usuario cuidador;
 
@@ -56,6 +59,10 @@ public class Tarea {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -10,11 +10,14 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 
 @Data
 @Entity
 @Table(name = "usuarios")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 
 public class Usuario implements  UserDetails  {
 	@Id
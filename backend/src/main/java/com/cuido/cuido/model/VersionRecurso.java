@@ -0,0 +1,44 @@
+package com.cuido.cuido.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Versión de un recurso de un paciente (perfil, contactos, medicamentos, documentos)
+ * con la que se arma su ETag. La modifica VersionRecursoService con un incremento atómico.
+ */
+@Entity
+@Table(name = "versiones_recurso")
+@IdClass(VersionRecurso.Clave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionRecurso {
+
+    @Id
+    @Column(name = "recurso", length = 20)
+    private String recurso;
+
+    @Id
+    @Column(name = "paciente_id")
+    private Long pacienteId;
+
+    @Column(name = "numero", nullable = false)
+    private Long numero;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private String recurso;
+        private Long pacienteId;
+    }
+}
@@ -0,0 +1,67 @@
+package com.cuido.cuido.model.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.MutableMutabilityPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda una lista de textos como array JSON en una columna de texto.
+ *
+ * El lector y el escritor se crean una sola vez y son seguros entre hilos.
+ * Una lista vacía se guarda como NULL y un NULL se lee como lista vacía.
+ */
+@Converter
+@Mutability(ListaStringJsonConverter.CopiaDeLista.class)
+public class ListaStringJsonConverter implements AttributeConverter<List<String>, String> {
+
+    private static final TypeReference<List<String>> TIPO = new TypeReference<>() {};
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader LECTOR = MAPPER.readerFor(TIPO);
+    private static final ObjectWriter ESCRITOR = MAPPER.writerFor(TIPO);
+
+    @Override
+    public String convertToDatabaseColumn(List<String> lista) {
+        if (lista == null || lista.isEmpty()) {
+            return null;
+        }
+        try {
+            return ESCRITOR.writeValueAsString(lista);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo serializar la lista a JSON", e);
+        }
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return LECTOR.readValue(json);
+        } catch (JsonProcessingException e) {
+            // Dato corrupto: se trata como lista vacía en lugar de impedir la carga del paciente
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Copia de la lista para el snapshot de dirty checking y la caché de segundo nivel.
+     * Sin esto Hibernate copia serializando y volviendo a parsear el JSON en cada carga.
+     */
+    public static class CopiaDeLista extends MutableMutabilityPlan<List<String>> {
+
+        @Override
+        protected List<String> deepCopyNotNull(List<String> lista) {
+            return new ArrayList<>(lista);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.cuido.cuido.observabilidad;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sentencias SQL ejecutadas por la solicitud HTTP del hilo actual: cantidad, tiempo
+ * total y repeticiones de cada consulta (el mismo SELECT muchas veces suele ser un N+1).
+ * Las escrituras solo se suman al total: su cantidad depende de lo que se pidió guardar.
+ */
+public final class ConsultasSolicitud {
+
+    private static final ThreadLocal<ConsultasSolicitud> ACTUAL = new ThreadLocal<>();
+
+    private final String endpoint;
+    private int sentencias;
+    private int consultas;
+    private long nanos;
+    private final Map<String, Integer> repeticiones = new HashMap<>();
+
+    private ConsultasSolicitud(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Empieza a contar en el hilo actual; debe cerrarse con {@link #finalizar()}
+     */
+    public static ConsultasSolicitud iniciar(String endpoint) {
+        ConsultasSolicitud solicitud = new ConsultasSolicitud(endpoint);
+        ACTUAL.set(solicitud);
+        return solicitud;
+    }
+
+    /**
+     * Conteo del hilo actual, o null fuera de una solicitud
+     */
+    public static ConsultasSolicitud actual() {
+        return ACTUAL.get();
+    }
+
+    public static void finalizar() {
+        ACTUAL.remove();
+    }
+
+    void registrar(String sql, long duracionNanos) {
+        sentencias++;
+        nanos += duracionNanos;
+        if (sql != null && sql.regionMatches(true, 0, "select", 0, 6)) {
+            consultas++;
+            repeticiones.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public int getConsultas() {
+        return consultas;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * La consulta ejecutada más veces y su cantidad, o null si no hubo ninguna
+     */
+    public Map.Entry<String, Integer> masRepetida() {
+        return repeticiones.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .orElse(null);
+    }
+}
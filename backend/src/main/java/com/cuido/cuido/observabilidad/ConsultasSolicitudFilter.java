@@ -0,0 +1,99 @@
+package com.cuido.cuido.observabilidad;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuenta y mide las sentencias SQL de cada solicitud HTTP.
+ *
+ * Publica cuido.solicitud.sentencias y cuido.solicitud.sentencias.tiempo por endpoint
+ * y avisa en el log cuando una solicitud supera el presupuesto de consultas (SELECT) o
+ * repite la misma consulta muchas veces (N+1). Va antes de la cadena de seguridad para
+ * incluir la carga del usuario autenticado.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class ConsultasSolicitudFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultasSolicitudFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.observabilidad.consultas.presupuesto:20}")
+    private int presupuesto;
+
+    @Value("${app.observabilidad.consultas.repeticiones-sospechosas:5}")
+    private int repeticionesSospechosas;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+        throws ServletException, IOException {
+
+        ConsultasSolicitud solicitud = ConsultasSolicitud.iniciar(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsultasSolicitud.finalizar();
+            registrar(request, solicitud);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ConsultasSolicitud solicitud) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = patron != null ? patron.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("cuido.solicitud.sentencias")
+            .description("Sentencias SQL ejecutadas por solicitud")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(solicitud.getSentencias());
+        Timer.builder("cuido.solicitud.sentencias.tiempo")
+            .description("Tiempo total en sentencias SQL por solicitud")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(solicitud.getNanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> masRepetida = solicitud.masRepetida();
+        if (solicitud.getConsultas() > presupuesto) {
+            meterRegistry.counter("cuido.solicitud.consultas.excedidas", "uri", uri, "motivo", "presupuesto").increment();
+            logger.warn("Presupuesto de consultas excedido endpoint={} consultas={} presupuesto={} sentencias={} ms={} repeticiones={} sql=\"{}\"",
+                solicitud.getEndpoint(),
+                solicitud.getConsultas(),
+                presupuesto,
+                solicitud.getSentencias(),
+                TimeUnit.NANOSECONDS.toMillis(solicitud.getNanos()),
+                masRepetida.getValue(),
+                masRepetida.getKey());
+        } else if (masRepetida != null && masRepetida.getValue() >= repeticionesSospechosas) {
+            meterRegistry.counter("cuido.solicitud.consultas.excedidas", "uri", uri, "motivo", "repeticion").increment();
+            logger.warn("Posible N+1 endpoint={} consultas={} repeticiones={} sql=\"{}\"",
+                solicitud.getEndpoint(),
+                solicitud.getConsultas(),
+                masRepetida.getValue(),
+                masRepetida.getKey());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.cuido.cuido.observabilidad;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Asigna un id a cada solicitud HTTP y lo deja en el MDC (requestId) para que todas
+ * las líneas de log de la solicitud lo incluyan, también las de tareas @Async que
+ * inicia (ver ObservabilidadConfig.propagarMdc). Respeta el X-Request-Id que envía
+ * un proxy o el cliente si es válido y lo devuelve en la respuesta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdSolicitudFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_CLAVE = "requestId";
+
+    // Evita que un valor arbitrario del cliente inyecte líneas o JSON en el log
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+        throws ServletException, IOException {
+
+        String id = request.getHeader(HEADER);
+        if (id == null || !ID_VALIDO.matcher(id).matches()) {
+            id = UUID.randomUUID().toString();
+        }
+        response.setHeader(HEADER, id);
+        MDC.put(MDC_CLAVE, id);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_CLAVE);
+        }
+    }
+}
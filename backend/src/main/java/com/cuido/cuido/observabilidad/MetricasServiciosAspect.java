@@ -0,0 +1,57 @@
+package com.cuido.cuido.observabilidad;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mide cada método público de los servicios: cuido.servicio{clase,metodo,exception}.
+ *
+ * Los histogramas de percentiles y los SLO se configuran en
+ * management.metrics.distribution.*.cuido.servicio. Las llamadas internas dentro
+ * de un mismo servicio no pasan por el proxy y quedan dentro del método que las llama.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasServiciosAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Timer> timersExitosos = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.cuido.cuido.service..*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object resultado = joinPoint.proceed();
+            sample.stop(timersExitosos.computeIfAbsent(metodo(joinPoint), m -> timer(joinPoint, "none")));
+            return resultado;
+        } catch (Throwable e) {
+            sample.stop(timer(joinPoint, e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder("cuido.servicio")
+            .description("Duración de los métodos de servicio")
+            .tag("clase", joinPoint.getSignature().getDeclaringType().getSimpleName())
+            .tag("metodo", joinPoint.getSignature().getName())
+            .tag("exception", exception)
+            .register(meterRegistry);
+    }
+
+    private static Method metodo(ProceedingJoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    }
+}
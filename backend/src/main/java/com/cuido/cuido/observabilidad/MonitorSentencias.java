@@ -0,0 +1,96 @@
+package com.cuido.cuido.observabilidad;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cada sentencia JDBC que ejecuta Hibernate.
+ *
+ * Hibernate pasa la SQL al inspector al preparar la sentencia y avisa al listener
+ * de sesión antes y después de ejecutarla. Con eso se suma la sentencia al conteo
+ * de la solicitud ({@link ConsultasSolicitud}) y se registran en el log las que
+ * superan el umbral, también fuera de solicitudes (tareas programadas).
+ *
+ * Hibernate instancia el listener por nombre de clase en cada sesión, por eso el
+ * umbral se configura de forma estática al arrancar (ver ObservabilidadConfig).
+ */
+public class MonitorSentencias implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorSentencias.class);
+
+    private static final int MAX_LARGO_SQL = 1000;
+
+    // SQL de la última sentencia preparada en el hilo, la que se ejecuta a continuación
+    private static final ThreadLocal<String> PREPARADA = new ThreadLocal<>();
+
+    private static volatile long umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(200);
+
+    public static void configurar(long umbralLentaMillis) {
+        umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(umbralLentaMillis);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        PREPARADA.set(sql);
+        return sql;
+    }
+
+    private static void registrar(long duracionNanos) {
+        String sql = PREPARADA.get();
+        ConsultasSolicitud solicitud = ConsultasSolicitud.actual();
+        if (solicitud != null) {
+            solicitud.registrar(sql, duracionNanos);
+        }
+
+        if (duracionNanos >= umbralLentaNanos) {
+            logger.warn("Consulta lenta ms={} endpoint={} sql=\"{}\"",
+                TimeUnit.NANOSECONDS.toMillis(duracionNanos),
+                solicitud != null ? solicitud.getEndpoint() : "-",
+                recortar(sql));
+        }
+    }
+
+    private static String recortar(String sql) {
+        if (sql == null || sql.length() <= MAX_LARGO_SQL) {
+            return sql;
+        }
+        return sql.substring(0, MAX_LARGO_SQL) + "...";
+    }
+
+    /**
+     * Listener de sesión registrado con hibernate.session.events.auto
+     */
+    public static class Medicion extends BaseSessionEventListener {
+
+        private long inicio;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            inicio = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            registrar(System.nanoTime() - inicio);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            inicio = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            registrar(System.nanoTime() - inicio);
+        }
+
+        @Override
+        public void end() {
+            PREPARADA.remove();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.cuido.cuido.observabilidad;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Observa cada llamada a un repositorio de Spring Data: un span por llamada dentro de
+ * la traza de la solicitud y el timer cuido.repositorio{repositorio,metodo}.
+ *
+ * Se agrega al proxy de cada repositorio desde ObservabilidadConfig.observarRepositorios.
+ * El registro se resuelve en la primera llamada: los repositorios se crean antes que él.
+ */
+public class ObservacionRepositorios implements MethodInterceptor {
+
+    private final ObjectProvider<ObservationRegistry> proveedorRegistro;
+    private final String repositorio;
+    private volatile ObservationRegistry registro;
+
+    public ObservacionRepositorios(ObjectProvider<ObservationRegistry> proveedorRegistro, Class<?> repositorio) {
+        this.proveedorRegistro = proveedorRegistro;
+        this.repositorio = repositorio.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        String metodo = invocacion.getMethod().getName();
+        return Observation.createNotStarted("cuido.repositorio", registro())
+            .contextualName(repositorio + "." + metodo)
+            .lowCardinalityKeyValue("repositorio", repositorio)
+            .lowCardinalityKeyValue("metodo", metodo)
+            .observeChecked(invocacion::proceed);
+    }
+
+    private ObservationRegistry registro() {
+        ObservationRegistry actual = registro;
+        if (actual == null) {
+            actual = proveedorRegistro.getIfAvailable(() -> ObservationRegistry.NOOP);
+            registro = actual;
+        }
+        return actual;
+    }
+}
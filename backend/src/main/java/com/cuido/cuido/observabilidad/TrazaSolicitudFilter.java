@@ -0,0 +1,45 @@
+package com.cuido.cuido.observabilidad;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Devuelve el id de la traza de la solicitud en X-Trace-Id para buscarla en el
+ * exportador de trazas o en los logs (traceId en el MDC).
+ *
+ * Va después del filtro de observación HTTP de Spring Boot (HIGHEST_PRECEDENCE + 1),
+ * que es el que abre el span de la solicitud o continúa el traceparent recibido.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class TrazaSolicitudFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+        throws ServletException, IOException {
+
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            response.setHeader(HEADER, span.context().traceId());
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,46 @@
+package com.cuido.cuido.repository;
+
+import com.cuido.cuido.model.AdherenciaDiaria;
+import com.cuido.cuido.model.AdherenciaDiaria.FranjaHoraria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AdherenciaDiariaRepository extends JpaRepository<AdherenciaDiaria, Long> {
+
+    List<AdherenciaDiaria> findByPacienteIdAndFechaBetweenOrderByFechaAsc(
+        Long pacienteId,
+        LocalDate desde,
+        LocalDate hasta
+    );
+
+    // Incremento atómico de contadores (sin leer la fila) para no perder actualizaciones concurrentes
+    @Modifying
+    @Query("UPDATE AdherenciaDiaria a SET " +
+           "a.programados = a.programados + :programados, " +
+           "a.completados = a.completados + :completados, " +
+           "a.omitidos = a.omitidos + :omitidos, " +
+           "a.cancelados = a.cancelados + :cancelados " +
+           "WHERE a.pacienteId = :pacienteId AND a.medicamentoId = :medicamentoId " +
+           "AND a.fecha = :fecha AND a.franja = :franja")
+    int incrementar(
+        @Param("pacienteId") Long pacienteId,
+        @Param("medicamentoId") Long medicamentoId,
+        @Param("fecha") LocalDate fecha,
+        @Param("franja") FranjaHoraria franja,
+        @Param("programados") int programados,
+        @Param("completados") int completados,
+        @Param("omitidos") int omitidos,
+        @Param("cancelados") int cancelados
+    );
+
+    @Modifying
+    @Query("DELETE FROM AdherenciaDiaria a WHERE a.medicamentoId = :medicamentoId")
+    void deleteByMedicamentoId(@Param("medicamentoId") Long medicamentoId);
+}
@@ -2,6 +2,9 @@ package com.cuido.cuido.repository;
 
 import com.cuido.cuido.model.CitaMedica;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -19,4 +22,8 @@ public interface CitaMedicaRepository extends JpaRepository<CitaMedica, Long> {
     );
 
     List<CitaMedica> findByCuidadorIdOrderByFechaHoraDesc(Long cuidadorId);
+
+    @Modifying
+    @Query("DELETE FROM CitaMedica c WHERE c.id = :id")
+    int eliminarPorId(@Param("id") Long id);
 }
@@ -0,0 +1,52 @@
+package com.cuido.cuido.repository;
+
+import com.cuido.cuido.model.ClaveIdempotencia;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    // INSERT explícito: save() con id asignado haría merge sobre la fila de otra instancia.
+    // Si la clave ya existe falla por la clave primaria (DataIntegrityViolationException)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "claves_idempotencia"))
+    @Query(value = "INSERT INTO claves_idempotencia (clave, huella, expira_en, created_at) " +
+                   "VALUES (:clave, :huella, :expiraEn, :ahora)",
+           nativeQuery = true)
+    int reservar(@Param("clave") String clave, @Param("huella") String huella,
+                 @Param("expiraEn") LocalDateTime expiraEn, @Param("ahora") LocalDateTime ahora);
+
+    // Solo la reserva de esta ejecución (created_at): si venció, otra instancia pudo tomar la clave
+    @Modifying
+    @Query("UPDATE ClaveIdempotencia c SET c.respuesta = :respuesta, c.expiraEn = :expiraEn " +
+           "WHERE c.clave = :clave AND c.createdAt = :reservadaEn")
+    int guardarRespuesta(@Param("clave") String clave, @Param("reservadaEn") LocalDateTime reservadaEn,
+                         @Param("respuesta") String respuesta, @Param("expiraEn") LocalDateTime expiraEn);
+
+    // La operación falló: la clave queda libre para que el cliente reintente
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c " +
+           "WHERE c.clave = :clave AND c.createdAt = :reservadaEn AND c.respuesta IS NULL")
+    int liberar(@Param("clave") String clave, @Param("reservadaEn") LocalDateTime reservadaEn);
+
+    // Reserva abandonada (la instancia cayó) o respuesta vencida que la purga todavía no borró
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.clave = :clave AND c.expiraEn < :ahora")
+    int deleteVencida(@Param("clave") String clave, @Param("ahora") LocalDateTime ahora);
+
+    // Purga acotada por idx_idempotencia_expiracion, como la de códigos de recuperación
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "claves_idempotencia"))
+    @Query(value = "DELETE FROM claves_idempotencia WHERE expira_en < :ahora LIMIT :limite",
+           nativeQuery = true)
+    int deleteLoteVencidas(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+}
@@ -34,6 +34,10 @@ public interface DocumentoRepository extends JpaRepository<Documento, Long> {
     // Obtener documentos creados por un cuidador específico
     List<Documento> findByCuidadorIdOrderByCreatedAtDesc(Long cuidadorId);
 
+    // Pacientes con documentos subidos por el cuidador, que muestran su nombre
+    @Query("SELECT DISTINCT d.paciente.id FROM Documento d WHERE d.cuidador.id = :cuidadorId")
+    List<Long> findPacienteIdsByCuidadorId(@Param("cuidadorId") Long cuidadorId);
+
     // Contar documentos por paciente
     Long countByPacienteId(Long pacienteId);
 }
@@ -2,6 +2,9 @@ package com.cuido.cuido.repository;
 
 import com.cuido.cuido.model.HorarioMedicamento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,5 +14,7 @@ public interface HorarioMedicamentoRepository extends JpaRepository<HorarioMedic
 
     List<HorarioMedicamento> findByMedicamentoIdOrderByHoraAsc(Long medicamentoId);
 
-    void deleteByMedicamentoId(Long medicamentoId);
+    @Modifying
+    @Query("DELETE FROM HorarioMedicamento h WHERE h.medicamento.id = :medicamentoId")
+    int deleteByMedicamentoId(@Param("medicamentoId") Long medicamentoId);
 }
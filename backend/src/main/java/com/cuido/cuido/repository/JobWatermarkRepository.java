@@ -0,0 +1,25 @@
+package com.cuido.cuido.repository;
+
+import com.cuido.cuido.model.JobWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+
+    // Bloqueo exclusivo: el job que avanza la marca espera a las escrituras en curso
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.nombre = :nombre")
+    Optional<JobWatermark> findByIdParaActualizar(@Param("nombre") String nombre);
+
+    // Bloqueo compartido: las escrituras concurrentes no se bloquean entre sí
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT w FROM JobWatermark w WHERE w.nombre = :nombre")
+    Optional<JobWatermark> findByIdCompartido(@Param("nombre") String nombre);
+}
@@ -2,6 +2,9 @@ package com.cuido.cuido.repository;
 
 import com.cuido.cuido.model.Medicamento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,13 @@ public interface MedicamentoRepository extends JpaRepository<Medicamento, Long>
     List<Medicamento> findByPacienteIdOrderByCreatedAtDesc(Long pacienteId);
 
     List<Medicamento> findByCuidadorIdOrderByCreatedAtDesc(Long cuidadorId);
+
+    // Pacientes con medicamentos cargados por el cuidador, que muestran su nombre
+    @Query("SELECT DISTINCT m.paciente.id FROM Medicamento m WHERE m.cuidador.id = :cuidadorId")
+    List<Long> findPacienteIdsByCuidadorId(@Param("cuidadorId") Long cuidadorId);
+
+    // Borrado directo, sin cargar la entidad ni recorrer la cascada de horarios
+    @Modifying
+    @Query("DELETE FROM Medicamento m WHERE m.id = :id")
+    int eliminarPorId(@Param("id") Long id);
 }
@@ -1,22 +1,41 @@
 package com.cuido.cuido.repository;
 
 import com.cuido.cuido.model.PasswordResetToken;
-import com.cuido.cuido.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
 
-    Optional<PasswordResetToken> findByCodigoOtpAndUsadoFalse(String codigoOtp);
+    // Búsqueda puntual por uk_reset_codigo_hash; el hash incluye el email del usuario
+    Optional<PasswordResetToken> findByCodigoHash(String codigoHash);
 
-    List<PasswordResetToken> findByUsuarioAndUsadoFalse(Usuario usuario);
+    // Cuenta una validación contra el código vigente del usuario. Retorna 0 si no tiene
+    // uno o si agotó los intentos. Bloquea la fila hasta el fin de la transacción, así las
+    // validaciones concurrentes del mismo usuario se cuentan una por una
+    @Modifying
+    @Query("UPDATE PasswordResetToken t SET t.intentos = t.intentos + 1 " +
+           "WHERE t.usuario.id = :usuarioId AND t.usado = false AND t.intentos < :maxIntentos")
+    int registrarIntento(@Param("usuarioId") Long usuarioId, @Param("maxIntentos") int maxIntentos);
 
-    void deleteByFechaExpiracionBefore(LocalDateTime fecha);
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.usuario.id = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
 
-    void deleteByUsuario(Usuario usuario);
+    // Purga acotada por idx_reset_expiracion: cada llamada elimina a lo sumo :limite filas.
+    // El hint declara la tabla afectada; sin él Hibernate vacía toda la caché de segundo nivel.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "password_reset_tokens"))
+    @Query(value = "DELETE FROM password_reset_tokens WHERE fecha_expiracion < :ahora LIMIT :limite",
+           nativeQuery = true)
+    int deleteLoteExpirados(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
 }
@@ -0,0 +1,49 @@
+package com.cuido.cuido.repository;
+
+import com.cuido.cuido.model.RecordatorioArchivado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecordatorioArchivadoRepository extends JpaRepository<RecordatorioArchivado, Long> {
+
+    List<RecordatorioArchivado> findByPacienteIdOrderByFechaHoraAsc(Long pacienteId);
+
+    List<RecordatorioArchivado> findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc(
+        Long pacienteId,
+        LocalDateTime desde,
+        LocalDateTime hasta
+    );
+
+    // Copia los recordatorios indicados desde la tabla activa, en una sola sentencia.
+    // El hint declara la tabla modificada; sin él Hibernate vacía toda la caché de segundo nivel.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recordatorios_instancia_archivo"))
+    @Query(value = "INSERT INTO recordatorios_instancia_archivo " +
+                   "(id, tipo, referencia_id, paciente_id, fecha_hora, estado, descripcion, observaciones, " +
+                   "created_at, updated_at, archivado_at) " +
+                   "SELECT id, tipo, referencia_id, paciente_id, fecha_hora, estado, descripcion, observaciones, " +
+                   "created_at, updated_at, :ahora FROM recordatorios_instancia WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copiarDesdeActivos(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recordatorios_instancia_archivo"))
+    @Query(value = "DELETE FROM recordatorios_instancia_archivo WHERE tipo = :tipo AND referencia_id = :referenciaId LIMIT :limite",
+           nativeQuery = true)
+    int deleteLoteByTipoAndReferenciaId(
+        @Param("tipo") String tipo,
+        @Param("referenciaId") Long referenciaId,
+        @Param("limite") int limite
+    );
+}
@@ -3,12 +3,22 @@ package com.cuido.cuido.repository;
 import com.cuido.cuido.model.RecordatorioInstancia;
 import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
 import com.cuido.cuido.model.RecordatorioInstancia.TipoRecordatorio;
+import com.cuido.cuido.scheduler.RecordatorioProgramado;
+import com.cuido.cuido.service.RecordatorioEstadoActual;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -38,5 +48,137 @@ public interface RecordatorioInstanciaRepository extends JpaRepository<Recordato
 
     List<RecordatorioInstancia> findByTipoAndReferenciaId(TipoRecordatorio tipo, Long referenciaId);
 
-    void deleteByTipoAndReferenciaId(TipoRecordatorio tipo, Long referenciaId);
+    @Modifying
+    @Query("DELETE FROM RecordatorioInstancia r WHERE r.tipo = :tipo AND r.referenciaId = :referenciaId")
+    int deleteByTipoAndReferenciaId(@Param("tipo") TipoRecordatorio tipo, @Param("referenciaId") Long referenciaId);
+
+    // Borrado acotado para tratamientos largos: cada llamada elimina a lo sumo :limite filas.
+    // El hint declara la tabla afectada; sin él Hibernate vacía toda la caché de segundo nivel.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recordatorios_instancia"))
+    @Query(value = "DELETE FROM recordatorios_instancia WHERE tipo = :tipo AND referencia_id = :referenciaId LIMIT :limite",
+           nativeQuery = true)
+    int deleteLoteByTipoAndReferenciaId(
+        @Param("tipo") String tipo,
+        @Param("referenciaId") Long referenciaId,
+        @Param("limite") int limite
+    );
+
+    // Tramo de recordatorios pendientes que vencen en (desde, hasta] - usa idx_estado_fecha
+    @Query("SELECT new com.cuido.cuido.scheduler.RecordatorioProgramado(" +
+           "r.id, r.paciente.id, r.tipo, r.referenciaId, r.fechaHora, r.descripcion) " +
+           "FROM RecordatorioInstancia r WHERE r.estado = :estado " +
+           "AND r.fechaHora > :desde AND r.fechaHora <= :hasta")
+    List<RecordatorioProgramado> findProgramadosEntre(
+        @Param("estado") EstadoRecordatorio estado,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    // Recordatorios insertados después del último id visto que caen en un tramo ya cargado
+    @Query("SELECT new com.cuido.cuido.scheduler.RecordatorioProgramado(" +
+           "r.id, r.paciente.id, r.tipo, r.referenciaId, r.fechaHora, r.descripcion) " +
+           "FROM RecordatorioInstancia r WHERE r.id > :idDesde AND r.id <= :idHasta " +
+           "AND r.estado = :estado AND r.fechaHora > :desde AND r.fechaHora <= :hasta")
+    List<RecordatorioProgramado> findProgramadosNuevos(
+        @Param("idDesde") Long idDesde,
+        @Param("idHasta") Long idHasta,
+        @Param("estado") EstadoRecordatorio estado,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    // Estado actual de varios recordatorios, bloqueados hasta el fin de la transacción
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.cuido.cuido.service.RecordatorioEstadoActual(" +
+           "r.id, r.paciente.id, r.tipo, r.referenciaId, r.fechaHora, r.estado) " +
+           "FROM RecordatorioInstancia r WHERE r.id IN :ids")
+    List<RecordatorioEstadoActual> findEstadosParaActualizar(@Param("ids") Collection<Long> ids);
+
+    // Las actualizaciones masivas aumentan la versión: una escritura optimista en curso sobre
+    // las mismas filas falla y se reintenta con el estado nuevo en lugar de pisarlo
+    @Modifying
+    @Query("UPDATE RecordatorioInstancia r SET r.estado = :estado, r.updatedAt = :ahora, r.version = r.version + 1 " +
+           "WHERE r.id IN :ids AND r.estado <> :estado")
+    int actualizarEstado(
+        @Param("ids") Collection<Long> ids,
+        @Param("estado") EstadoRecordatorio estado,
+        @Param("ahora") LocalDateTime ahora
+    );
+
+    // Recordatorios de un medicamento o cita posteriores a un instante - usa idx_tipo_referencia_fecha
+    @Query("SELECT new com.cuido.cuido.service.RecordatorioEstadoActual(" +
+           "r.id, r.paciente.id, r.tipo, r.referenciaId, r.fechaHora, r.estado) " +
+           "FROM RecordatorioInstancia r WHERE r.tipo = :tipo AND r.referenciaId = :referenciaId " +
+           "AND r.fechaHora > :desde")
+    List<RecordatorioEstadoActual> findEstadosPosteriores(
+        @Param("tipo") TipoRecordatorio tipo,
+        @Param("referenciaId") Long referenciaId,
+        @Param("desde") LocalDateTime desde
+    );
+
+    @Modifying
+    @Query("UPDATE RecordatorioInstancia r SET r.descripcion = :descripcion, r.updatedAt = :ahora, r.version = r.version + 1 " +
+           "WHERE r.tipo = :tipo AND r.referenciaId = :referenciaId " +
+           "AND r.estado = com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio.PENDIENTE " +
+           "AND r.fechaHora > :ahora")
+    int actualizarDescripcionPendientes(
+        @Param("tipo") TipoRecordatorio tipo,
+        @Param("referenciaId") Long referenciaId,
+        @Param("descripcion") String descripcion,
+        @Param("ahora") LocalDateTime ahora
+    );
+
+    @Modifying
+    @Query("DELETE FROM RecordatorioInstancia r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Lote de recordatorios anteriores a un instante, en cualquier orden: el corte ya cubre
+    // todo el tramo. Se filtra por todos los estados para que la consulta recorra
+    // idx_estado_fecha por rangos; ordenar por fecha sobre varios rangos obligaría a un filesort.
+    @Query("SELECT r.id FROM RecordatorioInstancia r WHERE r.estado IN :estados " +
+           "AND r.fechaHora < :limite")
+    List<Long> findIdsAnteriores(
+        @Param("estados") Collection<EstadoRecordatorio> estados,
+        @Param("limite") LocalDateTime limite,
+        Pageable pageable
+    );
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM RecordatorioInstancia r")
+    Long findMaxId();
+
+    @Query("SELECT r.id FROM RecordatorioInstancia r WHERE r.id IN :ids AND r.estado = :estado")
+    List<Long> findIdsByIdInAndEstado(
+        @Param("ids") Collection<Long> ids,
+        @Param("estado") EstadoRecordatorio estado
+    );
+
+    // Conteo por paciente, medicamento, día, hora y estado en (desde, hasta] para los rollups de adherencia.
+    // Se filtra por todos los estados para que la consulta recorra idx_estado_fecha por rangos.
+    @Query("SELECT r.paciente.id, r.referenciaId, CAST(r.fechaHora AS LocalDate), HOUR(r.fechaHora), r.estado, COUNT(r) " +
+           "FROM RecordatorioInstancia r WHERE r.tipo = :tipo AND r.estado IN :estados " +
+           "AND r.fechaHora > :desde AND r.fechaHora <= :hasta " +
+           "GROUP BY r.paciente.id, r.referenciaId, CAST(r.fechaHora AS LocalDate), HOUR(r.fechaHora), r.estado")
+    List<Object[]> contarPorDiaHoraYEstado(
+        @Param("tipo") TipoRecordatorio tipo,
+        @Param("estados") Collection<EstadoRecordatorio> estados,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    @Modifying
+    @Query("UPDATE RecordatorioInstancia r SET r.estado = :nuevoEstado, r.updatedAt = :ahora, r.version = r.version + 1 " +
+           "WHERE r.tipo = :tipo AND r.estado = :estadoActual " +
+           "AND r.fechaHora > :desde AND r.fechaHora <= :hasta")
+    int actualizarEstadoEnRango(
+        @Param("tipo") TipoRecordatorio tipo,
+        @Param("estadoActual") EstadoRecordatorio estadoActual,
+        @Param("nuevoEstado") EstadoRecordatorio nuevoEstado,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        @Param("ahora") LocalDateTime ahora
+    );
+
+    @Query("SELECT MIN(r.fechaHora) FROM RecordatorioInstancia r WHERE r.tipo = :tipo")
+    LocalDateTime findMinFechaHoraByTipo(@Param("tipo") TipoRecordatorio tipo);
 }
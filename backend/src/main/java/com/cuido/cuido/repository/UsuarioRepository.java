@@ -1,12 +1,17 @@
 package com.cuido.cuido.repository;
 
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
 import org.springframework.stereotype.Repository;
 import com.cuido.cuido.model.Usuario;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+	// Se consulta en cada petición autenticada (CustomUserDetailsService)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Usuario> findByEmail(String email);
 	boolean existsByEmail(String email);
 	void deleteById(Long id);
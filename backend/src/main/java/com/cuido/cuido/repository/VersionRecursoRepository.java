@@ -0,0 +1,34 @@
+package com.cuido.cuido.repository;
+
+import com.cuido.cuido.model.VersionRecurso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VersionRecursoRepository extends JpaRepository<VersionRecurso, VersionRecurso.Clave> {
+
+    // Filas de los recursos indicados de un paciente, en un recorrido de la clave primaria
+    @Query("SELECT v FROM VersionRecurso v WHERE v.recurso IN :recursos AND v.pacienteId = :pacienteId")
+    List<VersionRecurso> findParaEtag(@Param("recursos") List<String> recursos, @Param("pacienteId") Long pacienteId);
+
+    // Crea la fila o aumenta su número en una sola sentencia: dos escrituras concurrentes
+    // del mismo recurso no chocan al crearla. Bloquea la fila hasta el fin de la transacción.
+    // El hint declara la tabla afectada; sin él Hibernate vacía toda la caché de segundo nivel.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "versiones_recurso"))
+    @Query(value = "INSERT INTO versiones_recurso (recurso, paciente_id, numero, updated_at) " +
+                   "VALUES (:recurso, :pacienteId, 1, :ahora) " +
+                   "ON DUPLICATE KEY UPDATE numero = numero + 1, updated_at = :ahora",
+           nativeQuery = true)
+    int incrementar(@Param("recurso") String recurso, @Param("pacienteId") Long pacienteId,
+                    @Param("ahora") LocalDateTime ahora);
+}
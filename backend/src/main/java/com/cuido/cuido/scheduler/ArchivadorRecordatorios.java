@@ -0,0 +1,74 @@
+package com.cuido.cuido.scheduler;
+
+import com.cuido.cuido.datasource.CargaPorLotes;
+import com.cuido.cuido.service.AdherenciaService;
+import com.cuido.cuido.service.ArchivoRecordatoriosService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Proceso nocturno de archivo de recordatorios.
+ *
+ * Mueve en lotes los recordatorios más antiguos que el período de retención,
+ * cada lote en su propia transacción. Nunca pasa la marca de agua de adherencia:
+ * lo que todavía no se contabilizó sigue en la tabla activa.
+ */
+@Component
+@CargaPorLotes
+@RequiredArgsConstructor
+public class ArchivadorRecordatorios {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivadorRecordatorios.class);
+
+    private final ArchivoRecordatoriosService archivoRecordatoriosService;
+    private final AdherenciaService adherenciaService;
+
+    @Value("${app.recordatorios.archivo.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.recordatorios.archivo.retencion-dias:365}")
+    private long retencionDias;
+
+    @Value("${app.recordatorios.archivo.lote:5000}")
+    private int tamanioLote;
+
+    @Value("${app.recordatorios.archivo.max-lotes-por-ejecucion:200}")
+    private int maxLotesPorEjecucion;
+
+    @Scheduled(cron = "${app.recordatorios.archivo.cron:0 30 3 * * *}")
+    public void archivar() {
+        if (!habilitado) {
+            return;
+        }
+
+        try {
+            LocalDateTime limite = LocalDate.now().minusDays(retencionDias).atStartOfDay();
+            LocalDateTime marcaAdherencia = adherenciaService.obtenerMarcaDeAgua(limite);
+            if (marcaAdherencia.isBefore(limite)) {
+                limite = marcaAdherencia;
+            }
+
+            archivoRecordatoriosService.avanzarCorte(limite);
+
+            int total = 0;
+            int lotes = 0;
+            int archivados;
+            do {
+                archivados = archivoRecordatoriosService.archivarLote(limite, tamanioLote);
+                total += archivados;
+                lotes++;
+            } while (archivados == tamanioLote && lotes < maxLotesPorEjecucion);
+
+            logger.info("Recordatorios archivados: {} (anteriores a {})", total, limite);
+        } catch (Exception e) {
+            logger.error("Error al archivar recordatorios: {}", e.getMessage(), e);
+        }
+    }
+}
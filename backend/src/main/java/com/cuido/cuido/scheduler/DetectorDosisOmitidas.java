@@ -0,0 +1,91 @@
+package com.cuido.cuido.scheduler;
+
+import com.cuido.cuido.datasource.CargaPorLotes;
+import com.cuido.cuido.service.AdherenciaService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Proceso incremental de dosis omitidas.
+ *
+ * Avanza la marca de agua en ventanas acotadas hasta "ahora - margen de tolerancia";
+ * cada ventana se procesa en su propia transacción, así un atraso grande
+ * (por ejemplo, el primer arranque con historial) no genera una transacción enorme.
+ *
+ * Quien inserta recordatorios sin pasar por AdherenciaService (el perfil semilla)
+ * lo pausa mientras tanto, para que no procese ventanas a las que todavía les faltan filas.
+ */
+@Component
+@CargaPorLotes
+@RequiredArgsConstructor
+public class DetectorDosisOmitidas {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetectorDosisOmitidas.class);
+
+    private final AdherenciaService adherenciaService;
+
+    private final ReentrantLock ejecucion = new ReentrantLock();
+
+    @Value("${app.adherencia.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.adherencia.gracia-minutos:120}")
+    private long graciaMinutos;
+
+    @Value("${app.adherencia.ventana-horas:24}")
+    private long ventanaHoras;
+
+    @Value("${app.adherencia.max-ventanas-por-ejecucion:30}")
+    private int maxVentanasPorEjecucion;
+
+    @Scheduled(fixedDelayString = "${app.adherencia.intervalo-ms:300000}")
+    public void detectar() {
+        if (!habilitado || !ejecucion.tryLock()) {
+            return;
+        }
+
+        try {
+            LocalDateTime limite = LocalDateTime.now().minusMinutes(graciaMinutos);
+            LocalDateTime desde = adherenciaService.obtenerMarcaDeAgua(limite);
+
+            int ventanas = 0;
+            int omitidos = 0;
+            while (desde.isBefore(limite) && ventanas < maxVentanasPorEjecucion) {
+                LocalDateTime hasta = desde.plusHours(ventanaHoras);
+                if (hasta.isAfter(limite)) {
+                    hasta = limite;
+                }
+                omitidos += adherenciaService.procesarVentana(desde, hasta);
+                desde = hasta;
+                ventanas++;
+            }
+
+            if (omitidos > 0) {
+                logger.info("Dosis marcadas como omitidas: {} (marca de agua: {})", omitidos, desde);
+            }
+        } catch (Exception e) {
+            logger.error("Error en la detección de dosis omitidas: {}", e.getMessage(), e);
+        } finally {
+            ejecucion.unlock();
+        }
+    }
+
+    /**
+     * Saltea las ejecuciones hasta {@link #reanudar()}, que debe llamarse desde el mismo hilo.
+     * Si hay una ejecución en curso, espera a que termine.
+     */
+    public void pausar() {
+        ejecucion.lock();
+    }
+
+    public void reanudar() {
+        ejecucion.unlock();
+    }
+}
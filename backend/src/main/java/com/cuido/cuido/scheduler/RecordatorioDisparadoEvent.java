@@ -0,0 +1,8 @@
+package com.cuido.cuido.scheduler;
+
+/**
+ * Evento publicado cuando un recordatorio pendiente llega a su hora.
+ * Los canales de notificación (SSE, email, push) lo escuchan con @EventListener.
+ */
+public record RecordatorioDisparadoEvent(RecordatorioProgramado recordatorio) {
+}
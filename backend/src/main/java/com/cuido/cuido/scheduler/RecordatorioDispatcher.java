@@ -0,0 +1,166 @@
+package com.cuido.cuido.scheduler;
+
+import com.cuido.cuido.datasource.CargaPorLotes;
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.repository.RecordatorioInstanciaRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Despachador de recordatorios vencidos.
+ *
+ * Mantiene en memoria solo los recordatorios PENDIENTES que vencen dentro del
+ * horizonte configurado, en una {@link TimingWheel}. Cada recarga consulta
+ * únicamente el tramo nuevo de tiempo (por idx_estado_fecha) y los ids
+ * insertados desde la recarga anterior, nunca la tabla completa.
+ * Al vencer, se publica un {@link RecordatorioDisparadoEvent} para los canales de notificación.
+ */
+@Component
+@CargaPorLotes
+@RequiredArgsConstructor
+public class RecordatorioDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordatorioDispatcher.class);
+
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    private final RecordatorioInstanciaRepository recordatorioInstanciaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.recordatorios.dispatcher.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.recordatorios.dispatcher.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${app.recordatorios.dispatcher.recarga-ms:60000}")
+    private long recargaMillis;
+
+    @Value("${app.recordatorios.dispatcher.horizonte-minutos:60}")
+    private long horizonteMinutos;
+
+    private TimingWheel<RecordatorioProgramado> rueda;
+
+    // Límite superior de fecha_hora ya cargado en la rueda
+    private LocalDateTime cargadoHasta;
+
+    // Mayor id de recordatorio observado en la última recarga
+    private Long ultimoIdVisto;
+
+    @PostConstruct
+    void inicializar() {
+        long horizonteMillis = horizonteMinutos * 60_000L;
+        int ranuras = (int) ((horizonteMillis + recargaMillis) / tickMillis) + 1;
+        rueda = new TimingWheel<>(tickMillis, ranuras, System.currentTimeMillis());
+        logger.info("Despachador de recordatorios {} - horizonte: {} min, ranuras: {}",
+                   habilitado ? "habilitado" : "deshabilitado", horizonteMinutos, ranuras);
+    }
+
+    /**
+     * Carga en la rueda los recordatorios que entran en el horizonte
+     */
+    @Scheduled(fixedDelayString = "${app.recordatorios.dispatcher.recarga-ms:60000}")
+    public void recargar() {
+        if (!habilitado) {
+            return;
+        }
+
+        try {
+            LocalDateTime ahora = LocalDateTime.now();
+            LocalDateTime hasta = ahora.plusMinutes(horizonteMinutos);
+            Long maxId = recordatorioInstanciaRepository.findMaxId();
+
+            if (cargadoHasta == null) {
+                cargadoHasta = ahora;
+                ultimoIdVisto = maxId;
+            }
+
+            // Tramo nuevo del horizonte
+            List<RecordatorioProgramado> nuevos = recordatorioInstanciaRepository
+                .findProgramadosEntre(EstadoRecordatorio.PENDIENTE, cargadoHasta, hasta);
+
+            // Recordatorios creados después de la última recarga dentro del tramo ya cargado
+            List<RecordatorioProgramado> tardios = List.of();
+            if (maxId > ultimoIdVisto && cargadoHasta.isAfter(ahora)) {
+                tardios = recordatorioInstanciaRepository.findProgramadosNuevos(
+                    ultimoIdVisto, maxId, EstadoRecordatorio.PENDIENTE, ahora, cargadoHasta
+                );
+            }
+
+            int programados = 0;
+            for (RecordatorioProgramado r : nuevos) {
+                if (programar(r)) programados++;
+            }
+            for (RecordatorioProgramado r : tardios) {
+                if (programar(r)) programados++;
+            }
+
+            cargadoHasta = hasta;
+            ultimoIdVisto = maxId;
+
+            logger.debug("Recarga de recordatorios: {} programados, {} en la rueda", programados, rueda.size());
+        } catch (Exception e) {
+            logger.error("Error al recargar recordatorios pendientes: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Avanza la rueda y publica los recordatorios que siguen pendientes al vencer
+     */
+    @Scheduled(fixedDelayString = "${app.recordatorios.dispatcher.tick-ms:1000}")
+    public void disparar() {
+        if (!habilitado) {
+            return;
+        }
+
+        List<RecordatorioProgramado> vencidos = rueda.avanzar(System.currentTimeMillis());
+        if (vencidos.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Long, RecordatorioProgramado> porId = new HashMap<>();
+            vencidos.forEach(r -> porId.put(r.id(), r));
+
+            // Pudieron completarse o cancelarse mientras esperaban en la rueda
+            List<Long> ids = List.copyOf(porId.keySet());
+            for (int i = 0; i < ids.size(); i += MAX_IDS_POR_CONSULTA) {
+                List<Long> lote = ids.subList(i, Math.min(i + MAX_IDS_POR_CONSULTA, ids.size()));
+                List<Long> vigentes = recordatorioInstanciaRepository
+                    .findIdsByIdInAndEstado(lote, EstadoRecordatorio.PENDIENTE);
+
+                for (Long id : vigentes) {
+                    eventPublisher.publishEvent(new RecordatorioDisparadoEvent(porId.get(id)));
+                }
+            }
+
+            logger.debug("Recordatorios vencidos procesados: {}", vencidos.size());
+        } catch (Exception e) {
+            logger.error("Error al despachar recordatorios vencidos: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean programar(RecordatorioProgramado recordatorio) {
+        long vencimiento = recordatorio.fechaHora()
+            .atZone(ZoneId.systemDefault())
+            .toInstant()
+            .toEpochMilli();
+        return rueda.programar(recordatorio.id(), vencimiento, recordatorio);
+    }
+
+    public int getCantidadProgramados() {
+        return rueda.size();
+    }
+}
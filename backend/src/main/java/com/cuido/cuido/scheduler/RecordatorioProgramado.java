@@ -0,0 +1,18 @@
+package com.cuido.cuido.scheduler;
+
+import com.cuido.cuido.model.RecordatorioInstancia.TipoRecordatorio;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vista liviana de un recordatorio pendiente cargado en la rueda de despacho
+ */
+public record RecordatorioProgramado(
+    Long id,
+    Long pacienteId,
+    TipoRecordatorio tipo,
+    Long referenciaId,
+    LocalDateTime fechaHora,
+    String descripcion
+) {
+}
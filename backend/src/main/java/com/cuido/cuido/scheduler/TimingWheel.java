@@ -0,0 +1,137 @@
+package com.cuido.cuido.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rueda de tiempo (hashed timing wheel) de un solo nivel.
+ *
+ * Cada ranura cubre un tick; programar y cancelar son O(1) y avanzar solo
+ * recorre las ranuras vencidas. La rueda solo acepta vencimientos dentro de
+ * su horizonte (ranuras * tick): lo que queda más lejos permanece en la base
+ * de datos hasta que el despachador lo recarga.
+ *
+ * Usa un ReentrantLock en lugar de synchronized para no fijar el hilo portador
+ * cuando se ejecuta sobre hilos virtuales.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<Map<Long, T>> ranuras;
+
+    // id -> índice de ranura, para cancelar en O(1) y evitar duplicados
+    private final Map<Long, Integer> indice = new HashMap<>();
+
+    // Último tick absoluto ya procesado
+    private long tickActual;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TimingWheel(long tickMillis, int cantidadRanuras, long ahoraMillis) {
+        if (tickMillis <= 0 || cantidadRanuras <= 0) {
+            throw new IllegalArgumentException("El tick y la cantidad de ranuras deben ser positivos");
+        }
+        this.tickMillis = tickMillis;
+        this.ranuras = new ArrayList<>(cantidadRanuras);
+        for (int i = 0; i < cantidadRanuras; i++) {
+            ranuras.add(new HashMap<>());
+        }
+        this.tickActual = ahoraMillis / tickMillis;
+    }
+
+    /**
+     * Programa un elemento. Si el vencimiento ya pasó se dispara en el próximo avance.
+     * Retorna false si el id ya estaba programado o si cae fuera del horizonte.
+     */
+    public boolean programar(Long id, long vencimientoMillis, T valor) {
+        lock.lock();
+        try {
+            if (indice.containsKey(id)) {
+                return false;
+            }
+
+            long tickVencimiento = Math.max(vencimientoMillis / tickMillis, tickActual + 1);
+            if (tickVencimiento - tickActual > ranuras.size()) {
+                return false;
+            }
+
+            int ranura = (int) (tickVencimiento % ranuras.size());
+            ranuras.get(ranura).put(id, valor);
+            indice.put(id, ranura);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quita un elemento programado. Retorna false si no estaba en la rueda.
+     */
+    public boolean cancelar(Long id) {
+        lock.lock();
+        try {
+            Integer ranura = indice.remove(id);
+            if (ranura == null) {
+                return false;
+            }
+            ranuras.get(ranura).remove(id);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado y retorna los elementos vencidos
+     */
+    public List<T> avanzar(long ahoraMillis) {
+        lock.lock();
+        try {
+            long tickDestino = ahoraMillis / tickMillis;
+            List<T> vencidos = new ArrayList<>();
+
+            // Si el salto supera una vuelta completa, todas las ranuras están vencidas
+            long pasos = Math.min(tickDestino - tickActual, ranuras.size());
+            for (long i = 1; i <= pasos; i++) {
+                Map<Long, T> ranura = ranuras.get((int) ((tickActual + i) % ranuras.size()));
+                if (!ranura.isEmpty()) {
+                    vencidos.addAll(ranura.values());
+                    ranura.keySet().forEach(indice::remove);
+                    ranura.clear();
+                }
+            }
+
+            if (tickDestino > tickActual) {
+                tickActual = tickDestino;
+            }
+            return vencidos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contiene(Long id) {
+        lock.lock();
+        try {
+            return indice.containsKey(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return indice.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHorizonteMillis() {
+        return tickMillis * ranuras.size();
+    }
+}
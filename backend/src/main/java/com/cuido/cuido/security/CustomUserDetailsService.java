@@ -1,6 +1,8 @@
 package com.cuido.cuido.security;
 
+import com.cuido.cuido.observabilidad.ConsultasSolicitud;
 import com.cuido.cuido.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -13,9 +15,25 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Busca el usuario de cada solicitud autenticada (caché de consultas + segundo nivel).
+     * Si la búsqueda no ejecutó SQL fue un acierto de caché: cuido.auth.usuario.cache{resultado}
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return usuarioRepository.findByEmail(email)
+        ConsultasSolicitud solicitud = ConsultasSolicitud.actual();
+        int sentenciasAntes = solicitud != null ? solicitud.getSentencias() : 0;
+
+        UserDetails usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
+
+        if (solicitud != null) {
+            String resultado = solicitud.getSentencias() == sentenciasAntes ? "acierto" : "fallo";
+            meterRegistry.counter("cuido.auth.usuario.cache", "resultado", resultado).increment();
+        }
+        return usuario;
     }
 }
@@ -0,0 +1,561 @@
+package com.cuido.cuido.semilla;
+
+import com.cuido.cuido.datasource.CargaPorLotes;
+import com.cuido.cuido.model.AdherenciaDiaria.FranjaHoraria;
+import com.cuido.cuido.model.CuidadorPaciente;
+import com.cuido.cuido.model.Documento;
+import com.cuido.cuido.model.RecordatorioInstancia;
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.model.Rol;
+import com.cuido.cuido.model.Tarea;
+import com.cuido.cuido.scheduler.DetectorDosisOmitidas;
+import com.cuido.cuido.service.AdherenciaService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Genera un volumen configurable de datos sintéticos para pruebas de rendimiento
+ * y revisión de planes de consulta (perfil semilla):
+ *
+ *   java -jar cuido.jar --spring.profiles.active=semilla [--app.semilla.cuidadores=500 ...]
+ *
+ * Cada cuidador atiende app.semilla.pacientes-por-cuidador pacientes con tratamientos que
+ * cubren todo el historial, así que los recordatorios crecen como
+ * cuidadores × pacientes × medicamentos × tomas × días (con los valores por defecto, ~1,4 millones).
+ *
+ * Inserta con JDBC en lotes por el pool de lotes, sin pasar por Hibernate, y es
+ * determinista: la misma semilla y fecha de referencia generan los mismos datos.
+ * Si ya existen los usuarios de esa semilla no hace nada.
+ *
+ * Como los recordatorios no pasan por AdherenciaService, la semilla escribe también
+ * las filas de adherencia_diaria de lo que queda detrás de la marca de agua de dosis
+ * omitidas, y pausa el detector mientras inserta para que no procese ventanas incompletas.
+ */
+@Component
+@Profile("semilla")
+@CargaPorLotes
+@RequiredArgsConstructor
+public class SembradorDatos implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SembradorDatos.class);
+
+    private static final String[] NOMBRES = {
+        "María", "José", "Ana", "Carlos", "Lucía", "Jorge", "Elena", "Luis", "Rosa", "Miguel",
+        "Carmen", "Raúl", "Teresa", "Alberto", "Silvia", "Héctor"
+    };
+    private static final String[] APELLIDOS = {
+        "García", "Fernández", "González", "Rodríguez", "López", "Martínez", "Sánchez", "Pérez",
+        "Gómez", "Díaz", "Romero", "Álvarez", "Torres", "Ruiz"
+    };
+    private static final String[] MEDICAMENTOS = {
+        "Enalapril", "Metformina", "Atorvastatina", "Levotiroxina", "Omeprazol", "Aspirina",
+        "Losartán", "Amlodipina", "Furosemida", "Paracetamol", "Donepecilo", "Sertralina"
+    };
+    private static final String[] DOSIS = {"5 mg", "10 mg", "25 mg", "50 mg", "100 mg", "500 mg", "1 comprimido"};
+    private static final LocalTime[] HORAS = {
+        LocalTime.of(8, 0), LocalTime.of(12, 0), LocalTime.of(16, 0), LocalTime.of(20, 0), LocalTime.of(23, 0)
+    };
+    private static final String[] ESPECIALIDADES = {"Clínica", "Cardiología", "Neurología", "Traumatología", "Geriatría"};
+    private static final String[] ACTIVIDADES = {
+        "Desayunó completo y tomó la medicación de la mañana.",
+        "Caminata corta por el barrio, sin fatiga.",
+        "Presión estable, buen ánimo durante la tarde.",
+        "Durmió la siesta, cenó liviano.",
+        "Ejercicios de movilidad y lectura en voz alta.",
+        "Visita familiar, se mostró conversador."
+    };
+    private static final String[] TAREAS = {
+        "Comprar medicamentos", "Renovar receta", "Pedir turno", "Llevar estudios al médico",
+        "Control de presión", "Cambiar ropa de cama", "Preparar pastillero semanal"
+    };
+    private static final byte[] PDF = "%PDF-1.4\n% documento generado por el perfil semilla\n%%EOF\n"
+        .getBytes(StandardCharsets.UTF_8);
+    private static final DateTimeFormatter FORMATO_TITULO = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationContext applicationContext;
+    private final ObjectProvider<DetectorDosisOmitidas> detectorDosisOmitidas;
+
+    @Value("${app.semilla.semilla:42}")
+    private long semilla;
+
+    @Value("${app.semilla.fecha-referencia:}")
+    private String fechaReferenciaConfigurada;
+
+    @Value("${app.semilla.cuidadores:100}")
+    private int cuidadores;
+
+    @Value("${app.semilla.pacientes-por-cuidador:3}")
+    private int pacientesPorCuidador;
+
+    @Value("${app.semilla.medicamentos-por-paciente:4}")
+    private int medicamentosPorPaciente;
+
+    @Value("${app.semilla.tomas-por-dia:3}")
+    private int tomasPorDia;
+
+    @Value("${app.semilla.dias-historial:365}")
+    private int diasHistorial;
+
+    @Value("${app.semilla.dias-futuros:30}")
+    private int diasFuturos;
+
+    @Value("${app.semilla.citas-por-paciente:12}")
+    private int citasPorPaciente;
+
+    @Value("${app.semilla.bitacoras-por-paciente:200}")
+    private int bitacorasPorPaciente;
+
+    @Value("${app.semilla.tareas-por-paciente:30}")
+    private int tareasPorPaciente;
+
+    @Value("${app.semilla.documentos-por-paciente:20}")
+    private int documentosPorPaciente;
+
+    @Value("${app.semilla.password:Semilla-123}")
+    private String password;
+
+    @Value("${app.semilla.lote:5000}")
+    private int tamanioLote;
+
+    @Value("${app.semilla.salir-al-terminar:false}")
+    private boolean salirAlTerminar;
+
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    private Random random;
+    private LocalDate fechaReferencia;
+    private LocalDateTime ahora;
+    private LocalDateTime marcaAdherencia;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (existeSemilla()) {
+            logger.warn("Los datos de la semilla {} ya existen - no se genera nada", semilla);
+        } else {
+            DetectorDosisOmitidas detector = detectorDosisOmitidas.getIfAvailable();
+            if (detector != null) {
+                detector.pausar();
+            }
+            try {
+                generar();
+            } finally {
+                if (detector != null) {
+                    detector.reanudar();
+                }
+            }
+        }
+
+        if (salirAlTerminar) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private boolean existeSemilla() {
+        Integer existentes = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM usuarios WHERE email = ?", Integer.class, email("cuidador", 0));
+        return existentes != null && existentes > 0;
+    }
+
+    void generar() throws IOException {
+        random = new Random(semilla);
+        fechaReferencia = fechaReferenciaConfigurada.isBlank()
+            ? LocalDate.now() : LocalDate.parse(fechaReferenciaConfigurada);
+        ahora = fechaReferencia.atStartOfDay();
+        tomasPorDia = Math.min(tomasPorDia, HORAS.length);
+        long inicio = System.nanoTime();
+
+        logger.info("Generando datos de semilla {} con fecha de referencia {}: {} cuidadores x {} pacientes",
+            semilla, fechaReferencia, cuidadores, pacientesPorCuidador);
+
+        String hash = passwordEncoder.encode(password);
+        List<Long> cuidadorIds = insertarUsuarios("cuidador", Rol.CUIDADOR, cuidadores, hash);
+        List<Long> pacienteIds = insertarUsuarios("paciente", Rol.PACIENTE, cuidadores * pacientesPorCuidador, hash);
+        insertarPerfilesYRelaciones(cuidadorIds, pacienteIds);
+
+        LocalDateTime marcaExistente = leerMarcaDeAgua();
+        marcaAdherencia = marcaExistente != null ? marcaExistente : marcaInicial();
+        long recordatorios = insertarMedicamentos(cuidadorIds, pacienteIds);
+        if (marcaExistente == null && marcaAdherencia != null) {
+            jdbcTemplate.update("INSERT INTO job_watermarks (nombre, valor, updated_at) VALUES (?, ?, ?)",
+                AdherenciaService.MARCA_DOSIS_OMITIDAS, marcaAdherencia, LocalDateTime.now());
+        }
+        recordatorios += insertarCitas(cuidadorIds, pacienteIds);
+        long bitacoras = insertarBitacoras(cuidadorIds, pacienteIds);
+        long tareas = insertarTareas(cuidadorIds, pacienteIds);
+        long documentos = insertarDocumentos(cuidadorIds, pacienteIds);
+
+        // Las inserciones no pasaron por Hibernate: nada de la caché de segundo nivel es confiable
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        logger.info("Semilla {} generada en {} ms: {} usuarios, {} recordatorios, {} bitácoras, {} tareas, {} documentos",
+            semilla, (System.nanoTime() - inicio) / 1_000_000, cuidadorIds.size() + pacienteIds.size(),
+            recordatorios, bitacoras, tareas, documentos);
+    }
+
+    private List<Long> insertarUsuarios(String prefijo, Rol rol, int cantidad, String hash) {
+        List<Object[]> filas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            String nombre = NOMBRES[random.nextInt(NOMBRES.length)] + " " + APELLIDOS[random.nextInt(APELLIDOS.length)];
+            filas.add(new Object[]{nombre, email(prefijo, i), hash, rol.name(), true, ahora, ahora});
+        }
+        return insertarConClaves(
+            "INSERT INTO usuarios (nombre_completo, email, password, rol, activo, created_at, updated_at)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+            filas);
+    }
+
+    private void insertarPerfilesYRelaciones(List<Long> cuidadorIds, List<Long> pacienteIds) {
+        Escritor perfiles = new Escritor(
+            "INSERT INTO pacientes (usuario_id, tipo_sanguineo, peso, altura, condiciones_medicas, notas_importantes,"
+                + " created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        Escritor relaciones = new Escritor(
+            "INSERT INTO cuidadores_pacientes (cuidador_id, paciente_id, es_principal, estado, fecha_invitacion,"
+                + " fecha_aceptacion, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+
+        for (int i = 0; i < pacienteIds.size(); i++) {
+            Long pacienteId = pacienteIds.get(i);
+            perfiles.agregar(pacienteId, random.nextBoolean() ? "O+" : "A+", 55.0 + random.nextInt(40),
+                1.50 + random.nextInt(35) / 100.0, "[\"Hipertensión\"]", "[]", ahora, ahora);
+            relaciones.agregar(cuidadorDe(cuidadorIds, i), pacienteId, true,
+                CuidadorPaciente.EstadoRelacion.ACEPTADO.name(), ahora, ahora, ahora, ahora);
+        }
+        perfiles.cerrar();
+        relaciones.cerrar();
+    }
+
+    private LocalDateTime leerMarcaDeAgua() {
+        List<LocalDateTime> valores = jdbcTemplate.queryForList(
+            "SELECT valor FROM job_watermarks WHERE nombre = ?", LocalDateTime.class,
+            AdherenciaService.MARCA_DOSIS_OMITIDAS);
+        return valores.isEmpty() ? null : valores.get(0);
+    }
+
+    /**
+     * Marca de agua para una base en la que el detector todavía no corrió: la fecha de
+     * referencia, sin pasar de ahora. Si ya hay recordatorios de medicamentos sin contar
+     * no se crea: el detector arrancará desde el más antiguo y contará también los de la semilla.
+     */
+    private LocalDateTime marcaInicial() {
+        Integer existentes = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM recordatorios_instancia WHERE tipo = ?", Integer.class,
+            RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO.name());
+        if (existentes != null && existentes > 0) {
+            return null;
+        }
+        LocalDateTime actual = LocalDateTime.now();
+        return ahora.isBefore(actual) ? ahora : actual;
+    }
+
+    /**
+     * Medicamentos con sus horarios y un recordatorio por toma en todo el período.
+     * Los recordatorios detrás de la marca de agua se cuentan en adherencia_diaria
+     * como lo haría el detector: lo que sigue pendiente pasa a OMITIDO.
+     */
+    private long insertarMedicamentos(List<Long> cuidadorIds, List<Long> pacienteIds) {
+        LocalDate inicio = fechaReferencia.minusDays(diasHistorial);
+        LocalDate fin = fechaReferencia.plusDays(diasFuturos - 1L);
+
+        List<Object[]> medicamentos = new ArrayList<>();
+        List<Long> pacientesDeMedicamento = new ArrayList<>();
+        List<String> descripciones = new ArrayList<>();
+        for (int i = 0; i < pacienteIds.size(); i++) {
+            for (int m = 0; m < medicamentosPorPaciente; m++) {
+                String nombre = MEDICAMENTOS[random.nextInt(MEDICAMENTOS.length)];
+                String dosis = DOSIS[random.nextInt(DOSIS.length)];
+                medicamentos.add(new Object[]{pacienteIds.get(i), cuidadorDe(cuidadorIds, i), nombre, dosis,
+                    tomasPorDia + " veces al día", inicio, fin, true, ahora, ahora});
+                pacientesDeMedicamento.add(pacienteIds.get(i));
+                descripciones.add(nombre + " - " + dosis);
+            }
+        }
+        List<Long> medicamentoIds = insertarConClaves(
+            "INSERT INTO medicamentos (paciente_id, cuidador_id, nombre, dosis, frecuencia, fecha_inicio, fecha_fin,"
+                + " activo, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+            medicamentos);
+
+        Escritor horarios = new Escritor(
+            "INSERT INTO horarios_medicamento (medicamento_id, hora, created_at) VALUES (?, ?, ?)");
+        Escritor recordatorios = escritorRecordatorios();
+        Escritor adherencia = new Escritor(
+            "INSERT INTO adherencia_diaria (paciente_id, medicamento_id, fecha, franja, programados, completados,"
+                + " omitidos, cancelados, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < medicamentoIds.size(); i++) {
+            Long medicamentoId = medicamentoIds.get(i);
+            Long pacienteId = pacientesDeMedicamento.get(i);
+            int primeraHora = random.nextInt(HORAS.length - tomasPorDia + 1);
+            for (int h = 0; h < tomasPorDia; h++) {
+                horarios.agregar(medicamentoId, HORAS[primeraHora + h], ahora);
+            }
+            Map<ClaveAdherencia, int[]> contadores = new LinkedHashMap<>();
+            for (LocalDate fecha = inicio; !fecha.isAfter(fin); fecha = fecha.plusDays(1)) {
+                for (int h = 0; h < tomasPorDia; h++) {
+                    LocalDateTime fechaHora = fecha.atTime(HORAS[primeraHora + h]);
+                    EstadoRecordatorio estado = estadoSegun(fechaHora);
+                    if (marcaAdherencia != null && !fechaHora.isAfter(marcaAdherencia)) {
+                        if (estado == EstadoRecordatorio.PENDIENTE) {
+                            estado = EstadoRecordatorio.OMITIDO;
+                        }
+                        int[] contador = contadores.computeIfAbsent(ClaveAdherencia.de(fechaHora), k -> new int[4]);
+                        contador[0]++;
+                        contador[indiceContador(estado)]++;
+                    }
+                    recordatorios.agregar(RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO.name(), medicamentoId,
+                        pacienteId, fechaHora, estado.name(), descripciones.get(i), ahora, ahora);
+                }
+            }
+            contadores.forEach((clave, contador) -> adherencia.agregar(pacienteId, medicamentoId, clave.fecha(),
+                clave.franja().name(), contador[0], contador[1], contador[2], contador[3], ahora));
+        }
+        horarios.cerrar();
+        adherencia.cerrar();
+        return recordatorios.cerrar();
+    }
+
+    /**
+     * Citas repartidas en el período, cada una con su recordatorio
+     */
+    private long insertarCitas(List<Long> cuidadorIds, List<Long> pacienteIds) {
+        int dias = diasHistorial + diasFuturos;
+        List<Object[]> citas = new ArrayList<>();
+        List<Object[]> datosRecordatorio = new ArrayList<>();
+        for (int i = 0; i < pacienteIds.size(); i++) {
+            for (int c = 0; c < citasPorPaciente; c++) {
+                LocalDateTime fechaHora = fechaReferencia.minusDays(diasHistorial)
+                    .plusDays(random.nextInt(Math.max(dias, 1)))
+                    .atTime(9 + random.nextInt(9), random.nextBoolean() ? 0 : 30);
+                String especialidad = ESPECIALIDADES[random.nextInt(ESPECIALIDADES.length)];
+                String doctor = "Dr. " + APELLIDOS[random.nextInt(APELLIDOS.length)];
+                boolean pasada = fechaHora.isBefore(ahora);
+                citas.add(new Object[]{pacienteIds.get(i), cuidadorDe(cuidadorIds, i), fechaHora,
+                    "Consultorio " + (1 + random.nextInt(20)), doctor, especialidad, "Control", pasada, pasada,
+                    ahora, ahora});
+                datosRecordatorio.add(new Object[]{pacienteIds.get(i), fechaHora,
+                    "Cita médica - " + especialidad + " con " + doctor});
+            }
+        }
+        List<Long> citaIds = insertarConClaves(
+            "INSERT INTO citas_medicas (paciente_id, cuidador_id, fecha_hora, ubicacion, nombre_doctor, especialidad,"
+                + " motivo, recordatorio_enviado, completada, created_at, updated_at, version)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+            citas);
+
+        Escritor recordatorios = escritorRecordatorios();
+        for (int i = 0; i < citaIds.size(); i++) {
+            Object[] datos = datosRecordatorio.get(i);
+            LocalDateTime fechaHora = (LocalDateTime) datos[1];
+            recordatorios.agregar(RecordatorioInstancia.TipoRecordatorio.CITA_MEDICA.name(), citaIds.get(i),
+                datos[0], fechaHora, estadoSegun(fechaHora).name(), datos[2], ahora, ahora);
+        }
+        return recordatorios.cerrar();
+    }
+
+    private long insertarBitacoras(List<Long> cuidadorIds, List<Long> pacienteIds) {
+        Escritor bitacoras = new Escritor(
+            "INSERT INTO bitacoras (paciente_id, cuidador_id, fecha, titulo, descripcion, created_at, updated_at,"
+                + " version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)");
+        for (int i = 0; i < pacienteIds.size(); i++) {
+            for (int b = 0; b < bitacorasPorPaciente; b++) {
+                LocalDate fecha = fechaReferencia.minusDays(b);
+                bitacoras.agregar(pacienteIds.get(i), cuidadorDe(cuidadorIds, i), fecha,
+                    "Bitácora del " + fecha.format(FORMATO_TITULO),
+                    ACTIVIDADES[random.nextInt(ACTIVIDADES.length)], fecha.atTime(21, 0), fecha.atTime(21, 0));
+            }
+        }
+        return bitacoras.cerrar();
+    }
+
+    private long insertarTareas(List<Long> cuidadorIds, List<Long> pacienteIds) {
+        Escritor tareas = new Escritor(
+            "INSERT INTO tareas (paciente_id, cuidador_id, titulo, fecha_vencimiento, prioridad, completada,"
+                + " fecha_completada, orden_manual, created_at, updated_at, version)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)");
+        Tarea.Prioridad[] prioridades = Tarea.Prioridad.values();
+        for (int i = 0; i < pacienteIds.size(); i++) {
+            for (int t = 0; t < tareasPorPaciente; t++) {
+                LocalDateTime vencimiento = ahora.plusDays(random.nextInt(60) - 30L).withHour(12);
+                boolean completada = vencimiento.isBefore(ahora) && random.nextInt(4) > 0;
+                tareas.agregar(pacienteIds.get(i), cuidadorDe(cuidadorIds, i),
+                    TAREAS[random.nextInt(TAREAS.length)], vencimiento,
+                    prioridades[random.nextInt(prioridades.length)].name(), completada,
+                    completada ? vencimiento : null, t, ahora, ahora);
+            }
+        }
+        return tareas.cerrar();
+    }
+
+    /**
+     * Documentos PDF mínimos: se escribe el archivo para que la descarga funcione
+     */
+    private long insertarDocumentos(List<Long> cuidadorIds, List<Long> pacienteIds) throws IOException {
+        Escritor documentos = new Escritor(
+            "INSERT INTO documentos (paciente_id, cuidador_id, nombre, tipo, categoria_archivo, ruta_archivo,"
+                + " size_bytes, mime_type, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        Documento.TipoDocumento[] tipos = Documento.TipoDocumento.values();
+        for (int i = 0; i < pacienteIds.size(); i++) {
+            Long pacienteId = pacienteIds.get(i);
+            for (int d = 0; d < documentosPorPaciente; d++) {
+                Documento.TipoDocumento tipo = tipos[random.nextInt(tipos.length)];
+                String carpeta = tipo == Documento.TipoDocumento.FICHA_MEDICA ? "fichas" : "documentos";
+                Path directorio = Paths.get(uploadDir, carpeta, pacienteId.toString());
+                Files.createDirectories(directorio);
+                Path archivo = directorio.resolve("semilla-" + semilla + "-" + d + ".pdf");
+                Files.write(archivo, PDF);
+
+                LocalDateTime creado = ahora.minusDays(random.nextInt(Math.max(diasHistorial, 1)));
+                documentos.agregar(pacienteId, cuidadorDe(cuidadorIds, i), tipo.name() + " " + (d + 1), tipo.name(),
+                    Documento.CategoriaArchivo.DOCUMENTO.name(), archivo.toString(), (long) PDF.length,
+                    "application/pdf", creado, creado);
+            }
+        }
+        return documentos.cerrar();
+    }
+
+    private Escritor escritorRecordatorios() {
+        return new Escritor(
+            "INSERT INTO recordatorios_instancia (tipo, referencia_id, paciente_id, fecha_hora, estado, descripcion,"
+                + " created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)");
+    }
+
+    /**
+     * Lo anterior a la fecha de referencia quedó mayormente tomado; lo posterior, pendiente
+     */
+    private EstadoRecordatorio estadoSegun(LocalDateTime fechaHora) {
+        if (!fechaHora.isBefore(ahora)) {
+            return EstadoRecordatorio.PENDIENTE;
+        }
+        int valor = random.nextInt(100);
+        if (valor < 85) {
+            return EstadoRecordatorio.COMPLETADO;
+        }
+        return valor < 95 ? EstadoRecordatorio.OMITIDO : EstadoRecordatorio.CANCELADO;
+    }
+
+    /**
+     * Posición del contador de cada estado, como en AdherenciaService: 1 completados, 2 omitidos, 3 cancelados
+     */
+    private static int indiceContador(EstadoRecordatorio estado) {
+        return switch (estado) {
+            case COMPLETADO -> 1;
+            case CANCELADO -> 3;
+            default -> 2;
+        };
+    }
+
+    private Long cuidadorDe(List<Long> cuidadorIds, int indicePaciente) {
+        return cuidadorIds.get(indicePaciente / pacientesPorCuidador);
+    }
+
+    private String email(String prefijo, int numero) {
+        return prefijo + numero + ".s" + semilla + "@semilla.cuido";
+    }
+
+    /**
+     * Inserta las filas en lotes y retorna los ids generados, en el mismo orden
+     */
+    private List<Long> insertarConClaves(String sql, List<Object[]> filas) {
+        List<Long> ids = new ArrayList<>(filas.size());
+        for (int desde = 0; desde < filas.size(); desde += tamanioLote) {
+            List<Object[]> lote = filas.subList(desde, Math.min(desde + tamanioLote, filas.size()));
+            GeneratedKeyHolder claves = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(conexion -> conexion.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        asignar(ps, lote.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return lote.size();
+                    }
+                }, claves);
+            for (Map<String, Object> clave : claves.getKeyList()) {
+                ids.add(((Number) clave.values().iterator().next()).longValue());
+            }
+        }
+        return ids;
+    }
+
+    private static void asignar(PreparedStatement ps, Object[] valores) throws SQLException {
+        for (int i = 0; i < valores.length; i++) {
+            ps.setObject(i + 1, valores[i]);
+        }
+    }
+
+    private record ClaveAdherencia(LocalDate fecha, FranjaHoraria franja) {
+
+        static ClaveAdherencia de(LocalDateTime fechaHora) {
+            return new ClaveAdherencia(fechaHora.toLocalDate(), FranjaHoraria.deHora(fechaHora.getHour()));
+        }
+    }
+
+    /**
+     * Acumula filas de una misma sentencia y las envía en lotes de app.semilla.lote
+     */
+    private final class Escritor {
+
+        private final String sql;
+        private final List<Object[]> pendientes = new ArrayList<>();
+        private long total;
+
+        Escritor(String sql) {
+            this.sql = sql;
+        }
+
+        void agregar(Object... valores) {
+            pendientes.add(valores);
+            if (pendientes.size() >= tamanioLote) {
+                enviar();
+            }
+        }
+
+        long cerrar() {
+            enviar();
+            return total;
+        }
+
+        private void enviar() {
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(sql, pendientes, pendientes.size(), SembradorDatos::asignar);
+            total += pendientes.size();
+            pendientes.clear();
+        }
+    }
+}
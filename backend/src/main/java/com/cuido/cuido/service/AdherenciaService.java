@@ -0,0 +1,436 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.dto.response.AdherenciaResponseDTO;
+import com.cuido.cuido.exception.BadRequestException;
+import com.cuido.cuido.model.AdherenciaDiaria;
+import com.cuido.cuido.model.AdherenciaDiaria.FranjaHoraria;
+import com.cuido.cuido.model.JobWatermark;
+import com.cuido.cuido.model.RecordatorioInstancia;
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.model.RecordatorioInstancia.TipoRecordatorio;
+import com.cuido.cuido.repository.AdherenciaDiariaRepository;
+import com.cuido.cuido.repository.JobWatermarkRepository;
+import com.cuido.cuido.repository.MedicamentoRepository;
+import com.cuido.cuido.repository.RecordatorioInstanciaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de adherencia a la medicación.
+ *
+ * Los recordatorios de medicamentos se cuentan una sola vez, cuando su fecha_hora
+ * queda detrás de la marca de agua: lo que sigue PENDIENTE pasa a OMITIDO y
+ * cada recordatorio suma en los contadores de adherencia_diaria. A partir de ahí
+ * los cambios de estado, altas y bajas ajustan los contadores con deltas, de modo
+ * que las consultas nunca recorren recordatorios_instancia.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdherenciaService {
+
+    public static final String MARCA_DOSIS_OMITIDAS = "dosis-omitidas";
+
+    private final RecordatorioInstanciaRepository recordatorioInstanciaRepository;
+    private final AdherenciaDiariaRepository adherenciaDiariaRepository;
+    private final JobWatermarkRepository jobWatermarkRepository;
+    private final MedicamentoRepository medicamentoRepository;
+
+    /**
+     * Obtiene hasta dónde ya se procesaron recordatorios. La primera vez arranca
+     * desde el recordatorio de medicamento más antiguo para incluir el historial.
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime obtenerMarcaDeAgua(LocalDateTime limite) {
+        return jobWatermarkRepository.findById(MARCA_DOSIS_OMITIDAS)
+            .map(JobWatermark::getValor)
+            .orElseGet(() -> {
+                LocalDateTime masAntiguo = recordatorioInstanciaRepository
+                    .findMinFechaHoraByTipo(TipoRecordatorio.MEDICAMENTO);
+                return masAntiguo != null ? masAntiguo.minusSeconds(1) : limite;
+            });
+    }
+
+    /**
+     * Procesa los recordatorios de medicamentos con fecha_hora en (desde, hasta]:
+     * suma los contadores diarios, marca como OMITIDO lo que sigue pendiente
+     * y avanza la marca de agua, todo en la misma transacción.
+     *
+     * @return cantidad de recordatorios marcados como omitidos
+     */
+    @Transactional
+    public int procesarVentana(LocalDateTime desde, LocalDateTime hasta) {
+        // Espera a que terminen los cambios de estado que leyeron la marca anterior
+        jobWatermarkRepository.findByIdParaActualizar(MARCA_DOSIS_OMITIDAS);
+
+        Map<ClaveAdherencia, int[]> deltas = new HashMap<>();
+
+        List<Object[]> grupos = recordatorioInstanciaRepository.contarPorDiaHoraYEstado(
+            TipoRecordatorio.MEDICAMENTO,
+            Arrays.asList(EstadoRecordatorio.values()),
+            desde,
+            hasta
+        );
+
+        for (Object[] fila : grupos) {
+            ClaveAdherencia clave = new ClaveAdherencia(
+                (Long) fila[0],
+                (Long) fila[1],
+                (LocalDate) fila[2],
+                FranjaHoraria.deHora(((Number) fila[3]).intValue())
+            );
+            EstadoRecordatorio estado = (EstadoRecordatorio) fila[4];
+            int cantidad = ((Number) fila[5]).intValue();
+
+            int[] delta = deltas.computeIfAbsent(clave, k -> new int[4]);
+            delta[0] += cantidad;
+            // Lo que sigue PENDIENTE se marca como OMITIDO a continuación
+            delta[indiceContador(estado)] += cantidad;
+        }
+
+        int omitidos = recordatorioInstanciaRepository.actualizarEstadoEnRango(
+            TipoRecordatorio.MEDICAMENTO,
+            EstadoRecordatorio.PENDIENTE,
+            EstadoRecordatorio.OMITIDO,
+            desde,
+            hasta,
+            LocalDateTime.now()
+        );
+
+        deltas.forEach((clave, delta) -> incrementar(clave, delta[0], delta[1], delta[2], delta[3]));
+
+        jobWatermarkRepository.save(new JobWatermark(MARCA_DOSIS_OMITIDAS, hasta, null));
+        return omitidos;
+    }
+
+    /**
+     * Mueve el recordatorio del contador de su estado anterior al del nuevo.
+     * Solo aplica a recordatorios ya contados (detrás de la marca de agua); los
+     * demás se cuentan cuando el detector los alcance.
+     */
+    @Transactional
+    public void registrarCambioEstado(RecordatorioInstancia recordatorio, EstadoRecordatorio estadoAnterior) {
+        if (indiceContador(estadoAnterior) == indiceContador(recordatorio.getEstado())
+            || !yaContabilizado(recordatorio, bloquearMarca())) {
+            return;
+        }
+        aplicarDelta(recordatorio, estadoAnterior, recordatorio.getEstado());
+    }
+
+    /**
+     * Versión por lotes de {@link #registrarCambioEstado}: agrupa los deltas por
+     * clave y aplica un incremento por fila de adherencia_diaria
+     */
+    @Transactional
+    public void registrarCambiosEstado(List<RecordatorioEstadoActual> recordatorios, EstadoRecordatorio nuevoEstado) {
+        LocalDateTime marca = bloquearMarca();
+        Map<ClaveAdherencia, int[]> deltas = new HashMap<>();
+
+        for (RecordatorioEstadoActual recordatorio : recordatorios) {
+            if (indiceContador(recordatorio.estado()) == indiceContador(nuevoEstado)
+                || !yaContabilizado(recordatorio.tipo(), recordatorio.fechaHora(), marca)) {
+                continue;
+            }
+            ClaveAdherencia clave = ClaveAdherencia.de(
+                recordatorio.pacienteId(), recordatorio.referenciaId(), recordatorio.fechaHora()
+            );
+            acumularDelta(deltas.computeIfAbsent(clave, k -> new int[4]), recordatorio.estado(), nuevoEstado);
+        }
+
+        deltas.forEach((clave, delta) -> incrementar(clave, delta[0], delta[1], delta[2], delta[3]));
+    }
+
+    /**
+     * Cuenta los recordatorios recién generados con fecha_hora detrás de la marca
+     * de agua (medicamentos cargados con fecha de inicio pasada). Los que siguen
+     * PENDIENTE se marcan como OMITIDO, igual que haría el detector. Agrupa los
+     * deltas por clave: un incremento por fila de adherencia_diaria.
+     */
+    @Transactional
+    public void registrarRecordatoriosNuevos(List<RecordatorioInstancia> recordatorios) {
+        LocalDateTime marca = bloquearMarca();
+        Map<ClaveAdherencia, int[]> deltas = new HashMap<>();
+
+        for (RecordatorioInstancia recordatorio : recordatorios) {
+            if (!yaContabilizado(recordatorio, marca)) {
+                continue;
+            }
+            if (recordatorio.getEstado() == EstadoRecordatorio.PENDIENTE) {
+                recordatorio.setEstado(EstadoRecordatorio.OMITIDO);
+            }
+            ClaveAdherencia clave = ClaveAdherencia.de(
+                recordatorio.getPaciente().getId(), recordatorio.getReferenciaId(), recordatorio.getFechaHora()
+            );
+            acumularDelta(deltas.computeIfAbsent(clave, k -> new int[4]), null, recordatorio.getEstado());
+        }
+
+        deltas.forEach((clave, delta) -> incrementar(clave, delta[0], delta[1], delta[2], delta[3]));
+    }
+
+    /**
+     * Descuenta un recordatorio que se elimina
+     */
+    @Transactional
+    public void registrarEliminacion(RecordatorioInstancia recordatorio) {
+        if (yaContabilizado(recordatorio, bloquearMarca())) {
+            aplicarDelta(recordatorio, recordatorio.getEstado(), null);
+        }
+    }
+
+    /**
+     * Elimina los contadores de un medicamento que se borra
+     */
+    @Transactional
+    public void eliminarPorMedicamento(Long medicamentoId) {
+        adherenciaDiariaRepository.deleteByMedicamentoId(medicamentoId);
+    }
+
+    /**
+     * Obtiene la adherencia de un paciente agrupada por día, semana o mes,
+     * con el desglose por medicamento y por franja horaria de cada período.
+     * Lee solo las filas de adherencia_diaria del rango.
+     */
+    @Transactional(readOnly = true)
+    public AdherenciaResponseDTO obtenerAdherencia(Long pacienteId, LocalDate desde, LocalDate hasta, String granularidad) {
+        if (desde.isAfter(hasta)) {
+            throw new BadRequestException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+
+        Granularidad agrupacion;
+        try {
+            agrupacion = Granularidad.valueOf(granularidad.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Granularidad inválida: " + granularidad);
+        }
+
+        List<AdherenciaDiaria> filas = adherenciaDiariaRepository
+            .findByPacienteIdAndFechaBetweenOrderByFechaAsc(pacienteId, desde, hasta);
+
+        Map<Long, String> nombres = new HashMap<>();
+        Set<Long> medicamentoIds = filas.stream()
+            .map(AdherenciaDiaria::getMedicamentoId)
+            .collect(Collectors.toSet());
+        medicamentoRepository.findAllById(medicamentoIds)
+            .forEach(m -> nombres.put(m.getId(), m.getNombre()));
+
+        Contador total = new Contador();
+        Map<LocalDate, Periodo> periodos = new TreeMap<>();
+        for (AdherenciaDiaria fila : filas) {
+            LocalDate inicio = agrupacion.inicioDe(fila.getFecha());
+            Periodo periodo = periodos.computeIfAbsent(inicio, Periodo::new);
+
+            total.sumar(fila);
+            periodo.total.sumar(fila);
+            periodo.porMedicamento.computeIfAbsent(fila.getMedicamentoId(), id -> new Contador()).sumar(fila);
+            periodo.porFranja.get(fila.getFranja()).sumar(fila);
+        }
+
+        List<AdherenciaResponseDTO.PeriodoDTO> periodosDTO = periodos.values().stream()
+            .map(periodo -> {
+                LocalDate fin = agrupacion.finDe(periodo.inicio);
+                return AdherenciaResponseDTO.PeriodoDTO.builder()
+                    .inicio(periodo.inicio.isBefore(desde) ? desde : periodo.inicio)
+                    .fin(fin.isAfter(hasta) ? hasta : fin)
+                    .total(periodo.total.toDTO())
+                    .porMedicamento(periodo.porMedicamento.entrySet().stream()
+                        .map(e -> AdherenciaResponseDTO.MedicamentoAdherenciaDTO.builder()
+                            .medicamentoId(e.getKey())
+                            .nombre(nombres.get(e.getKey()))
+                            .contadores(e.getValue().toDTO())
+                            .build())
+                        .collect(Collectors.toList()))
+                    .porFranja(periodo.porFranja.entrySet().stream()
+                        .collect(Collectors.toMap(
+                            e -> e.getKey().name(),
+                            e -> e.getValue().toDTO(),
+                            (a, b) -> a,
+                            LinkedHashMap::new
+                        )))
+                    .build();
+            })
+            .collect(Collectors.toList());
+
+        return AdherenciaResponseDTO.builder()
+            .pacienteId(pacienteId)
+            .desde(desde)
+            .hasta(hasta)
+            .granularidad(agrupacion.name())
+            .calculadoHasta(obtenerMarcaActual())
+            .total(total.toDTO())
+            .periodos(periodosDTO)
+            .build();
+    }
+
+    private LocalDateTime obtenerMarcaActual() {
+        return jobWatermarkRepository.findById(MARCA_DOSIS_OMITIDAS)
+            .map(JobWatermark::getValor)
+            .orElse(null);
+    }
+
+    /**
+     * Lee la marca de agua con bloqueo compartido hasta el fin de la transacción,
+     * para que el detector no cuente el recordatorio a la vez con su estado anterior.
+     * Quien además bloquee recordatorios debe llamarlo antes, en el mismo orden que el detector.
+     */
+    public LocalDateTime bloquearMarca() {
+        return jobWatermarkRepository.findByIdCompartido(MARCA_DOSIS_OMITIDAS)
+            .map(JobWatermark::getValor)
+            .orElse(null);
+    }
+
+    private static boolean yaContabilizado(RecordatorioInstancia recordatorio, LocalDateTime marca) {
+        return yaContabilizado(recordatorio.getTipo(), recordatorio.getFechaHora(), marca);
+    }
+
+    private static boolean yaContabilizado(TipoRecordatorio tipo, LocalDateTime fechaHora, LocalDateTime marca) {
+        return tipo == TipoRecordatorio.MEDICAMENTO && marca != null && !fechaHora.isAfter(marca);
+    }
+
+    /**
+     * Resta el recordatorio del contador del estado anterior y lo suma al del nuevo.
+     * Un estado null significa que el recordatorio no existía (alta) o deja de existir (baja).
+     */
+    private void aplicarDelta(RecordatorioInstancia recordatorio, EstadoRecordatorio anterior, EstadoRecordatorio nuevo) {
+        int[] delta = new int[4];
+        acumularDelta(delta, anterior, nuevo);
+        ClaveAdherencia clave = ClaveAdherencia.de(
+            recordatorio.getPaciente().getId(), recordatorio.getReferenciaId(), recordatorio.getFechaHora()
+        );
+        incrementar(clave, delta[0], delta[1], delta[2], delta[3]);
+    }
+
+    private static void acumularDelta(int[] delta, EstadoRecordatorio anterior, EstadoRecordatorio nuevo) {
+        if (anterior != null) {
+            delta[0]--;
+            delta[indiceContador(anterior)]--;
+        }
+        if (nuevo != null) {
+            delta[0]++;
+            delta[indiceContador(nuevo)]++;
+        }
+    }
+
+    /**
+     * Suma los deltas a la fila de la clave, creándola si todavía no existe
+     */
+    private void incrementar(ClaveAdherencia clave, int programados, int completados, int omitidos, int cancelados) {
+        int actualizadas = adherenciaDiariaRepository.incrementar(
+            clave.pacienteId(), clave.medicamentoId(), clave.fecha(), clave.franja(),
+            programados, completados, omitidos, cancelados
+        );
+
+        if (actualizadas == 0) {
+            AdherenciaDiaria fila = new AdherenciaDiaria();
+            fila.setPacienteId(clave.pacienteId());
+            fila.setMedicamentoId(clave.medicamentoId());
+            fila.setFecha(clave.fecha());
+            fila.setFranja(clave.franja());
+            fila.setProgramados(programados);
+            fila.setCompletados(completados);
+            fila.setOmitidos(omitidos);
+            fila.setCancelados(cancelados);
+            adherenciaDiariaRepository.save(fila);
+        }
+    }
+
+    /**
+     * Posición del contador de cada estado: 1 completados, 2 omitidos, 3 cancelados.
+     * Un recordatorio contado que vuelve a PENDIENTE sigue contando como omitido.
+     */
+    private static int indiceContador(EstadoRecordatorio estado) {
+        return switch (estado) {
+            case COMPLETADO -> 1;
+            case CANCELADO -> 3;
+            default -> 2;
+        };
+    }
+
+    private record ClaveAdherencia(Long pacienteId, Long medicamentoId, LocalDate fecha, FranjaHoraria franja) {
+
+        static ClaveAdherencia de(Long pacienteId, Long medicamentoId, LocalDateTime fechaHora) {
+            return new ClaveAdherencia(
+                pacienteId, medicamentoId, fechaHora.toLocalDate(), FranjaHoraria.deHora(fechaHora.getHour())
+            );
+        }
+    }
+
+    public enum Granularidad {
+        DIA,
+        SEMANA,  // Semanas ISO, de lunes a domingo
+        MES;
+
+        LocalDate inicioDe(LocalDate fecha) {
+            return switch (this) {
+                case DIA -> fecha;
+                case SEMANA -> fecha.with(DayOfWeek.MONDAY);
+                case MES -> fecha.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate finDe(LocalDate inicio) {
+            return switch (this) {
+                case DIA -> inicio;
+                case SEMANA -> inicio.plusDays(6);
+                case MES -> inicio.with(TemporalAdjusters.lastDayOfMonth());
+            };
+        }
+    }
+
+    private static class Periodo {
+        private final LocalDate inicio;
+        private final Contador total = new Contador();
+        private final Map<Long, Contador> porMedicamento = new LinkedHashMap<>();
+        private final Map<FranjaHoraria, Contador> porFranja = new EnumMap<>(FranjaHoraria.class);
+
+        Periodo(LocalDate inicio) {
+            this.inicio = inicio;
+            for (FranjaHoraria franja : FranjaHoraria.values()) {
+                porFranja.put(franja, new Contador());
+            }
+        }
+    }
+
+    private static class Contador {
+        private int programados;
+        private int completados;
+        private int omitidos;
+        private int cancelados;
+
+        void sumar(AdherenciaDiaria fila) {
+            programados += fila.getProgramados();
+            completados += fila.getCompletados();
+            omitidos += fila.getOmitidos();
+            cancelados += fila.getCancelados();
+        }
+
+        AdherenciaResponseDTO.ContadoresDTO toDTO() {
+            // Los cancelados no cuentan: la dosis dejó de estar indicada
+            int esperados = completados + omitidos;
+            Double porcentaje = esperados == 0
+                ? null
+                : Math.round(completados * 1000.0 / esperados) / 10.0;
+
+            return AdherenciaResponseDTO.ContadoresDTO.builder()
+                .programados(programados)
+                .completados(completados)
+                .omitidos(omitidos)
+                .cancelados(cancelados)
+                .porcentajeAdherencia(porcentaje)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.model.JobWatermark;
+import com.cuido.cuido.model.RecordatorioArchivado;
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.repository.JobWatermarkRepository;
+import com.cuido.cuido.repository.RecordatorioArchivadoRepository;
+import com.cuido.cuido.repository.RecordatorioInstanciaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Archivo de recordatorios históricos.
+ *
+ * Los recordatorios anteriores al corte se mueven a recordatorios_instancia_archivo
+ * para que la tabla activa y sus índices solo contengan el período reciente.
+ * Las lecturas consultan el archivo únicamente cuando el rango pedido empieza antes del corte.
+ */
+@Service
+@RequiredArgsConstructor
+public class ArchivoRecordatoriosService {
+
+    public static final String MARCA_ARCHIVO = "archivo-recordatorios";
+
+    private final RecordatorioInstanciaRepository recordatorioInstanciaRepository;
+    private final RecordatorioArchivadoRepository recordatorioArchivadoRepository;
+    private final JobWatermarkRepository jobWatermarkRepository;
+
+    /**
+     * Instante hasta el cual puede haber recordatorios archivados, o null si nunca se archivó
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime obtenerCorte() {
+        return jobWatermarkRepository.findById(MARCA_ARCHIVO)
+            .map(JobWatermark::getValor)
+            .orElse(null);
+    }
+
+    /**
+     * Avanza el corte. Se registra antes de mover filas para que las lecturas
+     * concurrentes ya consulten ambas tablas en el tramo que se está archivando.
+     */
+    @Transactional
+    public void avanzarCorte(LocalDateTime limite) {
+        LocalDateTime corte = obtenerCorte();
+        if (corte == null || limite.isAfter(corte)) {
+            jobWatermarkRepository.save(new JobWatermark(MARCA_ARCHIVO, limite, null));
+        }
+    }
+
+    /**
+     * Mueve al archivo un lote de recordatorios anteriores al límite, en una transacción
+     *
+     * @return cantidad de recordatorios archivados
+     */
+    @Transactional
+    public int archivarLote(LocalDateTime limite, int tamanioLote) {
+        List<Long> ids = recordatorioInstanciaRepository.findIdsAnteriores(
+            Arrays.asList(EstadoRecordatorio.values()),
+            limite,
+            PageRequest.of(0, tamanioLote)
+        );
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        recordatorioArchivadoRepository.copiarDesdeActivos(ids, LocalDateTime.now());
+        recordatorioInstanciaRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    /**
+     * Recordatorios archivados de un paciente en [desde, hasta], solo si el rango
+     * empieza antes del corte
+     */
+    @Transactional(readOnly = true)
+    public List<RecordatorioArchivado> buscarArchivados(Long pacienteId, LocalDateTime desde, LocalDateTime hasta) {
+        LocalDateTime corte = obtenerCorte();
+        if (corte == null || !desde.isBefore(corte)) {
+            return List.of();
+        }
+        return recordatorioArchivadoRepository.findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc(
+            pacienteId, desde, hasta.isAfter(corte) ? corte : hasta
+        );
+    }
+
+    /**
+     * Todos los recordatorios archivados de un paciente
+     */
+    @Transactional(readOnly = true)
+    public List<RecordatorioArchivado> buscarArchivados(Long pacienteId) {
+        if (obtenerCorte() == null) {
+            return List.of();
+        }
+        return recordatorioArchivadoRepository.findByPacienteIdOrderByFechaHoraAsc(pacienteId);
+    }
+}
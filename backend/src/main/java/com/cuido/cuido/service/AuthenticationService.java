@@ -45,8 +45,11 @@ public class AuthenticationService {
     @Autowired
     private PacienteRepository pacienteRepository;
 
+    @Autowired
+    private VersionRecursoService versionRecursoService;
+
     public JwtResponseDTO authenticate(LoginRequestDTO request) {
-        logger.info("Intento de autenticación para email: {}", request.getEmail());
+        logger.debug("Intento de autenticación para email: {}", request.getEmail());
 
         try {
             Authentication authentication = authenticationManager.authenticate(
@@ -72,7 +75,7 @@ public class AuthenticationService {
     }
 
     public JwtResponseDTO register(RegistroRequestDTO request) {
-        logger.info("Intento de registro para email: {}, Rol: {}", request.getEmail(), request.getRol());
+        logger.debug("Intento de registro para email: {}, Rol: {}", request.getEmail(), request.getRol());
 
         try {
             if (usuarioRepository.existsByEmail(request.getEmail())) {
@@ -113,7 +116,9 @@ public class AuthenticationService {
                 Paciente nuevoPaciente = new Paciente();
                 nuevoPaciente.setUsuario(nuevoUsuario);
                 pacienteRepository.save(nuevoPaciente);
-                logger.info("Registro de paciente creado exitosamente para usuario ID: {}", nuevoUsuario.getId());
+                // Un GET previo pudo responder 404 con el ETag de la versión inicial
+                versionRecursoService.incrementar(VersionRecursoService.Recurso.PERFIL, nuevoUsuario.getId());
+                logger.debug("Registro de paciente creado exitosamente para usuario ID: {}", nuevoUsuario.getId());
             }
 
             // Enviar email de bienvenida
@@ -123,7 +128,7 @@ public class AuthenticationService {
                     nuevoUsuario.getNombreCompleto(),
                     nuevoUsuario.getRol().name().toLowerCase()
                 );
-                logger.info("Email de bienvenida enviado a: {}", nuevoUsuario.getEmail());
+                logger.debug("Email de bienvenida encolado para: {}", nuevoUsuario.getEmail());
             } catch (Exception e) {
                 logger.error("Error al enviar email de bienvenida a {}: {}", nuevoUsuario.getEmail(), e.getMessage());
                 // No interrumpimos el registro si falla el email
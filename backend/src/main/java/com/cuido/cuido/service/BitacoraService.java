@@ -75,6 +75,7 @@ public class BitacoraService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<BitacoraResponseDTO> obtenerBitacorasPorPaciente(Long pacienteId) {
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         ////authorizationService.validarAccesoAPaciente(pacienteId);
@@ -85,6 +86,7 @@ public class BitacoraService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<BitacoraResponseDTO> obtenerBitacorasPorPacienteYRango(
         Long pacienteId,
         LocalDate fechaInicio,
@@ -100,6 +102,7 @@ public class BitacoraService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<BitacoraResponseDTO> obtenerBitacorasPorCuidador(Long cuidadorId) {
         List<Bitacora> bitacoras = bitacoraRepository.findByCuidadorIdOrderByFechaDesc(cuidadorId);
         return bitacoras.stream()
@@ -107,6 +110,7 @@ public class BitacoraService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public BitacoraResponseDTO obtenerBitacoraPorId(Long id) {
         Bitacora bitacora = bitacoraRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Bitácora no encontrada"));
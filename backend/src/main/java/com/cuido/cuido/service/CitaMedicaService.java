@@ -77,6 +77,7 @@ public class CitaMedicaService {
         recordatorioInstanciaRepository.save(recordatorio);
     }
 
+    @Transactional(readOnly = true)
     public List<CitaMedicaResponseDTO> obtenerCitasPorPaciente(Long pacienteId) {
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         ////authorizationService.validarAccesoAPaciente(pacienteId);
@@ -87,6 +88,7 @@ public class CitaMedicaService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public CitaMedicaResponseDTO obtenerCitaPorId(Long id) {
         CitaMedica cita = citaMedicaRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Cita médica no encontrada"));
@@ -111,7 +113,7 @@ public class CitaMedicaService {
             id
         );
 
-        citaMedicaRepository.delete(cita);
+        citaMedicaRepository.eliminarPorId(id);
     }
 
     private CitaMedicaResponseDTO mapToResponseDTO(CitaMedica cita) {
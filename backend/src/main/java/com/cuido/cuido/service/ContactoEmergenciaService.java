@@ -19,16 +19,19 @@ public class ContactoEmergenciaService {
     private final ContactoEmergenciaRepository contactoRepository;
     private final UsuarioRepository usuarioRepository;
     private final AuthorizationService authorizationService;
+    private final VersionRecursoService versionRecursoService;
 
     @Autowired
     public ContactoEmergenciaService(
             ContactoEmergenciaRepository contactoRepository,
             UsuarioRepository usuarioRepository,
-            AuthorizationService authorizationService
+            AuthorizationService authorizationService,
+            VersionRecursoService versionRecursoService
     ) {
         this.contactoRepository = contactoRepository;
         this.usuarioRepository = usuarioRepository;
         this.authorizationService = authorizationService;
+        this.versionRecursoService = versionRecursoService;
     }
 
     public ContactoEmergenciaResponseDTO crear(Long pacienteId, ContactoEmergenciaRequest request) {
@@ -47,6 +50,7 @@ public class ContactoEmergenciaService {
         contacto.setEsContactoPrincipal(request.getEsContactoPrincipal() != null ? request.getEsContactoPrincipal() : false);
 
         ContactoEmergencia saved = contactoRepository.save(contacto);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.CONTACTOS, pacienteId);
         return mapToDTO(saved);
     }
 
@@ -66,6 +70,7 @@ public class ContactoEmergenciaService {
         }
 
         ContactoEmergencia updated = contactoRepository.save(contacto);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.CONTACTOS, contacto.getPaciente().getId());
         return mapToDTO(updated);
     }
 
@@ -77,6 +82,7 @@ public class ContactoEmergenciaService {
         authorizationService.validarEsPropietario(contacto.getPaciente().getId());
 
         contactoRepository.delete(contacto);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.CONTACTOS, contacto.getPaciente().getId());
     }
 
     public List<ContactoEmergenciaResponseDTO> getByPaciente(Long pacienteId) {
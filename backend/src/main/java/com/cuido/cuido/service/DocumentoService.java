@@ -7,6 +7,10 @@ import com.cuido.cuido.model.Documento;
 import com.cuido.cuido.model.Usuario;
 import com.cuido.cuido.repository.DocumentoRepository;
 import com.cuido.cuido.repository.UsuarioRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +21,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -38,6 +44,9 @@ public class DocumentoService {
     private final DocumentoRepository documentoRepository;
     private final UsuarioRepository usuarioRepository;
     private final AuthorizationService authorizationService;
+    private final VersionRecursoService versionRecursoService;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
@@ -80,7 +89,7 @@ public class DocumentoService {
         MultipartFile archivo,
         Long cuidadorId
     ) throws IOException {
-        logger.info("Solicitud de subida de documento - Paciente ID: {}, Cuidador ID: {}, Tipo: {}",
+        logger.debug("Solicitud de subida de documento - Paciente ID: {}, Cuidador ID: {}, Tipo: {}",
                    dto.getPacienteId(), cuidadorId, dto.getTipo());
 
         // Validar acceso al paciente
@@ -154,8 +163,9 @@ public class DocumentoService {
         Path archivoDestino = directorioDestino.resolve(nombreUnico);
 
         // Copiar archivo
-        Files.copy(archivo.getInputStream(), archivoDestino, StandardCopyOption.REPLACE_EXISTING);
-        logger.info("Archivo guardado exitosamente - Path: {} - Size: {} bytes", archivoDestino, archivo.getSize());
+        observarArchivo("escritura", archivo.getSize())
+            .observeChecked(() -> Files.copy(archivo.getInputStream(), archivoDestino, StandardCopyOption.REPLACE_EXISTING));
+        logger.debug("Archivo guardado exitosamente - Path: {} - Size: {} bytes", archivoDestino, archivo.getSize());
 
         // Crear entidad Documento
         Documento documento = new Documento();
@@ -172,6 +182,13 @@ public class DocumentoService {
         documento.setCategoriaArchivo(MIME_TO_CATEGORIA.get(mimeType));
 
         documento = documentoRepository.save(documento);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.DOCUMENTOS, paciente.getId());
+        DistributionSummary.builder("cuido.documentos.subidos.bytes")
+            .description("Tamaño de los documentos subidos")
+            .baseUnit("bytes")
+            .tag("categoria", documento.getCategoriaArchivo().name())
+            .register(meterRegistry)
+            .record(archivo.getSize());
         logger.info("Documento registrado en BD - ID: {}, Paciente ID: {}, Tipo: {}",
                    documento.getId(), dto.getPacienteId(), dto.getTipo());
 
@@ -264,7 +281,12 @@ public class DocumentoService {
             throw new com.cuido.cuido.exception.AccessDeniedException("Acceso denegado al archivo");
         }
 
-        Resource resource = new UrlResource(resolvedPath.toUri());
+        Resource resource = new UrlResource(resolvedPath.toUri()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return lecturaObservada(super.getInputStream(), contentLength());
+            }
+        };
 
         if (resource.exists() && resource.isReadable()) {
             return resource;
@@ -287,11 +309,49 @@ public class DocumentoService {
         // Eliminar archivo físico
         Path archivoPath = Paths.get(documento.getRutaArchivo());
         if (Files.exists(archivoPath)) {
-            Files.delete(archivoPath);
+            observarArchivo("eliminacion", documento.getSizeBytes())
+                .observeChecked(() -> {
+                    Files.delete(archivoPath);
+                    return null;
+                });
         }
 
         // Eliminar registro de BD
         documentoRepository.delete(documento);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.DOCUMENTOS, documento.getPaciente().getId());
+    }
+
+    /**
+     * Span y timer cuido.archivo{operacion} de una transferencia a disco
+     */
+    private Observation observarArchivo(String operacion, Long bytes) {
+        return Observation.createNotStarted("cuido.archivo", observationRegistry)
+            .contextualName("archivo " + operacion)
+            .lowCardinalityKeyValue("operacion", operacion)
+            .highCardinalityKeyValue("bytes", String.valueOf(bytes));
+    }
+
+    /**
+     * La descarga se escribe en la respuesta después de salir del servicio: el span de
+     * lectura va desde que se abre el archivo hasta que se cierra el stream
+     */
+    private InputStream lecturaObservada(InputStream entrada, long bytes) {
+        Observation observacion = observarArchivo("lectura", bytes).start();
+        return new FilterInputStream(entrada) {
+            private boolean cerrado;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!cerrado) {
+                        cerrado = true;
+                        observacion.stop();
+                    }
+                }
+            }
+        };
     }
 
     /**
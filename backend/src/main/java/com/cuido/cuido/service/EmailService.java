@@ -1,10 +1,15 @@
 package com.cuido.cuido.service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
@@ -25,12 +30,18 @@ import lombok.RequiredArgsConstructor;
  * 2. Ir a: https://myaccount.google.com/apppasswords
  * 3. Crear contraseña de aplicación para "Correo"
  * 4. Copiar la contraseña en MAIL_PASSWORD (sin espacios)
+ *
+ * Los envíos son asíncronos (spring.task.execution.*): una conexión SMTP lenta
+ * no retiene el hilo de la solicitud. Los errores de envío se registran y no se propagan.
  */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
     private final JavaMailSender mailSender;
+    private final ObservationRegistry observationRegistry;
 
     @Value("${mail.from.address}")
     private String fromAddress;
@@ -41,44 +52,55 @@ public class EmailService {
     /**
      * Envía email de bienvenida al registrar una nueva cuenta
      */
+    @Async
     public void enviarEmailBienvenida(String destinatario, String nombreCompleto, String rol) {
         String asunto = "¡Bienvenido a Cuido App!";
         String cuerpo = construirEmailBienvenida(nombreCompleto, rol);
-        enviarEmailHTML(destinatario, asunto, cuerpo);
+        enviarEmailHTML("bienvenida", destinatario, asunto, cuerpo);
     }
 
     /**
      * Envía un código OTP para recuperación de contraseña
      */
+    @Async
     public void enviarCodigoOTP(String destinatario, String nombreCompleto, String codigoOtp) {
         String asunto = "Código de recuperación de contraseña - Cuido";
         String cuerpo = construirEmailOTP(nombreCompleto, codigoOtp);
-        enviarEmailHTML(destinatario, asunto, cuerpo);
+        enviarEmailHTML("otp", destinatario, asunto, cuerpo);
     }
 
     /**
      * Envía confirmación de cambio de contraseña
      */
+    @Async
     public void enviarConfirmacionCambioPassword(String destinatario, String nombreCompleto) {
         String asunto = "Contraseña actualizada - Cuido";
         String cuerpo = construirEmailConfirmacionPassword(nombreCompleto);
-        enviarEmailHTML(destinatario, asunto, cuerpo);
+        enviarEmailHTML("cambio-password", destinatario, asunto, cuerpo);
     }
 
     /**
      * Envía un email de invitación a un cuidador
      */
+    @Async
     public void enviarInvitacion(String destinatario, String nombrePaciente, String nombreCuidador) {
         String asunto = "Invitación para ser cuidador en Cuido";
         String cuerpo = construirEmailInvitacion(nombrePaciente, nombreCuidador);
-        enviarEmailHTML(destinatario, asunto, cuerpo);
+        enviarEmailHTML("invitacion", destinatario, asunto, cuerpo);
     }
 
     /**
-     * Método privado para enviar emails HTML usando JavaMailSender
+     * Método privado para enviar emails HTML usando JavaMailSender.
+     * Cada envío es un span hijo de la solicitud que lo encoló y su duración se
+     * registra en cuido.email.envio{tipo,resultado}
      */
-    private void enviarEmailHTML(String destinatario, String asunto, String cuerpoHTML) {
-        try {
+    private void enviarEmailHTML(String tipo, String destinatario, String asunto, String cuerpoHTML) {
+        Observation observacion = Observation.createNotStarted("cuido.email.envio", observationRegistry)
+            .contextualName("email " + tipo)
+            .lowCardinalityKeyValue("tipo", tipo)
+            .start();
+        String resultado = "error";
+        try (Observation.Scope scope = observacion.openScope()) {
             MimeMessage mensaje = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mensaje, true, "UTF-8");
 
@@ -88,22 +110,26 @@ public class EmailService {
             helper.setText(cuerpoHTML, true); // true = HTML
 
             mailSender.send(mensaje);
-            System.out.println("✅ Email enviado exitosamente a: " + destinatario);
+            resultado = "exito";
+            logger.debug("Email {} enviado a: {}", tipo, destinatario);
 
         } catch (MessagingException e) {
-            System.err.println("❌ Error al enviar email a " + destinatario + ": " + e.getMessage());
-            e.printStackTrace();
+            observacion.error(e);
+            logger.error("Error al enviar email {} a {}", tipo, destinatario, e);
         } catch (Exception e) {
-            System.err.println("❌ Error inesperado al enviar email: " + e.getMessage());
-            e.printStackTrace();
+            observacion.error(e);
+            logger.error("Error inesperado al enviar email {} a {}", tipo, destinatario, e);
+        } finally {
+            observacion.lowCardinalityKeyValue("resultado", resultado).stop();
         }
     }
 
     // =============================================
     // PLANTILLAS DE EMAILS
+    // (visibles en el paquete para los benchmarks de src/jmh)
     // =============================================
 
-    private String construirEmailBienvenida(String nombreCompleto, String rol) {
+    String construirEmailBienvenida(String nombreCompleto, String rol) {
         String rolTexto = rol.equals("paciente") ? "paciente" : "cuidador";
 
         return String.format("""
@@ -157,7 +183,7 @@ public class EmailService {
             """, nombreCompleto, rolTexto);
     }
 
-    private String construirEmailOTP(String nombreCompleto, String codigoOtp) {
+    String construirEmailOTP(String nombreCompleto, String codigoOtp) {
         return String.format("""
             <!DOCTYPE html>
             <html>
@@ -209,7 +235,7 @@ public class EmailService {
             """, nombreCompleto, codigoOtp);
     }
 
-    private String construirEmailConfirmacionPassword(String nombreCompleto) {
+    String construirEmailConfirmacionPassword(String nombreCompleto) {
         return String.format("""
             <!DOCTYPE html>
             <html>
@@ -254,7 +280,7 @@ public class EmailService {
             """, nombreCompleto);
     }
 
-    private String construirEmailInvitacion(String nombrePaciente, String nombreCuidador) {
+    String construirEmailInvitacion(String nombrePaciente, String nombreCuidador) {
         return String.format("""
             <!DOCTYPE html>
             <html>
@@ -0,0 +1,203 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.exception.BadRequestException;
+import com.cuido.cuido.exception.ConflictoEdicionException;
+import com.cuido.cuido.model.ClaveIdempotencia;
+import com.cuido.cuido.repository.ClaveIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Registro de claves de idempotencia (cabecera Idempotency-Key) en la tabla
+ * claves_idempotencia, compartida por todas las instancias.
+ *
+ * Un reintento con la misma clave recibe la respuesta de la primera ejecución
+ * sin volver a ejecutarla, aunque llegue a otra instancia; si la primera sigue
+ * en curso, espera su resultado. Las respuestas se conservan durante el TTL
+ * configurado. Si la operación falla, la clave se libera para que el cliente
+ * pueda reintentar; si la instancia cae a mitad, la reserva vence a los pocos segundos.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private static final int LARGO_MAXIMO_CLAVE = 160;
+    private static final long INTERVALO_CONSULTA_MS = 50;
+
+    private final ClaveIdempotenciaRepository claveIdempotenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotencia.ttl-minutos:1440}")
+    private long ttlMinutos;
+
+    @Value("${app.idempotencia.espera-maxima-ms:10000}")
+    private long esperaMaximaMillis;
+
+    @Value("${app.idempotencia.purga-lote:1000}")
+    private int purgaLote;
+
+    public IdempotenciaService(
+            ClaveIdempotenciaRepository claveIdempotenciaRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper
+    ) {
+        this.claveIdempotenciaRepository = claveIdempotenciaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave.
+     *
+     * @param clave  clave de idempotencia, ya acotada al usuario que la envía
+     * @param huella resumen de la solicitud; reutilizar la clave con otra solicitud es un error
+     * @param tipo   clase de la respuesta, que se guarda en JSON
+     */
+    public <T> T ejecutar(String clave, String huella, Class<T> tipo, Supplier<T> operacion) {
+        if (clave.length() > LARGO_MAXIMO_CLAVE) {
+            throw new BadRequestException("La clave de idempotencia es demasiado larga");
+        }
+        String huellaSolicitud = sha256(huella);
+        long limiteEspera = System.currentTimeMillis() + esperaMaximaMillis;
+
+        while (true) {
+            Optional<ClaveIdempotencia> existente = buscar(clave);
+            if (existente.isEmpty()) {
+                // Microsegundos: la precisión de created_at, que identifica esta reserva
+                LocalDateTime reservadaEn = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                if (reservar(clave, huellaSolicitud, reservadaEn)) {
+                    return ejecutarReservada(clave, reservadaEn, tipo, operacion);
+                }
+                // Otra solicitud con la misma clave la reservó primero
+                continue;
+            }
+            ClaveIdempotencia registro = existente.get();
+            if (!registro.getHuella().equals(huellaSolicitud)) {
+                throw new BadRequestException("La clave de idempotencia ya se usó con otra solicitud");
+            }
+            if (registro.getExpiraEn().isBefore(LocalDateTime.now())) {
+                // La ejecución original falló sin liberar la clave, o su respuesta venció
+                transactionTemplate.executeWithoutResult(status ->
+                    claveIdempotenciaRepository.deleteVencida(clave, LocalDateTime.now()));
+                continue;
+            }
+            if (registro.getRespuesta() != null) {
+                return leer(registro.getRespuesta(), tipo);
+            }
+            if (System.currentTimeMillis() > limiteEspera) {
+                throw new ConflictoEdicionException("La solicitud con esta clave de idempotencia sigue en curso");
+            }
+            esperar();
+        }
+    }
+
+    private <T> T ejecutarReservada(String clave, LocalDateTime reservadaEn, Class<T> tipo, Supplier<T> operacion) {
+        T resultado;
+        try {
+            resultado = operacion.get();
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status ->
+                claveIdempotenciaRepository.liberar(clave, reservadaEn));
+            throw e;
+        }
+
+        String respuesta = escribir(resultado);
+        LocalDateTime expiraEn = LocalDateTime.now().plusMinutes(ttlMinutos);
+        Integer guardadas = transactionTemplate.execute(status ->
+            claveIdempotenciaRepository.guardarRespuesta(clave, reservadaEn, respuesta, expiraEn));
+        if (guardadas == null || guardadas == 0) {
+            logger.warn("La reserva de la clave de idempotencia venció antes de guardar la respuesta");
+        }
+        return resultado;
+    }
+
+    private boolean reservar(String clave, String huella, LocalDateTime reservadaEn) {
+        // La reserva corre más allá de la espera máxima: pasado ese plazo los reintentos
+        // ya respondieron 409 y una reserva que sigue sin respuesta se da por abandonada
+        LocalDateTime expiraEn = reservadaEn.plus(2 * esperaMaximaMillis, ChronoUnit.MILLIS);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                claveIdempotenciaRepository.reservar(clave, huella, expiraEn, reservadaEn));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Transacción de escritura: la lectura va al primario aunque haya réplica
+    private Optional<ClaveIdempotencia> buscar(String clave) {
+        return transactionTemplate.execute(status -> claveIdempotenciaRepository.findById(clave));
+    }
+
+    private String escribir(Object resultado) {
+        try {
+            return objectMapper.writeValueAsString(resultado);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta idempotente", e);
+        }
+    }
+
+    private <T> T leer(String respuesta, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(respuesta, tipo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta idempotente", e);
+        }
+    }
+
+    private static void esperar() {
+        try {
+            Thread.sleep(INTERVALO_CONSULTA_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoEdicionException("La solicitud con esta clave de idempotencia sigue en curso");
+        }
+    }
+
+    private static String sha256(String valor) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(valor.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Borra las claves vencidas en lotes, cada uno en su propia transacción
+     */
+    @Scheduled(fixedDelay = 60000)
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void purgarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int total = 0;
+        Integer eliminadas;
+        do {
+            eliminadas = transactionTemplate.execute(status ->
+                claveIdempotenciaRepository.deleteLoteVencidas(ahora, purgaLote));
+            total += eliminadas;
+        } while (eliminadas == purgaLote);
+        if (total > 0) {
+            logger.debug("Claves de idempotencia vencidas eliminadas: {}", total);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.cuido.cuido.service;
 
+import com.cuido.cuido.concurrencia.ReintentarConflictos;
+import com.cuido.cuido.datasource.CargaPorLotes;
 import com.cuido.cuido.dto.request.MedicamentoRequestDTO;
 import com.cuido.cuido.dto.response.MedicamentoResponseDTO;
+import com.cuido.cuido.exception.BadRequestException;
 import com.cuido.cuido.exception.ResourceNotFoundException;
 import com.cuido.cuido.model.HorarioMedicamento;
 import com.cuido.cuido.model.Medicamento;
@@ -11,27 +14,45 @@ import com.cuido.cuido.repository.HorarioMedicamentoRepository;
 import com.cuido.cuido.repository.MedicamentoRepository;
 import com.cuido.cuido.repository.RecordatorioInstanciaRepository;
 import com.cuido.cuido.repository.UsuarioRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MedicamentoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MedicamentoService.class);
+
+    private static final int MAX_IDS_POR_SENTENCIA = 1000;
+
     private final MedicamentoRepository medicamentoRepository;
     private final HorarioMedicamentoRepository horarioMedicamentoRepository;
     private final RecordatorioInstanciaRepository recordatorioInstanciaRepository;
     private final UsuarioRepository usuarioRepository;
     private final AuthorizationService authorizationService;
+    private final AdherenciaService adherenciaService;
+    private final RecordatorioService recordatorioService;
+    private final TransactionTemplate transactionTemplate;
+    private final VersionRecursoService versionRecursoService;
+    private final MeterRegistry meterRegistry;
 
+    @CargaPorLotes
     @Transactional
     public MedicamentoResponseDTO crearMedicamento(MedicamentoRequestDTO request, Long cuidadorId) {
         // VALIDAR ACCESO: Solo cuidadores autorizados pueden crear medicamentos
@@ -56,6 +77,7 @@ public class MedicamentoService {
         medicamento.setActivo(true);
 
         Medicamento medicamentoGuardado = medicamentoRepository.save(medicamento);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.MEDICAMENTOS, paciente.getId());
 
         // Guardar horarios
         List<HorarioMedicamento> horarios = new ArrayList<>();
@@ -78,46 +100,173 @@ public class MedicamentoService {
     @Transactional
     public void generarRecordatoriosDesdeMedicamento(Medicamento medicamento) {
         List<RecordatorioInstancia> recordatorios = new ArrayList<>();
+        String descripcion = construirDescripcion(medicamento);
 
-        LocalDate fechaInicio = medicamento.getFechaInicio();
-        LocalDate fechaFin = medicamento.getFechaFin();
+        for (LocalDateTime fechaHora : expandirOcurrencias(
+            medicamento.getHorarios(), medicamento.getFechaInicio(), medicamento.getFechaFin())) {
+            recordatorios.add(nuevoRecordatorio(medicamento, fechaHora, descripcion));
+        }
 
-        // Generar recordatorios para cada día en el rango
-        LocalDate fechaActual = fechaInicio;
-        while (!fechaActual.isAfter(fechaFin)) {
-            final LocalDate fecha = fechaActual;
+        recordatorioInstanciaRepository.saveAll(recordatorios);
+        registrarGenerados("alta", recordatorios.size());
+
+        // Las dosis con fecha ya procesada por el detector de omitidas se cuentan ahora
+        adherenciaService.registrarRecordatoriosNuevos(recordatorios);
+    }
+
+    /**
+     * Actualiza un medicamento y sus horarios sin perder el historial.
+     * Solo se tocan los recordatorios futuros que siguen PENDIENTES: se eliminan
+     * las tomas que ya no corresponden y se crean las que faltan. Los pasados y
+     * los que ya tienen estado (completados, cancelados) no se modifican.
+     */
+    @CargaPorLotes
+    @Transactional
+    public MedicamentoResponseDTO actualizarMedicamento(Long id, MedicamentoRequestDTO request) {
+        Medicamento medicamento = medicamentoRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Medicamento no encontrado"));
+
+        // VALIDAR ACCESO: Solo cuidadores autorizados pueden modificar medicamentos
+        ////authorizationService.validarAccesoAPaciente(medicamento.getPaciente().getId());
+
+        if (!medicamento.getPaciente().getId().equals(request.getPacienteId())) {
+            throw new BadRequestException("No se puede cambiar el paciente de un medicamento");
+        }
+        if (request.getFechaFin().isBefore(request.getFechaInicio())) {
+            throw new BadRequestException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+
+        String descripcionAnterior = construirDescripcion(medicamento);
+        boolean fechasCambiaron = !request.getFechaInicio().equals(medicamento.getFechaInicio())
+            || !request.getFechaFin().equals(medicamento.getFechaFin());
+
+        medicamento.setNombre(request.getNombre());
+        medicamento.setDosis(request.getDosis());
+        medicamento.setFrecuencia(request.getFrecuencia());
+        medicamento.setViaAdministracion(request.getViaAdministracion());
+        medicamento.setFechaInicio(request.getFechaInicio());
+        medicamento.setFechaFin(request.getFechaFin());
+        medicamento.setObservaciones(request.getObservaciones());
+
+        boolean horariosCambiaron = sincronizarHorarios(medicamento, request.getHorarios());
+
+        LocalDateTime ahora = LocalDateTime.now();
+        String descripcion = construirDescripcion(medicamento);
+
+        if (!descripcion.equals(descripcionAnterior)) {
+            recordatorioInstanciaRepository.actualizarDescripcionPendientes(
+                RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO, id, descripcion, ahora
+            );
+        }
+
+        if (fechasCambiaron || horariosCambiaron) {
+            regenerarRecordatoriosFuturos(medicamento, descripcion, ahora);
+        }
+
+        Medicamento medicamentoActualizado = medicamentoRepository.save(medicamento);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.MEDICAMENTOS, medicamento.getPaciente().getId());
+        return mapToResponseDTO(medicamentoActualizado);
+    }
+
+    /**
+     * Aplica los horarios pedidos conservando los que no cambian (misma hora y días).
+     *
+     * @return true si se agregó o quitó algún horario
+     */
+    private boolean sincronizarHorarios(Medicamento medicamento, List<MedicamentoRequestDTO.HorarioDTO> horariosPedidos) {
+        Set<HorarioClave> pedidos = horariosPedidos.stream()
+            .map(h -> new HorarioClave(h.getHora(), normalizarDias(h.getDiasSemana())))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Set<HorarioClave> existentes = new HashSet<>();
+        boolean cambiaron = medicamento.getHorarios().removeIf(h -> {
+            HorarioClave clave = new HorarioClave(h.getHora(), normalizarDias(h.getDiasSemana()));
+            return !pedidos.contains(clave) || !existentes.add(clave);
+        });
+
+        for (HorarioClave clave : pedidos) {
+            if (!existentes.contains(clave)) {
+                HorarioMedicamento horario = new HorarioMedicamento();
+                horario.setMedicamento(medicamento);
+                horario.setHora(clave.hora());
+                horario.setDiasSemana(clave.diasSemana());
+                medicamento.getHorarios().add(horario);
+                cambiaron = true;
+            }
+        }
+        return cambiaron;
+    }
+
+    /**
+     * Compara las tomas futuras que corresponden con los recordatorios futuros
+     * existentes y aplica solo la diferencia
+     */
+    private void regenerarRecordatoriosFuturos(Medicamento medicamento, String descripcion, LocalDateTime ahora) {
+        LocalDate desde = medicamento.getFechaInicio().isAfter(ahora.toLocalDate())
+            ? medicamento.getFechaInicio()
+            : ahora.toLocalDate();
+
+        Set<LocalDateTime> esperadas = new HashSet<>();
+        for (LocalDateTime fechaHora : expandirOcurrencias(medicamento.getHorarios(), desde, medicamento.getFechaFin())) {
+            if (fechaHora.isAfter(ahora)) {
+                esperadas.add(fechaHora);
+            }
+        }
+
+        List<RecordatorioEstadoActual> existentes = recordatorioInstanciaRepository.findEstadosPosteriores(
+            RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO, medicamento.getId(), ahora
+        );
+
+        // Las tomas con un recordatorio ya existente (en cualquier estado) no se vuelven a crear
+        Set<LocalDateTime> cubiertas = new HashSet<>();
+        List<Long> sobrantes = new ArrayList<>();
+        for (RecordatorioEstadoActual existente : existentes) {
+            if (esperadas.contains(existente.fechaHora())) {
+                cubiertas.add(existente.fechaHora());
+            } else if (existente.estado() == RecordatorioInstancia.EstadoRecordatorio.PENDIENTE) {
+                sobrantes.add(existente.id());
+            }
+        }
 
+        for (int i = 0; i < sobrantes.size(); i += MAX_IDS_POR_SENTENCIA) {
+            recordatorioInstanciaRepository.deleteByIdIn(
+                sobrantes.subList(i, Math.min(i + MAX_IDS_POR_SENTENCIA, sobrantes.size()))
+            );
+        }
+
+        List<RecordatorioInstancia> nuevos = esperadas.stream()
+            .filter(fechaHora -> !cubiertas.contains(fechaHora))
+            .sorted()
+            .map(fechaHora -> nuevoRecordatorio(medicamento, fechaHora, descripcion))
+            .collect(Collectors.toList());
+        recordatorioInstanciaRepository.saveAll(nuevos);
+        registrarGenerados("actualizacion", nuevos.size());
+
+        logger.info("Medicamento {} actualizado: {} recordatorios eliminados, {} creados",
+                   medicamento.getId(), sobrantes.size(), nuevos.size());
+    }
+
+    /**
+     * Expande los horarios en las tomas de cada día del rango [desde, hasta], en orden.
+     * No accede a la base de datos.
+     */
+    public static List<LocalDateTime> expandirOcurrencias(List<HorarioMedicamento> horarios, LocalDate desde, LocalDate hasta) {
+        List<LocalDateTime> ocurrencias = new ArrayList<>();
+
+        // Generar recordatorios para cada día en el rango
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
             // Para cada horario del medicamento
-            for (HorarioMedicamento horario : medicamento.getHorarios()) {
+            for (HorarioMedicamento horario : horarios) {
                 // Si diasSemana es null, es diario
-                boolean aplicaHoy = horario.getDiasSemana() == null ||
-                                    diasSemanaIncluye(horario.getDiasSemana(), fecha);
-
-                if (aplicaHoy) {
-                    RecordatorioInstancia recordatorio = new RecordatorioInstancia();
-                    recordatorio.setTipo(RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO);
-                    recordatorio.setReferenciaId(medicamento.getId());
-                    recordatorio.setPaciente(medicamento.getPaciente());
-                    recordatorio.setFechaHora(LocalDateTime.of(fecha, horario.getHora()));
-                    recordatorio.setEstado(RecordatorioInstancia.EstadoRecordatorio.PENDIENTE);
-
-                    String descripcion = medicamento.getNombre();
-                    if (medicamento.getDosis() != null && !medicamento.getDosis().isEmpty()) {
-                        descripcion += " - " + medicamento.getDosis();
-                    }
-                    recordatorio.setDescripcion(descripcion);
-
-                    recordatorios.add(recordatorio);
+                if (horario.getDiasSemana() == null || diasSemanaIncluye(horario.getDiasSemana(), fecha)) {
+                    ocurrencias.add(LocalDateTime.of(fecha, horario.getHora()));
                 }
             }
-
-            fechaActual = fechaActual.plusDays(1);
         }
-
-        recordatorioInstanciaRepository.saveAll(recordatorios);
+        return ocurrencias;
     }
 
-    private boolean diasSemanaIncluye(String diasSemanaJson, LocalDate fecha) {
+    private static boolean diasSemanaIncluye(String diasSemanaJson, LocalDate fecha) {
         if (diasSemanaJson == null || diasSemanaJson.isEmpty()) {
             return true; // Si es null, aplica todos los días
         }
@@ -131,6 +280,41 @@ public class MedicamentoService {
         return diasSemanaJson.contains(letraDia);
     }
 
+    private static String normalizarDias(String diasSemana) {
+        return diasSemana == null || diasSemana.isBlank() ? null : diasSemana.trim();
+    }
+
+    private RecordatorioInstancia nuevoRecordatorio(Medicamento medicamento, LocalDateTime fechaHora, String descripcion) {
+        RecordatorioInstancia recordatorio = new RecordatorioInstancia();
+        recordatorio.setTipo(RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO);
+        recordatorio.setReferenciaId(medicamento.getId());
+        recordatorio.setPaciente(medicamento.getPaciente());
+        recordatorio.setFechaHora(fechaHora);
+        recordatorio.setEstado(RecordatorioInstancia.EstadoRecordatorio.PENDIENTE);
+        recordatorio.setDescripcion(descripcion);
+        return recordatorio;
+    }
+
+    private void registrarGenerados(String origen, int cantidad) {
+        DistributionSummary.builder("cuido.recordatorios.generados")
+            .description("Recordatorios creados por alta o actualización de un medicamento")
+            .tag("origen", origen)
+            .register(meterRegistry)
+            .record(cantidad);
+    }
+
+    private String construirDescripcion(Medicamento medicamento) {
+        String descripcion = medicamento.getNombre();
+        if (medicamento.getDosis() != null && !medicamento.getDosis().isEmpty()) {
+            descripcion += " - " + medicamento.getDosis();
+        }
+        return descripcion;
+    }
+
+    private record HorarioClave(LocalTime hora, String diasSemana) {
+    }
+
+    @Transactional(readOnly = true)
     public List<MedicamentoResponseDTO> obtenerMedicamentosPorPaciente(Long pacienteId, Boolean soloActivos) {
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         ////authorizationService.validarAccesoAPaciente(pacienteId);
@@ -147,6 +331,7 @@ public class MedicamentoService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public MedicamentoResponseDTO obtenerMedicamentoPorId(Long id) {
         Medicamento medicamento = medicamentoRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Medicamento no encontrado"));
@@ -157,7 +342,11 @@ public class MedicamentoService {
         return mapToResponseDTO(medicamento);
     }
 
-    @Transactional
+    /**
+     * Elimina un medicamento con sus recordatorios, horarios y contadores de adherencia.
+     * Los recordatorios se borran primero en lotes; el resto en una sola transacción final.
+     */
+    @CargaPorLotes
     public void eliminarMedicamento(Long id) {
         Medicamento medicamento = medicamentoRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Medicamento no encontrado"));
@@ -166,17 +355,35 @@ public class MedicamentoService {
         ////authorizationService.validarAccesoAPaciente(medicamento.getPaciente().getId());
 
         // Eliminar recordatorios asociados
-        recordatorioInstanciaRepository.deleteByTipoAndReferenciaId(
+        int recordatorios = recordatorioService.eliminarRecordatoriosEnLotes(
             RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO,
             id
         );
 
-        // Eliminar horarios
-        horarioMedicamentoRepository.deleteByMedicamentoId(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Espera a que el detector de omitidas termine de contar este medicamento
+            adherenciaService.bloquearMarca();
+
+            // Recordatorios creados mientras se borraban los lotes
+            recordatorioInstanciaRepository.deleteByTipoAndReferenciaId(
+                RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO,
+                id
+            );
+
+            // Eliminar horarios
+            horarioMedicamentoRepository.deleteByMedicamentoId(id);
+
+            // Eliminar contadores de adherencia
+            adherenciaService.eliminarPorMedicamento(id);
+
+            medicamentoRepository.eliminarPorId(id);
+        });
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.MEDICAMENTOS, medicamento.getPaciente().getId());
 
-        medicamentoRepository.delete(medicamento);
+        logger.info("Medicamento {} eliminado junto con {} recordatorios", id, recordatorios);
     }
 
+    @ReintentarConflictos
     @Transactional
     public MedicamentoResponseDTO desactivarMedicamento(Long id) {
         Medicamento medicamento = medicamentoRepository.findById(id)
@@ -187,6 +394,7 @@ public class MedicamentoService {
 
         medicamento.setActivo(false);
         Medicamento medicamentoActualizado = medicamentoRepository.save(medicamento);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.MEDICAMENTOS, medicamento.getPaciente().getId());
 
         return mapToResponseDTO(medicamentoActualizado);
     }
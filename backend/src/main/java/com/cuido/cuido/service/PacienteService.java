@@ -23,12 +23,15 @@ public class PacienteService {
     private final PacienteRepository pacienteRepository;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VersionRecursoService versionRecursoService;
 
     @Autowired
-    public PacienteService(PacienteRepository pacienteRepository, UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+    public PacienteService(PacienteRepository pacienteRepository, UsuarioRepository usuarioRepository,
+                           PasswordEncoder passwordEncoder, VersionRecursoService versionRecursoService) {
         this.pacienteRepository = pacienteRepository;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.versionRecursoService = versionRecursoService;
     }
 
     public Optional<PacienteResponseDTO> getPacientePorId(Long id) {
@@ -56,8 +59,10 @@ public class PacienteService {
                 .orElseThrow(() -> new RuntimeException("Perfil de paciente no encontrado"));
 
         // Actualizar datos del usuario
-        if (request.getNombreCompleto() != null) {
+        if (request.getNombreCompleto() != null && !request.getNombreCompleto().equals(usuario.getNombreCompleto())) {
             usuario.setNombreCompleto(request.getNombreCompleto());
+            // El nombre también aparece en los medicamentos y documentos del paciente
+            versionRecursoService.incrementarUsuario(usuarioId);
         }
 
         // IMPORTANTE: No permitir cambio de email aquí porque invalida el JWT token
@@ -98,6 +103,7 @@ public class PacienteService {
         }
 
         pacienteRepository.save(paciente);
+        versionRecursoService.incrementar(VersionRecursoService.Recurso.PERFIL, usuarioId);
         return mapToResponseDTO(paciente);
     }
 
@@ -1,22 +1,32 @@
 package com.cuido.cuido.service;
 
+import com.cuido.cuido.exception.BadRequestException;
 import com.cuido.cuido.exception.ExpiredTokenException;
 import com.cuido.cuido.exception.UsuarioNotFoundException;
 import com.cuido.cuido.model.PasswordResetToken;
 import com.cuido.cuido.model.Usuario;
 import com.cuido.cuido.repository.PasswordResetTokenRepository;
 import com.cuido.cuido.repository.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -29,19 +39,48 @@ public class PasswordResetService {
     private final UsuarioRepository usuarioRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
     private final SecureRandom secureRandom = new SecureRandom();
 
+    @Value("${app.recuperacion.clave-hmac:}")
+    private String claveHmac;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    // Clave del HMAC de los códigos, distinta de la que firma los JWT
+    private byte[] claveCodigos;
+
+    @Value("${app.recuperacion.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${app.recuperacion.purga-lote:1000}")
+    private int purgaLote;
+
     @Autowired
     public PasswordResetService(
             PasswordResetTokenRepository tokenRepository,
             UsuarioRepository usuarioRepository,
             EmailService emailService,
-            PasswordEncoder passwordEncoder
+            PasswordEncoder passwordEncoder,
+            TransactionTemplate transactionTemplate
     ) {
         this.tokenRepository = tokenRepository;
         this.usuarioRepository = usuarioRepository;
         this.emailService = emailService;
         this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Sin RECUPERACION_CLAVE_HMAC deriva una subclave propia de jwt.secret,
+     * así el secreto de los JWT no se usa directamente como clave del HMAC
+     */
+    @PostConstruct
+    void inicializarClave() {
+        claveCodigos = claveHmac.isBlank()
+            ? hmac(jwtSecret.getBytes(StandardCharsets.UTF_8), "recuperacion-otp")
+            : claveHmac.getBytes(StandardCharsets.UTF_8);
     }
 
     /**
@@ -63,12 +102,11 @@ public class PasswordResetService {
 
         Usuario usuario = usuarioOpt.get();
 
-        // Invalidar tokens anteriores del mismo usuario
-        List<PasswordResetToken> tokensAnteriores = tokenRepository.findByUsuarioAndUsadoFalse(usuario);
-        if (!tokensAnteriores.isEmpty()) {
-            logger.debug("Invalidando {} tokens anteriores del usuario ID: {}", tokensAnteriores.size(), usuario.getId());
-            tokensAnteriores.forEach(token -> token.setUsado(true));
-            tokenRepository.saveAll(tokensAnteriores);
+        // Eliminar tokens anteriores del mismo usuario: queda un solo código por email,
+        // por lo que el hash no puede repetirse
+        int tokensAnteriores = tokenRepository.deleteByUsuarioId(usuario.getId());
+        if (tokensAnteriores > 0) {
+            logger.debug("Eliminados {} tokens anteriores del usuario ID: {}", tokensAnteriores, usuario.getId());
         }
 
         // Generar código OTP de 6 dígitos
@@ -77,17 +115,17 @@ public class PasswordResetService {
         // Crear token con expiración de 15 minutos
         PasswordResetToken token = new PasswordResetToken();
         token.setUsuario(usuario);
-        token.setCodigoOtp(codigoOtp);
+        token.setCodigoHash(hashCodigo(usuario.getEmail(), codigoOtp));
         token.setFechaExpiracion(LocalDateTime.now().plusMinutes(15));
         token.setUsado(false);
 
         tokenRepository.save(token);
-        logger.info("Código OTP generado exitosamente para usuario ID: {}", usuario.getId());
+        logger.debug("Código OTP generado exitosamente para usuario ID: {}", usuario.getId());
 
         // Enviar email con el código OTP
         try {
             emailService.enviarCodigoOTP(email, usuario.getNombreCompleto(), codigoOtp);
-            logger.info("Email de recuperación enviado exitosamente a: {}", email);
+            logger.debug("Email de recuperación encolado para: {}", email);
         } catch (Exception e) {
             logger.error("Error al enviar email de recuperación a {}: {}", email, e.getMessage());
             // NO lanzar excepción hacia el controller - mantener respuesta genérica
@@ -95,15 +133,33 @@ public class PasswordResetService {
     }
 
     /**
-     * Valida el código OTP y cambia la contraseña
+     * Valida el código OTP del email y cambia la contraseña.
+     * Cada validación cuenta como intento antes de comparar el código; al llegar al máximo
+     * el código deja de servir aunque sea correcto. Los rechazos confirman la transacción
+     * para que el intento quede registrado.
      */
-    public void resetearPassword(String codigoOtp, String nuevaPassword) {
-        logger.info("Intento de reseteo de contraseña con código OTP");
+    @Transactional(dontRollbackOn = {BadRequestException.class, ExpiredTokenException.class})
+    public void resetearPassword(String email, String codigoOtp, String nuevaPassword) {
+        logger.debug("Intento de reseteo de contraseña con código OTP");
 
-        PasswordResetToken token = tokenRepository.findByCodigoOtpAndUsadoFalse(codigoOtp)
+        Usuario usuarioSolicitante = usuarioRepository.findByEmail(email.trim())
                 .orElseThrow(() -> {
-                    logger.warn("Intento de uso de código OTP inválido o ya utilizado");
-                    return new RuntimeException("Código OTP inválido o ya utilizado");
+                    logger.warn("Intento de uso de código OTP para email no registrado");
+                    return codigoInvalido();
+                });
+
+        if (tokenRepository.registrarIntento(usuarioSolicitante.getId(), maxIntentos) == 0) {
+            logger.warn("SECURITY: Código OTP sin intentos disponibles o inexistente para usuario ID: {}",
+                    usuarioSolicitante.getId());
+            throw codigoInvalido();
+        }
+
+        PasswordResetToken token = tokenRepository.findByCodigoHash(hashCodigo(usuarioSolicitante.getEmail(), codigoOtp))
+                .filter(t -> !t.getUsado())
+                .orElseThrow(() -> {
+                    logger.warn("Intento de uso de código OTP inválido o ya utilizado para usuario ID: {}",
+                            usuarioSolicitante.getId());
+                    return codigoInvalido();
                 });
 
         // Verificar que no haya expirado
@@ -128,13 +184,35 @@ public class PasswordResetService {
                 usuario.getEmail(),
                 usuario.getNombreCompleto()
             );
-            logger.info("Email de confirmación de cambio de contraseña enviado a: {}", usuario.getEmail());
+            logger.debug("Email de confirmación de cambio de contraseña encolado para: {}", usuario.getEmail());
         } catch (Exception e) {
             logger.error("Error al enviar email de confirmación de cambio de contraseña a {}: {}", usuario.getEmail(), e.getMessage());
             // No interrumpimos el proceso si falla el email
         }
     }
 
+    private static BadRequestException codigoInvalido() {
+        return new BadRequestException("Código OTP inválido o ya utilizado");
+    }
+
+    /**
+     * HMAC-SHA256 del email (sin distinguir mayúsculas) y el código, en hexadecimal.
+     * Sin la clave no se puede recorrer el millón de códigos posibles con los hashes de la base.
+     */
+    private String hashCodigo(String email, String codigoOtp) {
+        return HexFormat.of().formatHex(hmac(claveCodigos, email.toLowerCase(Locale.ROOT) + ":" + codigoOtp));
+    }
+
+    private static byte[] hmac(byte[] clave, String mensaje) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(clave, "HmacSHA256"));
+            return mac.doFinal(mensaje.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    }
+
     /**
      * Genera un código OTP de 6 dígitos aleatorio
      */
@@ -145,14 +223,21 @@ public class PasswordResetService {
 
     /**
      * Limpia tokens expirados automáticamente cada hora
-     * Se ejecuta a los 0 minutos de cada hora
+     * Se ejecuta a los 0 minutos de cada hora. Borra por idx_reset_expiracion en lotes,
+     * cada uno en su propia transacción, para no bloquear la tabla mientras dura la purga
      */
     @Scheduled(cron = "0 0 * * * *")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void limpiarTokensExpirados() {
         try {
             LocalDateTime ahora = LocalDateTime.now();
-            tokenRepository.deleteByFechaExpiracionBefore(ahora);
-            logger.info("Limpieza automática ejecutada: Tokens OTP expirados eliminados");
+            int total = 0;
+            int eliminados;
+            do {
+                eliminados = transactionTemplate.execute(status -> tokenRepository.deleteLoteExpirados(ahora, purgaLote));
+                total += eliminados;
+            } while (eliminados == purgaLote);
+            logger.info("Limpieza automática ejecutada: {} tokens OTP expirados eliminados", total);
         } catch (Exception e) {
             logger.error("Error en limpieza automática de tokens OTP: {}", e.getMessage(), e);
         }
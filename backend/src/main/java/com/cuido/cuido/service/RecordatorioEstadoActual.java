@@ -0,0 +1,20 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.model.RecordatorioInstancia.TipoRecordatorio;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de un recordatorio con los datos necesarios para ajustar la adherencia,
+ * sin cargar la entidad ni sus relaciones
+ */
+public record RecordatorioEstadoActual(
+    Long id,
+    Long pacienteId,
+    TipoRecordatorio tipo,
+    Long referenciaId,
+    LocalDateTime fechaHora,
+    EstadoRecordatorio estado
+) {
+}
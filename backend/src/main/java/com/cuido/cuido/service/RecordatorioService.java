@@ -1,22 +1,40 @@
 package com.cuido.cuido.service;
 
+import com.cuido.cuido.concurrencia.ReintentarConflictos;
+import com.cuido.cuido.dto.response.ActualizacionEstadoMasivaResponseDTO;
 import com.cuido.cuido.dto.response.RecordatorioResponseDTO;
 import com.cuido.cuido.exception.BadRequestException;
+import com.cuido.cuido.exception.ConflictoEdicionException;
 import com.cuido.cuido.exception.ResourceNotFoundException;
 import com.cuido.cuido.model.CitaMedica;
 import com.cuido.cuido.model.Medicamento;
+import com.cuido.cuido.model.RecordatorioArchivado;
 import com.cuido.cuido.model.RecordatorioInstancia;
-import com.cuido.cuido.repository.CitaMedicaRepository;
-import com.cuido.cuido.repository.MedicamentoRepository;
+import com.cuido.cuido.model.Usuario;
+import com.cuido.cuido.repository.RecordatorioArchivadoRepository;
 import com.cuido.cuido.repository.RecordatorioInstanciaRepository;
+import com.cuido.cuido.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,13 +42,21 @@ import java.util.stream.Collectors;
 public class RecordatorioService {
 
     private final RecordatorioInstanciaRepository recordatorioInstanciaRepository;
-    private final MedicamentoRepository medicamentoRepository;
-    private final CitaMedicaRepository citaMedicaRepository;
     private final AuthorizationService authorizationService;
+    private final AdherenciaService adherenciaService;
+    private final TransactionTemplate transactionTemplate;
+    private final RecordatorioArchivadoRepository recordatorioArchivadoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ArchivoRecordatoriosService archivoRecordatoriosService;
+    private final EntityManager entityManager;
+
+    @Value("${app.recordatorios.borrado-lote:5000}")
+    private int borradoLote;
 
     /**
      * Obtiene todos los recordatorios de un paciente
      */
+    @Transactional(readOnly = true)
     public List<RecordatorioResponseDTO> obtenerRecordatoriosPorPaciente(Long pacienteId) {
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         ////authorizationService.validarAccesoAPaciente(pacienteId);
@@ -38,14 +64,13 @@ public class RecordatorioService {
         List<RecordatorioInstancia> recordatorios = recordatorioInstanciaRepository
             .findByPacienteIdOrderByFechaHoraAsc(pacienteId);
 
-        return recordatorios.stream()
-            .map(this::mapToResponseDTO)
-            .collect(Collectors.toList());
+        return combinarConArchivo(recordatorios, archivoRecordatoriosService.buscarArchivados(pacienteId));
     }
 
     /**
      * Obtiene los recordatorios de un paciente para un día específico
      */
+    @Transactional(readOnly = true)
     public List<RecordatorioResponseDTO> obtenerRecordatoriosDelDia(Long pacienteId, LocalDate fecha) {
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         ////authorizationService.validarAccesoAPaciente(pacienteId);
@@ -56,14 +81,16 @@ public class RecordatorioService {
         List<RecordatorioInstancia> recordatorios = recordatorioInstanciaRepository
             .findRecordatoriosDelDia(pacienteId, inicioDelDia, finDelDia);
 
-        return recordatorios.stream()
-            .map(this::mapToResponseDTO)
-            .collect(Collectors.toList());
+        return combinarConArchivo(
+            recordatorios,
+            archivoRecordatoriosService.buscarArchivados(pacienteId, inicioDelDia, finDelDia)
+        );
     }
 
     /**
      * Obtiene los recordatorios de un rango de fechas
      */
+    @Transactional(readOnly = true)
     public List<RecordatorioResponseDTO> obtenerRecordatoriosPorRango(
         Long pacienteId,
         LocalDateTime fechaInicio,
@@ -75,14 +102,16 @@ public class RecordatorioService {
         List<RecordatorioInstancia> recordatorios = recordatorioInstanciaRepository
             .findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc(pacienteId, fechaInicio, fechaFin);
 
-        return recordatorios.stream()
-            .map(this::mapToResponseDTO)
-            .collect(Collectors.toList());
+        return combinarConArchivo(
+            recordatorios,
+            archivoRecordatoriosService.buscarArchivados(pacienteId, fechaInicio, fechaFin)
+        );
     }
 
     /**
      * Obtiene los recordatorios pendientes de un paciente
      */
+    @Transactional(readOnly = true)
     public List<RecordatorioResponseDTO> obtenerRecordatoriosPendientes(Long pacienteId) {
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         ////authorizationService.validarAccesoAPaciente(pacienteId);
@@ -93,69 +122,152 @@ public class RecordatorioService {
                 RecordatorioInstancia.EstadoRecordatorio.PENDIENTE
             );
 
+        Referencias referencias = cargarReferencias(recordatorios, List.of());
         return recordatorios.stream()
-            .map(this::mapToResponseDTO)
+            .map(recordatorio -> mapToResponseDTO(recordatorio, referencias))
             .collect(Collectors.toList());
     }
 
     /**
-     * Actualiza el estado de un recordatorio (ciclo: PENDIENTE -> COMPLETADO -> CANCELADO -> PENDIENTE)
+     * Fija el estado de un recordatorio. Es idempotente: si ya tiene ese estado no se
+     * escribe nada, así dos cuidadores que marcan lo mismo no generan un conflicto
      */
+    @ReintentarConflictos
     @Transactional
     public RecordatorioResponseDTO actualizarEstadoRecordatorio(Long recordatorioId, String nuevoEstado) {
+        RecordatorioInstancia.EstadoRecordatorio estado = convertirEstado(nuevoEstado);
         RecordatorioInstancia recordatorio = recordatorioInstanciaRepository.findById(recordatorioId)
             .orElseThrow(() -> new ResourceNotFoundException("Recordatorio no encontrado"));
 
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         ////authorizationService.validarAccesoAPaciente(recordatorio.getPaciente().getId());
 
-        try {
-            RecordatorioInstancia.EstadoRecordatorio estado =
-                RecordatorioInstancia.EstadoRecordatorio.valueOf(nuevoEstado.toUpperCase());
-            recordatorio.setEstado(estado);
-        } catch (IllegalArgumentException e) {
-            throw new BadRequestException("Estado inválido: " + nuevoEstado);
+        RecordatorioInstancia.EstadoRecordatorio estadoAnterior = recordatorio.getEstado();
+        if (estadoAnterior == estado) {
+            return mapToResponseDTO(recordatorio);
         }
+        recordatorio.setEstado(estado);
 
         RecordatorioInstancia recordatorioActualizado = recordatorioInstanciaRepository.save(recordatorio);
+        adherenciaService.registrarCambioEstado(recordatorioActualizado, estadoAnterior);
         return mapToResponseDTO(recordatorioActualizado);
     }
 
     /**
-     * Cambia el estado del recordatorio de forma cíclica
+     * Actualiza el estado de varios recordatorios con una sola sentencia.
+     * Los que ya tienen el estado pedido quedan SIN_CAMBIOS y los ids inexistentes NO_ENCONTRADO.
+     */
+    @Transactional
+    public ActualizacionEstadoMasivaResponseDTO actualizarEstadoRecordatorios(List<Long> ids, String nuevoEstado) {
+        RecordatorioInstancia.EstadoRecordatorio estado = convertirEstado(nuevoEstado);
+
+        Set<Long> idsUnicos = new LinkedHashSet<>(ids);
+
+        // Mismo orden de bloqueo que el detector de omitidas: primero la marca, luego los recordatorios
+        adherenciaService.bloquearMarca();
+        Map<Long, RecordatorioEstadoActual> actuales = recordatorioInstanciaRepository
+            .findEstadosParaActualizar(idsUnicos).stream()
+            .collect(Collectors.toMap(RecordatorioEstadoActual::id, Function.identity()));
+
+        // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
+        ////actuales.values().forEach(r -> authorizationService.validarAccesoAPaciente(r.pacienteId()));
+
+        List<RecordatorioEstadoActual> aCambiar = actuales.values().stream()
+            .filter(r -> r.estado() != estado)
+            .collect(Collectors.toList());
+
+        if (!aCambiar.isEmpty()) {
+            recordatorioInstanciaRepository.actualizarEstado(
+                aCambiar.stream().map(RecordatorioEstadoActual::id).collect(Collectors.toList()),
+                estado,
+                LocalDateTime.now()
+            );
+            adherenciaService.registrarCambiosEstado(aCambiar, estado);
+        }
+
+        List<ActualizacionEstadoMasivaResponseDTO.ResultadoDTO> resultados = new ArrayList<>();
+        for (Long id : idsUnicos) {
+            RecordatorioEstadoActual actual = actuales.get(id);
+            String resultado = actual == null ? "NO_ENCONTRADO"
+                : actual.estado() == estado ? "SIN_CAMBIOS"
+                : "ACTUALIZADO";
+            resultados.add(ActualizacionEstadoMasivaResponseDTO.ResultadoDTO.builder()
+                .id(id)
+                .resultado(resultado)
+                .estadoAnterior(actual != null ? actual.estado().name() : null)
+                .build());
+        }
+
+        return ActualizacionEstadoMasivaResponseDTO.builder()
+            .estado(estado.name())
+            .actualizados(aCambiar.size())
+            .sinCambios(actuales.size() - aCambiar.size())
+            .noEncontrados(idsUnicos.size() - actuales.size())
+            .resultados(resultados)
+            .build();
+    }
+
+    /**
+     * Cambia el estado del recordatorio de forma cíclica.
+     *
+     * Con estadoVisto (el estado que mostraba el cliente) el cambio es idempotente: se pasa
+     * al siguiente de ese estado, si el recordatorio ya está en él no se escribe nada y si
+     * otro lo movió a un tercer estado se rechaza con conflicto. Sin estadoVisto se cicla
+     * desde el estado actual; ante un conflicto de versión se reintenta sobre el estado nuevo.
      */
+    @ReintentarConflictos
     @Transactional
-    public RecordatorioResponseDTO ciclarEstadoRecordatorio(Long recordatorioId) {
+    public RecordatorioResponseDTO ciclarEstadoRecordatorio(Long recordatorioId, String estadoVisto) {
+        RecordatorioInstancia.EstadoRecordatorio visto = estadoVisto != null ? convertirEstado(estadoVisto) : null;
         RecordatorioInstancia recordatorio = recordatorioInstanciaRepository.findById(recordatorioId)
             .orElseThrow(() -> new ResourceNotFoundException("Recordatorio no encontrado"));
 
         // VALIDAR ACCESO: Solo el paciente o sus cuidadores autorizados
         //.validarAccesoAPaciente(recordatorio.getPaciente().getId());
 
-        // Ciclo: PENDIENTE -> COMPLETADO -> CANCELADO -> PENDIENTE
         RecordatorioInstancia.EstadoRecordatorio estadoActual = recordatorio.getEstado();
-        RecordatorioInstancia.EstadoRecordatorio nuevoEstado;
-
-        switch (estadoActual) {
-            case PENDIENTE:
-                nuevoEstado = RecordatorioInstancia.EstadoRecordatorio.COMPLETADO;
-                break;
-            case COMPLETADO:
-                nuevoEstado = RecordatorioInstancia.EstadoRecordatorio.CANCELADO;
-                break;
-            case CANCELADO:
-                nuevoEstado = RecordatorioInstancia.EstadoRecordatorio.PENDIENTE;
-                break;
-            default:
-                nuevoEstado = RecordatorioInstancia.EstadoRecordatorio.PENDIENTE;
+        RecordatorioInstancia.EstadoRecordatorio nuevoEstado = siguienteEstado(visto != null ? visto : estadoActual);
+
+        if (visto != null && estadoActual != visto) {
+            if (estadoActual == nuevoEstado) {
+                // Reintento del cliente u otro cuidador que hizo el mismo cambio
+                return mapToResponseDTO(recordatorio);
+            }
+            throw new ConflictoEdicionException("El recordatorio cambió a " + estadoActual + " mientras se editaba");
         }
 
         recordatorio.setEstado(nuevoEstado);
         RecordatorioInstancia recordatorioActualizado = recordatorioInstanciaRepository.save(recordatorio);
+        adherenciaService.registrarCambioEstado(recordatorioActualizado, estadoActual);
 
         return mapToResponseDTO(recordatorioActualizado);
     }
 
+    /**
+     * Ciclo: PENDIENTE -> COMPLETADO -> CANCELADO -> PENDIENTE (OMITIDO -> COMPLETADO)
+     */
+    private static RecordatorioInstancia.EstadoRecordatorio siguienteEstado(RecordatorioInstancia.EstadoRecordatorio estado) {
+        switch (estado) {
+            case PENDIENTE:
+                return RecordatorioInstancia.EstadoRecordatorio.COMPLETADO;
+            case COMPLETADO:
+                return RecordatorioInstancia.EstadoRecordatorio.CANCELADO;
+            case OMITIDO:
+                // Dosis tomada tarde: se registra como completada
+                return RecordatorioInstancia.EstadoRecordatorio.COMPLETADO;
+            default:
+                return RecordatorioInstancia.EstadoRecordatorio.PENDIENTE;
+        }
+    }
+
+    private static RecordatorioInstancia.EstadoRecordatorio convertirEstado(String estado) {
+        try {
+            return RecordatorioInstancia.EstadoRecordatorio.valueOf(estado.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Estado inválido: " + estado);
+        }
+    }
+
     /**
      * Elimina un recordatorio individual (instancia)
      */
@@ -167,13 +279,70 @@ public class RecordatorioService {
         // VALIDAR ACCESO: Solo cuidadores autorizados pueden eliminar recordatorios
         ////authorizationService.validarAccesoAPaciente(recordatorio.getPaciente().getId());
 
+        adherenciaService.registrarEliminacion(recordatorio);
         recordatorioInstanciaRepository.delete(recordatorio);
     }
 
     /**
-     * Mapea una instancia de recordatorio a DTO con información enriquecida
+     * Elimina los recordatorios de un medicamento o cita en lotes, cada uno en su
+     * propia transacción, para no retener bloqueos sobre miles de filas a la vez.
+     * Debe llamarse fuera de una transacción; dentro de una, los lotes se unen a ella.
+     *
+     * @return cantidad de recordatorios eliminados
      */
+    public int eliminarRecordatoriosEnLotes(RecordatorioInstancia.TipoRecordatorio tipo, Long referenciaId) {
+        int total = 0;
+        int eliminados;
+        do {
+            eliminados = transactionTemplate.execute(status ->
+                recordatorioInstanciaRepository.deleteLoteByTipoAndReferenciaId(tipo.name(), referenciaId, borradoLote)
+            );
+            total += eliminados;
+        } while (eliminados == borradoLote);
+
+        // Historial archivado
+        do {
+            eliminados = transactionTemplate.execute(status ->
+                recordatorioArchivadoRepository.deleteLoteByTipoAndReferenciaId(tipo.name(), referenciaId, borradoLote)
+            );
+            total += eliminados;
+        } while (eliminados == borradoLote);
+        return total;
+    }
+
+    /**
+     * Une los recordatorios activos con los archivados del mismo rango, ordenados por fecha
+     */
+    private List<RecordatorioResponseDTO> combinarConArchivo(
+        List<RecordatorioInstancia> recordatorios,
+        List<RecordatorioArchivado> archivados
+    ) {
+        Referencias referencias = cargarReferencias(recordatorios, archivados);
+        List<RecordatorioResponseDTO> resultado = recordatorios.stream()
+            .map(recordatorio -> mapToResponseDTO(recordatorio, referencias))
+            .collect(Collectors.toCollection(ArrayList::new));
+
+        if (archivados.isEmpty()) {
+            return resultado;
+        }
+
+        String pacienteNombre = usuarioRepository.findById(archivados.get(0).getPacienteId())
+            .map(Usuario::getNombreCompleto)
+            .orElse(null);
+        archivados.forEach(archivado -> resultado.add(mapArchivadoToResponseDTO(archivado, pacienteNombre, referencias)));
+        resultado.sort(Comparator.comparing(RecordatorioResponseDTO::getFechaHora));
+        return resultado;
+    }
+
     private RecordatorioResponseDTO mapToResponseDTO(RecordatorioInstancia recordatorio) {
+        return mapToResponseDTO(recordatorio, cargarReferencias(List.of(recordatorio), List.of()));
+    }
+
+    /**
+     * Mapea una instancia de recordatorio a DTO con información enriquecida.
+     * Visible en el paquete para los benchmarks de src/jmh.
+     */
+    RecordatorioResponseDTO mapToResponseDTO(RecordatorioInstancia recordatorio, Referencias referencias) {
         RecordatorioResponseDTO.RecordatorioResponseDTOBuilder builder = RecordatorioResponseDTO.builder()
             .id(recordatorio.getId())
             .tipo(recordatorio.getTipo().name())
@@ -185,21 +354,103 @@ public class RecordatorioService {
             .descripcion(recordatorio.getDescripcion())
             .observaciones(recordatorio.getObservaciones());
 
-        // Enriquecer con información específica según el tipo
-        if (recordatorio.getTipo() == RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO) {
-            medicamentoRepository.findById(recordatorio.getReferenciaId()).ifPresent(medicamento -> {
+        enriquecer(builder, recordatorio.getTipo(), recordatorio.getReferenciaId(), referencias);
+        return builder.build();
+    }
+
+    private RecordatorioResponseDTO mapArchivadoToResponseDTO(
+        RecordatorioArchivado recordatorio,
+        String pacienteNombre,
+        Referencias referencias
+    ) {
+        RecordatorioResponseDTO.RecordatorioResponseDTOBuilder builder = RecordatorioResponseDTO.builder()
+            .id(recordatorio.getId())
+            .tipo(recordatorio.getTipo().name())
+            .referenciaId(recordatorio.getReferenciaId())
+            .pacienteId(recordatorio.getPacienteId())
+            .pacienteNombre(pacienteNombre)
+            .fechaHora(recordatorio.getFechaHora())
+            .estado(recordatorio.getEstado().name())
+            .descripcion(recordatorio.getDescripcion())
+            .observaciones(recordatorio.getObservaciones());
+
+        enriquecer(builder, recordatorio.getTipo(), recordatorio.getReferenciaId(), referencias);
+        return builder.build();
+    }
+
+    /**
+     * Carga con una consulta por tipo como máximo los medicamentos y citas de una lista de recordatorios,
+     * en lugar de una búsqueda por recordatorio
+     */
+    private Referencias cargarReferencias(
+        List<RecordatorioInstancia> recordatorios,
+        List<RecordatorioArchivado> archivados
+    ) {
+        Set<Long> medicamentoIds = new HashSet<>();
+        Set<Long> citaIds = new HashSet<>();
+        recordatorios.forEach(r -> agregarReferencia(r.getTipo(), r.getReferenciaId(), medicamentoIds, citaIds));
+        archivados.forEach(r -> agregarReferencia(r.getTipo(), r.getReferenciaId(), medicamentoIds, citaIds));
+
+        return new Referencias(
+            cargarPorIds(Medicamento.class, medicamentoIds, Medicamento::getId),
+            cargarPorIds(CitaMedica.class, citaIds, CitaMedica::getId)
+        );
+    }
+
+    /**
+     * multiLoad busca primero en la caché de segundo nivel (solo si se indica el CacheMode)
+     * y consulta la base por los ids que faltan, todos en la misma sentencia
+     */
+    private <T> Map<Long, T> cargarPorIds(Class<T> entidad, Set<Long> ids, Function<T, Long> id) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return entityManager.unwrap(Session.class).byMultipleIds(entidad)
+            .with(CacheMode.NORMAL)
+            .multiLoad(new ArrayList<>(ids)).stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private void agregarReferencia(
+        RecordatorioInstancia.TipoRecordatorio tipo,
+        Long referenciaId,
+        Set<Long> medicamentoIds,
+        Set<Long> citaIds
+    ) {
+        if (tipo == RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO) {
+            medicamentoIds.add(referenciaId);
+        } else if (tipo == RecordatorioInstancia.TipoRecordatorio.CITA_MEDICA) {
+            citaIds.add(referenciaId);
+        }
+    }
+
+    /**
+     * Enriquece con información específica según el tipo
+     */
+    private void enriquecer(
+        RecordatorioResponseDTO.RecordatorioResponseDTOBuilder builder,
+        RecordatorioInstancia.TipoRecordatorio tipo,
+        Long referenciaId,
+        Referencias referencias
+    ) {
+        if (tipo == RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO) {
+            Medicamento medicamento = referencias.medicamentos().get(referenciaId);
+            if (medicamento != null) {
                 builder.nombreMedicamento(medicamento.getNombre());
                 builder.dosis(medicamento.getDosis());
-            });
-        } else if (recordatorio.getTipo() == RecordatorioInstancia.TipoRecordatorio.CITA_MEDICA) {
-            citaMedicaRepository.findById(recordatorio.getReferenciaId()).ifPresent(cita -> {
+            }
+        } else if (tipo == RecordatorioInstancia.TipoRecordatorio.CITA_MEDICA) {
+            CitaMedica cita = referencias.citas().get(referenciaId);
+            if (cita != null) {
                 builder.ubicacion(cita.getUbicacion());
                 builder.nombreDoctor(cita.getNombreDoctor());
                 builder.especialidad(cita.getEspecialidad());
                 builder.motivo(cita.getMotivo());
-            });
+            }
         }
+    }
 
-        return builder.build();
+    record Referencias(Map<Long, Medicamento> medicamentos, Map<Long, CitaMedica> citas) {
     }
 }
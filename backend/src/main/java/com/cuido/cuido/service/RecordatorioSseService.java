@@ -0,0 +1,66 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.scheduler.RecordatorioDisparadoEvent;
+import com.cuido.cuido.scheduler.RecordatorioProgramado;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Canal SSE: envía a los clientes suscriptos los recordatorios que vencen para un paciente
+ */
+@Service
+public class RecordatorioSseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordatorioSseService.class);
+
+    // 30 minutos; el cliente se reconecta automáticamente al expirar
+    private static final long TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final Map<Long, List<SseEmitter>> emisoresPorPaciente = new ConcurrentHashMap<>();
+
+    /**
+     * Registra un nuevo suscriptor para los recordatorios del paciente
+     */
+    public SseEmitter suscribir(Long pacienteId) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+        List<SseEmitter> emisores = emisoresPorPaciente.computeIfAbsent(pacienteId, k -> new CopyOnWriteArrayList<>());
+        emisores.add(emitter);
+
+        Runnable quitar = () -> emisores.remove(emitter);
+        emitter.onCompletion(quitar);
+        emitter.onTimeout(quitar);
+        emitter.onError(e -> quitar.run());
+
+        return emitter;
+    }
+
+    @EventListener
+    public void onRecordatorioDisparado(RecordatorioDisparadoEvent evento) {
+        RecordatorioProgramado recordatorio = evento.recordatorio();
+        List<SseEmitter> emisores = emisoresPorPaciente.get(recordatorio.pacienteId());
+        if (emisores == null || emisores.isEmpty()) {
+            return;
+        }
+
+        for (SseEmitter emitter : emisores) {
+            try {
+                emitter.send(SseEmitter.event()
+                    .name("recordatorio")
+                    .id(recordatorio.id().toString())
+                    .data(recordatorio));
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Suscriptor SSE desconectado - Paciente ID: {}", recordatorio.pacienteId());
+                emisores.remove(emitter);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.cuido.cuido.service;
 
+import com.cuido.cuido.concurrencia.ReintentarConflictos;
 import com.cuido.cuido.dto.request.TareaRequestDTO;
 import com.cuido.cuido.dto.response.TareaResponseDTO;
 import com.cuido.cuido.model.Tarea;
@@ -143,8 +144,31 @@ public class TareaService {
     }
 
     /**
-     * Toggle completada
+     * Marcar como completada o pendiente. Si la tarea ya tiene ese estado no se escribe nada
      */
+    @ReintentarConflictos
+    @Transactional
+    public TareaResponseDTO marcarCompletada(Long tareaId, boolean completada) {
+        Tarea tarea = tareaRepository.findById(tareaId)
+            .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
+
+        // VALIDAR ACCESO: Solo cuidadores autorizados pueden cambiar estado
+        ////authorizationService.validarAccesoAPaciente(tarea.getPaciente().getId());
+
+        if (tarea.getCompletada() == completada) {
+            return convertirADTO(tarea);
+        }
+        tarea.setCompletada(completada);
+
+        tarea = tareaRepository.save(tarea);
+        return convertirADTO(tarea);
+    }
+
+    /**
+     * Toggle completada. Ante un conflicto se reintenta sobre el estado ya confirmado,
+     * como si los dos toques hubieran llegado uno después del otro
+     */
+    @ReintentarConflictos
     @Transactional
     public TareaResponseDTO toggleCompletada(Long tareaId) {
         Tarea tarea = tareaRepository.findById(tareaId)
@@ -162,6 +186,7 @@ public class TareaService {
     /**
      * Mover tarea arriba (disminuir orden manual)
      */
+    @ReintentarConflictos
     @Transactional
     public void moverTareaArriba(Long tareaId) {
         Tarea tarea = tareaRepository.findById(tareaId)
@@ -197,6 +222,7 @@ public class TareaService {
     /**
      * Mover tarea abajo (aumentar orden manual)
      */
+    @ReintentarConflictos
     @Transactional
     public void moverTareaAbajo(Long tareaId) {
         Tarea tarea = tareaRepository.findById(tareaId)
@@ -232,6 +258,7 @@ public class TareaService {
     /**
      * Eliminar tarea
      */
+    @ReintentarConflictos
     @Transactional
     public void eliminarTarea(Long tareaId) {
         Tarea tarea = tareaRepository.findById(tareaId)
@@ -11,6 +11,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -19,11 +20,14 @@ public class UsuarioService {
 
 	private final UsuarioRepository usuarioRepository;
 	private final PasswordEncoder passwordEncoder;
+	private final VersionRecursoService versionRecursoService;
 
 	@Autowired
-	public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+	public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder,
+			VersionRecursoService versionRecursoService) {
 		this.usuarioRepository = usuarioRepository;
 		this.passwordEncoder = passwordEncoder;
+		this.versionRecursoService = versionRecursoService;
 	}
 
 	public List<UsuarioResponseDTO> getTodosLosUsuarios() {
@@ -42,6 +46,13 @@ public class UsuarioService {
 		Usuario usuario = usuarioRepository.findById(id)
 				.orElseThrow(() -> new UsuarioNotFoundException("Usuario no encontrado con id: " + id));
 
+		// El nombre y la fecha de nacimiento aparecen en perfiles, medicamentos y documentos;
+		// el resto de los datos no se ve en ningún recurso con ETag
+		if (!Objects.equals(usuario.getNombreCompleto(), dto.getNombreCompleto())
+				|| !Objects.equals(usuario.getFechaNacimiento(), dto.getFechaNacimiento())) {
+			versionRecursoService.incrementarUsuario(id);
+		}
+
 		usuario.setNombreCompleto(dto.getNombreCompleto());
 		usuario.setDireccion(dto.getDireccion());
 		usuario.setTelefono(dto.getTelefono());
@@ -55,6 +66,8 @@ public class UsuarioService {
 		if (!usuarioRepository.existsById(id)) {
 			throw new UsuarioNotFoundException("Usuario no encontrado con id: " + id);
 		}
+		// Antes de borrar: los medicamentos y documentos que cargó identifican a sus pacientes
+		versionRecursoService.incrementarUsuario(id);
 		usuarioRepository.deleteById(id);
 	}
 
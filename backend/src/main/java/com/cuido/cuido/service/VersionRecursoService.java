@@ -0,0 +1,126 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.model.VersionRecurso;
+import com.cuido.cuido.repository.DocumentoRepository;
+import com.cuido.cuido.repository.MedicamentoRepository;
+import com.cuido.cuido.repository.VersionRecursoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Versiones por paciente y recurso para las respuestas con ETag.
+ *
+ * Las versiones viven en la tabla versiones_recurso, compartida por todas las
+ * instancias. Los métodos de escritura aumentan la versión del recurso que
+ * modifican dentro de su propia transacción, así la versión nueva se confirma
+ * junto con los datos. Los GET arman el ETag con una lectura por clave primaria
+ * antes de cargar los datos: nunca asocian una versión con datos anteriores a ella,
+ * tampoco desde la réplica, que aplica ambas escrituras a la vez.
+ *
+ * Perfil, medicamentos y documentos muestran nombres de usuarios. Un cambio en esos datos
+ * aumenta la fila USUARIOS de cada paciente que los muestra, que entra en el ETag de
+ * esos tres recursos.
+ *
+ * Las entidades de la caché de segundo nivel (Usuario, Paciente, Medicamento) son propias
+ * de cada instancia: otra instancia puede seguir sirviendo la entidad anterior hasta que
+ * venza. Mientras tanto el recurso que las usa se responde sin ETag, para que el cliente
+ * no guarde datos viejos con la versión nueva.
+ */
+@Service
+public class VersionRecursoService {
+
+    public enum Recurso {
+        PERFIL,
+        CONTACTOS,
+        MEDICAMENTOS,
+        DOCUMENTOS
+    }
+
+    // Nombres y fechas de nacimiento de los usuarios que se ven en los recursos del paciente
+    private static final String USUARIOS = "USUARIOS";
+
+    private static final Set<Recurso> MUESTRAN_USUARIOS =
+        EnumSet.of(Recurso.PERFIL, Recurso.MEDICAMENTOS, Recurso.DOCUMENTOS);
+
+    // Recursos armados con Paciente o Medicamento, que están en la caché de segundo nivel
+    private static final Set<Recurso> EN_CACHE = EnumSet.of(Recurso.PERFIL, Recurso.MEDICAMENTOS);
+
+    private final VersionRecursoRepository versionRecursoRepository;
+    private final MedicamentoRepository medicamentoRepository;
+    private final DocumentoRepository documentoRepository;
+
+    @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:false}")
+    private boolean cacheHabilitada;
+
+    @Value("${app.etag.cache-ttl-ms:600000}")
+    private long cacheTtlMillis;
+
+    public VersionRecursoService(
+            VersionRecursoRepository versionRecursoRepository,
+            MedicamentoRepository medicamentoRepository,
+            DocumentoRepository documentoRepository
+    ) {
+        this.versionRecursoRepository = versionRecursoRepository;
+        this.medicamentoRepository = medicamentoRepository;
+        this.documentoRepository = documentoRepository;
+    }
+
+    /**
+     * ETag fuerte del recurso del paciente (id de usuario), o null si no debe usarse
+     */
+    @Transactional(readOnly = true)
+    public String etag(Recurso recurso, Long pacienteId) {
+        List<String> filas = MUESTRAN_USUARIOS.contains(recurso)
+            ? List.of(recurso.name(), USUARIOS)
+            : List.of(recurso.name());
+        long numero = 0;
+        long usuarios = 0;
+        for (VersionRecurso version : versionRecursoRepository.findParaEtag(filas, pacienteId)) {
+            // Los usuarios siempre salen de la caché; el recurso, según cómo se arme
+            boolean esUsuarios = USUARIOS.equals(version.getRecurso());
+            if (esUsuarios) {
+                usuarios = version.getNumero();
+            } else {
+                numero = version.getNumero();
+            }
+            if ((esUsuarios || EN_CACHE.contains(recurso)) && enCacheDeOtraInstancia(version)) {
+                return null;
+            }
+        }
+        return "\"" + usuarios + "-" + numero + "\"";
+    }
+
+    /**
+     * Registra que el recurso del paciente cambió, dentro de la transacción que lo modifica
+     */
+    @Transactional
+    public void incrementar(Recurso recurso, Long pacienteId) {
+        versionRecursoRepository.incrementar(recurso.name(), pacienteId, LocalDateTime.now());
+    }
+
+    /**
+     * Registra que cambió el nombre o la fecha de nacimiento de un usuario, o que se elimina:
+     * se ven en sus propios recursos y en los medicamentos y documentos que cargó como cuidador
+     */
+    @Transactional
+    public void incrementarUsuario(Long usuarioId) {
+        // Ordenados, para que dos cambios concurrentes bloqueen las filas en el mismo orden
+        Set<Long> pacienteIds = new TreeSet<>(medicamentoRepository.findPacienteIdsByCuidadorId(usuarioId));
+        pacienteIds.addAll(documentoRepository.findPacienteIdsByCuidadorId(usuarioId));
+        pacienteIds.add(usuarioId);
+        LocalDateTime ahora = LocalDateTime.now();
+        pacienteIds.forEach(pacienteId -> versionRecursoRepository.incrementar(USUARIOS, pacienteId, ahora));
+    }
+
+    private boolean enCacheDeOtraInstancia(VersionRecurso version) {
+        return cacheHabilitada && version.getUpdatedAt().isAfter(LocalDateTime.now().minus(cacheTtlMillis, ChronoUnit.MILLIS));
+    }
+}
@@ -0,0 +1,58 @@
+-- Tablas e índices que se agregaron a las entidades después del esquema inicial y que
+-- las bases creadas con ddl-auto=update todavía no tienen:
+-- - adherencia_diaria y job_watermarks: contadores de adherencia y marca de agua del
+--   detector de dosis omitidas
+-- - recordatorios_instancia_archivo: recordatorios viejos que se sacan de la tabla activa
+-- - idx_estado_fecha: búsqueda de recordatorios por estado y antigüedad para archivarlos
+-- El valor OMITIDO del estado se agrega en V7.
+
+create table adherencia_diaria (
+    cancelados integer not null,
+    completados integer not null,
+    fecha date not null,
+    omitidos integer not null,
+    programados integer not null,
+    id bigint not null auto_increment,
+    medicamento_id bigint not null,
+    paciente_id bigint not null,
+    updated_at datetime(6),
+    franja enum ('MADRUGADA','MANANA','NOCHE','TARDE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table job_watermarks (
+    updated_at datetime(6),
+    valor datetime(6) not null,
+    nombre varchar(100) not null,
+    primary key (nombre)
+) engine=InnoDB;
+
+create table recordatorios_instancia_archivo (
+    archivado_at datetime(6) not null,
+    created_at datetime(6),
+    fecha_hora datetime(6) not null,
+    id bigint not null,
+    paciente_id bigint not null,
+    referencia_id bigint not null,
+    updated_at datetime(6),
+    descripcion varchar(500),
+    observaciones TEXT,
+    estado enum ('CANCELADO','COMPLETADO','PENDIENTE'),
+    tipo enum ('CITA_MEDICA','MEDICAMENTO') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_adherencia_paciente_fecha
+   on adherencia_diaria (paciente_id, fecha);
+
+alter table adherencia_diaria
+   add constraint uk_adherencia_clave unique (paciente_id, medicamento_id, fecha, franja);
+
+create index idx_estado_fecha
+   on recordatorios_instancia (estado, fecha_hora);
+
+create index idx_archivo_paciente_fecha
+   on recordatorios_instancia_archivo (paciente_id, fecha_hora);
+
+create index idx_archivo_tipo_referencia
+   on recordatorios_instancia_archivo (tipo, referencia_id);
@@ -0,0 +1,301 @@
+-- Esquema inicial para H2 (modo MySQL): pruebas, perfil de carga y medición de arranque.
+-- Igual que db/migration/mysql/V1 salvo el índice de bitácoras: en H2 los nombres de
+-- índice son únicos en todo el esquema y en MySQL solo dentro de cada tabla.
+
+create table bitacoras (
+    fecha date not null,
+    created_at datetime(6),
+    cuidador_id bigint not null,
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    updated_at datetime(6),
+    sintomas varchar(500),
+    descripcion TEXT not null,
+    observaciones TEXT,
+    titulo varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table citas_medicas (
+    completada bit,
+    recordatorio_enviado bit,
+    created_at datetime(6),
+    cuidador_id bigint not null,
+    fecha_hora datetime(6) not null,
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    updated_at datetime(6),
+    especialidad varchar(100),
+    motivo TEXT,
+    nombre_doctor varchar(255),
+    observaciones TEXT,
+    ubicacion varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table contactos_emergencia (
+    es_contacto_principal bit,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    updated_at datetime(6),
+    telefono varchar(20) not null,
+    relacion varchar(100),
+    nombre varchar(200) not null,
+    email varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table cuidadores_pacientes (
+    es_principal bit,
+    created_at datetime(6) not null,
+    cuidador_id bigint not null,
+    fecha_aceptacion datetime(6),
+    fecha_invitacion datetime(6) not null,
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    updated_at datetime(6),
+    estado enum ('ACEPTADO','PENDIENTE','RECHAZADO') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table documentos (
+    created_at datetime(6) not null,
+    cuidador_id bigint not null,
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    size_bytes bigint not null,
+    updated_at datetime(6),
+    mime_type varchar(100) not null,
+    ruta_archivo varchar(500) not null,
+    descripcion TEXT,
+    nombre varchar(255) not null,
+    categoria_archivo enum ('DOCUMENTO','IMAGEN','VIDEO') not null,
+    tipo enum ('ESTUDIO','FICHA_MEDICA','OTRO','RECETA') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table horarios_medicamento (
+    hora time(6) not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    medicamento_id bigint not null,
+    dias_semana varchar(50),
+    primary key (id)
+) engine=InnoDB;
+
+create table medicamentos (
+    activo bit,
+    fecha_fin date,
+    fecha_inicio date,
+    created_at datetime(6),
+    cuidador_id bigint not null,
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    updated_at datetime(6),
+    dosis varchar(100),
+    frecuencia varchar(100),
+    via_administracion varchar(100),
+    nombre varchar(255) not null,
+    observaciones TEXT,
+    primary key (id)
+) engine=InnoDB;
+
+create table pacientes (
+    altura float(17),
+    peso float(17),
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    usuario_id bigint not null,
+    numero_afiliado varchar(100),
+    alergias TEXT,
+    condiciones_medicas TEXT,
+    notas_importantes TEXT,
+    obra_social varchar(255),
+    tipo_sanguineo varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table password_reset_tokens (
+    usado bit not null,
+    codigo_otp varchar(6) not null,
+    created_at datetime(6) not null,
+    fecha_expiracion datetime(6) not null,
+    id bigint not null auto_increment,
+    usuario_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table recordatorios_instancia (
+    created_at datetime(6),
+    fecha_hora datetime(6) not null,
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    referencia_id bigint not null,
+    updated_at datetime(6),
+    descripcion varchar(500),
+    observaciones TEXT,
+    estado enum ('CANCELADO','COMPLETADO','PENDIENTE'),
+    tipo enum ('CITA_MEDICA','MEDICAMENTO') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table tareas (
+    completada bit not null,
+    orden_manual integer not null,
+    created_at datetime(6) not null,
+    cuidador_id bigint not null,
+    fecha_completada datetime(6),
+    fecha_vencimiento datetime(6),
+    id bigint not null auto_increment,
+    paciente_id bigint not null,
+    updated_at datetime(6),
+    descripcion TEXT,
+    titulo varchar(255) not null,
+    prioridad enum ('ALTA','BAJA','MEDIA') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table usuarios (
+    activo bit not null,
+    fecha_nacimiento date,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6) not null,
+    telefono varchar(20),
+    avatar varchar(255),
+    direccion varchar(255),
+    email varchar(255) not null,
+    nombre_completo varchar(255) not null,
+    password varchar(255) not null,
+    rol enum ('CUIDADOR','PACIENTE'),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_bitacora_paciente_fecha
+   on bitacoras (paciente_id, fecha);
+
+create index idx_paciente_contacto
+   on contactos_emergencia (paciente_id);
+
+create index idx_cuidador
+   on cuidadores_pacientes (cuidador_id);
+
+create index idx_paciente
+   on cuidadores_pacientes (paciente_id);
+
+create index idx_estado
+   on cuidadores_pacientes (estado);
+
+alter table cuidadores_pacientes
+   add constraint UKeivdtd3sby4pu9tc9n3wqkyuv unique (cuidador_id, paciente_id);
+
+create index idx_paciente_tipo
+   on documentos (paciente_id, tipo);
+
+create index idx_paciente_categoria
+   on documentos (paciente_id, categoria_archivo);
+
+create index idx_created_at
+   on documentos (created_at);
+
+alter table pacientes
+   add constraint UK8djq3l2bga12won1nr4uhovlo unique (usuario_id);
+
+create index idx_paciente_fecha
+   on recordatorios_instancia (paciente_id, fecha_hora);
+
+create index idx_tipo_referencia
+   on recordatorios_instancia (tipo, referencia_id);
+
+create index idx_paciente_orden
+   on tareas (paciente_id, orden_manual);
+
+alter table usuarios
+   add constraint UKkfsp0s1tflm1cwlj8idhqsad0 unique (email);
+
+alter table bitacoras
+   add constraint FKaj475phosbebsk3dxv1clk7n4
+   foreign key (cuidador_id)
+   references usuarios (id);
+
+alter table bitacoras
+   add constraint FK40loxu7m4rn4rbfbdqp48uh7g
+   foreign key (paciente_id)
+   references usuarios (id);
+
+alter table citas_medicas
+   add constraint FKq2n566lwqo6dsca0etq6jln03
+   foreign key (cuidador_id)
+   references usuarios (id);
+
+alter table citas_medicas
+   add constraint FKhp3fj7a88fleo0wtnwefw6hlm
+   foreign key (paciente_id)
+   references usuarios (id);
+
+alter table contactos_emergencia
+   add constraint FKcee47v1gewf27ahp3gldavwxf
+   foreign key (paciente_id)
+   references usuarios (id);
+
+alter table cuidadores_pacientes
+   add constraint FK8yqx9qyhg1us6222m6tfsos9
+   foreign key (cuidador_id)
+   references usuarios (id);
+
+alter table cuidadores_pacientes
+   add constraint FK8w7lq4m9mty1qjhhm3g39af7
+   foreign key (paciente_id)
+   references usuarios (id);
+
+alter table documentos
+   add constraint FKbq4f5qatm7aklwfgkqq1h8o3b
+   foreign key (cuidador_id)
+   references usuarios (id);
+
+alter table documentos
+   add constraint FKhrsmxqu9pud9ewgmd64hhmb83
+   foreign key (paciente_id)
+   references usuarios (id);
+
+alter table horarios_medicamento
+   add constraint FKl26lnk5kdifdcrncdo2f3fcx6
+   foreign key (medicamento_id)
+   references medicamentos (id);
+
+alter table medicamentos
+   add constraint FKa49mlwv4scilf0m9yp5n9ec6y
+   foreign key (cuidador_id)
+   references usuarios (id);
+
+alter table medicamentos
+   add constraint FK3harde1ipubwn7wuntya3d9fv
+   foreign key (paciente_id)
+   references usuarios (id);
+
+alter table pacientes
+   add constraint FK96vvhaactwhv7l8ymuq6b4r6j
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table password_reset_tokens
+   add constraint FKp3log76r68owjybas53j8jaig
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table recordatorios_instancia
+   add constraint FK73jkuiwuan7u0rd9ttcdqe2d
+   foreign key (paciente_id)
+   references usuarios (id);
+
+alter table tareas
+   add constraint FK7lurr4tgtngi6jpnbd3thp05i
+   foreign key (cuidador_id)
+   references usuarios (id);
+
+alter table tareas
+   add constraint FKkh2h6uf7g9w10g7e4mrs6sso0
+   foreign key (paciente_id)
+   references usuarios (id);
@@ -0,0 +1,123 @@
+-- Índices compuestos para las consultas de los repositorios: las columnas de igualdad
+-- primero y luego la del rango u ORDER BY, así la lectura es un rango del índice sin
+-- ordenar en memoria. Los índices nuevos se crean antes de borrar los que reemplazan
+-- para que cada clave foránea siga teniendo un índice que empiece por su columna.
+-- Lo verifica IndicesConsultasTest con EXPLAIN.
+-- Igual que db/migration/mysql/V2 salvo el nombre del índice de bitácoras que se reemplaza
+-- y las claves foráneas de cuidadores_pacientes, que se recrean.
+
+-- bitacoras: por paciente ordenadas por fecha y created_at, conteo por día, por cuidador
+create index idx_bitacora_paciente_fecha_creado
+   on bitacoras (paciente_id, fecha, created_at);
+
+create index idx_bitacora_cuidador_fecha
+   on bitacoras (cuidador_id, fecha);
+
+drop index idx_bitacora_paciente_fecha on bitacoras;
+
+-- citas_medicas: agenda del paciente (completa o por rango) y listado del cuidador
+create index idx_cita_paciente_fecha
+   on citas_medicas (paciente_id, fecha_hora);
+
+create index idx_cita_cuidador_fecha
+   on citas_medicas (cuidador_id, fecha_hora);
+
+-- cuidadores_pacientes: relaciones por cuidador o paciente y estado. La unicidad
+-- (cuidador_id, paciente_id) ya cubre la búsqueda del par; estado solo no se consulta
+create index idx_cuidador_estado
+   on cuidadores_pacientes (cuidador_id, estado);
+
+create index idx_paciente_estado
+   on cuidadores_pacientes (paciente_id, estado);
+
+-- En H2 una clave foránea queda atada al índice que usó al crearse: se recrean para
+-- que tomen los índices nuevos
+alter table cuidadores_pacientes
+   drop constraint FK8yqx9qyhg1us6222m6tfsos9;
+
+alter table cuidadores_pacientes
+   drop constraint FK8w7lq4m9mty1qjhhm3g39af7;
+
+drop index idx_cuidador on cuidadores_pacientes;
+
+drop index idx_paciente on cuidadores_pacientes;
+
+alter table cuidadores_pacientes
+   add constraint FK8yqx9qyhg1us6222m6tfsos9
+   foreign key (cuidador_id)
+   references usuarios (id);
+
+alter table cuidadores_pacientes
+   add constraint FK8w7lq4m9mty1qjhhm3g39af7
+   foreign key (paciente_id)
+   references usuarios (id);
+
+drop index idx_estado on cuidadores_pacientes;
+
+-- documentos: listados del paciente (todos, por tipo, por categoría) y del cuidador,
+-- siempre por created_at descendente
+create index idx_documento_paciente_creado
+   on documentos (paciente_id, created_at);
+
+create index idx_documento_paciente_tipo_creado
+   on documentos (paciente_id, tipo, created_at);
+
+create index idx_documento_paciente_categoria_creado
+   on documentos (paciente_id, categoria_archivo, created_at);
+
+create index idx_documento_cuidador_creado
+   on documentos (cuidador_id, created_at);
+
+drop index idx_paciente_tipo on documentos;
+
+drop index idx_paciente_categoria on documentos;
+
+drop index idx_created_at on documentos;
+
+-- horarios_medicamento: horarios de un medicamento ordenados por hora
+create index idx_horario_medicamento_hora
+   on horarios_medicamento (medicamento_id, hora);
+
+-- medicamentos: activos por nombre, historial del paciente y listado del cuidador
+create index idx_medicamento_paciente_activo_nombre
+   on medicamentos (paciente_id, activo, nombre);
+
+create index idx_medicamento_paciente_creado
+   on medicamentos (paciente_id, created_at);
+
+create index idx_medicamento_cuidador_creado
+   on medicamentos (cuidador_id, created_at);
+
+-- tareas: pendientes o completadas en su orden, vencimientos por rango, listado del cuidador
+create index idx_tarea_paciente_completada_orden
+   on tareas (paciente_id, completada, orden_manual);
+
+create index idx_tarea_paciente_vencimiento
+   on tareas (paciente_id, fecha_vencimiento);
+
+create index idx_tarea_cuidador_creado
+   on tareas (cuidador_id, created_at);
+
+-- recordatorios_instancia: pendientes del paciente en orden y recordatorios de un
+-- medicamento o cita desde una fecha (regeneración, cambios de descripción)
+create index idx_recordatorio_paciente_estado_fecha
+   on recordatorios_instancia (paciente_id, estado, fecha_hora);
+
+create index idx_tipo_referencia_fecha
+   on recordatorios_instancia (tipo, referencia_id, fecha_hora);
+
+drop index idx_tipo_referencia on recordatorios_instancia;
+
+-- adherencia_diaria: borrado de los contadores de un medicamento eliminado
+create index idx_adherencia_medicamento
+   on adherencia_diaria (medicamento_id);
+
+-- password_reset_tokens: validación del código, tokens vigentes del usuario y purga
+create index idx_reset_codigo_usado
+   on password_reset_tokens (codigo_otp, usado);
+
+create index idx_reset_usuario_usado
+   on password_reset_tokens (usuario_id, usado);
+
+create index idx_reset_expiracion
+   on password_reset_tokens (fecha_expiracion);
@@ -0,0 +1,16 @@
+-- Columna de versión para el bloqueo optimista (@Version) de las entidades que se
+-- editan desde varios dispositivos: cada UPDATE compara y aumenta la versión, así una
+-- escritura basada en una lectura vieja falla en lugar de pisar la otra.
+-- Las filas existentes y los INSERT por JDBC que no la indican empiezan en 0 por el
+-- default de la columna; Hibernate la asigna en los persist. Las entidades no declaran
+-- el default: el esquema es el de estas migraciones.
+
+alter table recordatorios_instancia add column version bigint not null default 0;
+
+alter table tareas add column version bigint not null default 0;
+
+alter table medicamentos add column version bigint not null default 0;
+
+alter table citas_medicas add column version bigint not null default 0;
+
+alter table bitacoras add column version bigint not null default 0;
@@ -0,0 +1,16 @@
+-- Claves de idempotencia (cabecera Idempotency-Key) compartidas por todas las instancias:
+-- un reintento que llega a otro nodo recibe la misma respuesta. Mientras la operación
+-- corre, respuesta es null y expira_en es un plazo corto; al terminar guarda la respuesta
+-- en JSON y expira_en pasa a ser el TTL configurado.
+
+create table claves_idempotencia (
+    clave varchar(160) not null,
+    huella varchar(64) not null,
+    respuesta mediumtext,
+    expira_en datetime(6) not null,
+    created_at datetime(6) not null,
+    primary key (clave)
+) engine=InnoDB;
+
+create index idx_idempotencia_expiracion
+   on claves_idempotencia (expira_en);
@@ -0,0 +1,10 @@
+-- Estado OMITIDO de los recordatorios, que el detector de dosis omitidas asigna a lo que
+-- sigue pendiente pasado el margen de tolerancia. Las bases creadas con ddl-auto=update
+-- tienen el enum sin ese valor y MySQL rechaza esos UPDATE. Se agrega al final de la
+-- lista: los valores existentes conservan su posición y MySQL no copia la tabla.
+
+alter table recordatorios_instancia
+   modify column estado enum ('CANCELADO','COMPLETADO','PENDIENTE','OMITIDO');
+
+alter table recordatorios_instancia_archivo
+   modify column estado enum ('CANCELADO','COMPLETADO','PENDIENTE','OMITIDO');
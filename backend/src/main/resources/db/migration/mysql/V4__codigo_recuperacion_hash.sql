@@ -0,0 +1,17 @@
+-- Los códigos de recuperación se guardan como HMAC-SHA256 del email y el código, con un
+-- índice único: la validación es una búsqueda puntual y un código solo sirve para el
+-- email al que se envió. intentos cuenta las validaciones contra el código vigente.
+-- Los códigos en claro emitidos antes (vencen a los 15 minutos) se descartan.
+
+delete from password_reset_tokens;
+
+drop index idx_reset_codigo_usado on password_reset_tokens;
+
+alter table password_reset_tokens drop column codigo_otp;
+
+alter table password_reset_tokens add column codigo_hash varchar(64) not null;
+
+alter table password_reset_tokens add column intentos integer not null default 0;
+
+create unique index uk_reset_codigo_hash
+   on password_reset_tokens (codigo_hash);
@@ -0,0 +1,12 @@
+-- Versiones de los recursos por paciente con que se arman los ETag. Viven en la base
+-- para que todas las instancias respondan con la misma versión: cada escritura aumenta
+-- la fila de su recurso en su misma transacción. La fila USUARIOS de un paciente cambia
+-- con los nombres que muestran sus recursos, propios o de sus cuidadores.
+
+create table versiones_recurso (
+    recurso varchar(20) not null,
+    paciente_id bigint not null,
+    numero bigint not null,
+    updated_at datetime(6) not null,
+    primary key (recurso, paciente_id)
+) engine=InnoDB;
@@ -0,0 +1,179 @@
+package com.cuido.cuido.arranque;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el tiempo hasta la primera solicitud: desde que se lanza la JVM hasta que
+ * POST /api/auth/login responde. Ese login (con un usuario inexistente) pasa por la
+ * cadena de seguridad, el UserDetailsService y la base, así incluye los beans perezosos
+ * que se crean con la primera solicitud y no solo el "Started ... in" del log.
+ *
+ * Variantes, cada una en una JVM nueva y con H2 en memoria para que sea reproducible:
+ *   base            jar ejecutable con la configuración por defecto
+ *   arranque-rapido jar ejecutable con el perfil arranque-rapido (beans perezosos, sin metadatos JDBC)
+ *   aot             jar extraído + perfil + código AOT (-Dspring.aot.enabled=true)
+ *   aot-cds         lo anterior + archivo AppCDS (-XX:SharedArchiveFile)
+ *
+ * Uso: mvn -Parranque-rapido -DskipTests verify [-Darranque.repeticiones=5]
+ * El perfil de Maven genera el código AOT, extrae el jar y entrena el archivo CDS antes
+ * de medir.
+ */
+public final class MedicionArranque {
+
+    private static final Duration LIMITE = Duration.ofMinutes(3);
+
+    private final Path jar;
+    private final Path jarExtraido;
+    private final Path archivoCds;
+    private final Path directorio;
+    private final int repeticiones;
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(500))
+        .build();
+
+    private MedicionArranque() {
+        jar = Path.of(System.getProperty("arranque.jar", "target/cuido-0.0.1-SNAPSHOT.jar")).toAbsolutePath();
+        directorio = Path.of(System.getProperty("arranque.directorio", "target/arranque")).toAbsolutePath();
+        jarExtraido = directorio.resolve(jar.getFileName());
+        archivoCds = directorio.resolve("cuido.jsa");
+        repeticiones = Integer.getInteger("arranque.repeticiones", 3);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new MedicionArranque().medir(
+            Path.of(System.getProperty("arranque.resultados", "target/arranque-resultados.json")));
+    }
+
+    private void medir(Path resultados) throws Exception {
+        List<Variante> variantes = new ArrayList<>();
+        variantes.add(new Variante("base", List.of(), jar, List.of()));
+        variantes.add(new Variante("arranque-rapido", List.of(), jar, List.of("--spring.profiles.active=arranque-rapido")));
+        if (Files.exists(jarExtraido)) {
+            variantes.add(new Variante("aot", List.of("-Dspring.aot.enabled=true"), jarExtraido,
+                List.of("--spring.profiles.active=arranque-rapido")));
+        }
+        if (Files.exists(archivoCds)) {
+            variantes.add(new Variante("aot-cds",
+                List.of("-XX:SharedArchiveFile=" + archivoCds, "-Xlog:cds=off", "-Dspring.aot.enabled=true"),
+                jarExtraido, List.of("--spring.profiles.active=arranque-rapido")));
+        }
+
+        System.out.printf("Tiempo hasta la primera solicitud, %d repeticiones por variante (%s)%n",
+            repeticiones, System.getProperty("java.version"));
+
+        List<Map<String, Object>> filas = new ArrayList<>();
+        System.out.printf("%n%-16s %10s %10s %10s%n", "variante", "mediana ms", "min ms", "max ms");
+        for (Variante variante : variantes) {
+            long[] millis = new long[repeticiones];
+            for (int i = 0; i < repeticiones; i++) {
+                millis[i] = arrancar(variante, i);
+            }
+            Arrays.sort(millis);
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("variante", variante.nombre());
+            fila.put("medianaMs", millis[millis.length / 2]);
+            fila.put("minMs", millis[0]);
+            fila.put("maxMs", millis[millis.length - 1]);
+            fila.put("muestrasMs", millis);
+            filas.add(fila);
+            System.out.printf("%-16s %10d %10d %10d%n",
+                variante.nombre(), millis[millis.length / 2], millis[0], millis[millis.length - 1]);
+        }
+
+        Files.createDirectories(resultados.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultados.toFile(), filas);
+        System.out.printf("%nResultados en %s%n", resultados);
+    }
+
+    /**
+     * Lanza la variante, espera la primera respuesta y la detiene; retorna los milisegundos
+     */
+    private long arrancar(Variante variante, int repeticion) throws Exception {
+        int puerto = puertoLibre();
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(variante.jvm());
+        comando.add("-jar");
+        comando.add(variante.jar().toString());
+        comando.addAll(variante.argumentos());
+        comando.addAll(argumentosComunes(puerto, variante.nombre() + repeticion));
+
+        Path log = directorio.resolve(variante.nombre() + "-" + repeticion + ".log");
+        Files.createDirectories(directorio);
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"nadie@arranque.test\",\"password\":\"Arranque1\"}"))
+            .timeout(Duration.ofSeconds(30))
+            .build();
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+            .directory(directorio.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        try {
+            while (System.nanoTime() - inicio < LIMITE.toNanos()) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException("La variante " + variante.nombre() + " terminó al arrancar; ver " + log);
+                }
+                try {
+                    http.send(login, HttpResponse.BodyHandlers.discarding());
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                } catch (IOException e) {
+                    // Todavía no escucha en el puerto
+                    TimeUnit.MILLISECONDS.sleep(20);
+                }
+            }
+            throw new IllegalStateException("La variante " + variante.nombre() + " no respondió en " + LIMITE);
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Base H2 nueva por arranque y SMTP ficticio: el email no se envía durante la medición
+     */
+    private static List<String> argumentosComunes(int puerto, String base) {
+        return List.of(
+            "--server.port=" + puerto,
+            "--spring.datasource.url=jdbc:h2:mem:" + base + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.mail.host=localhost",
+            "--spring.mail.username=arranque",
+            "--spring.mail.password=arranque",
+            "--mail.from.address=arranque@cuido.local");
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variante(String nombre, List<String> jvm, Path jar, List<String> argumentos) {
+    }
+}
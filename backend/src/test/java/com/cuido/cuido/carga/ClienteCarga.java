@@ -0,0 +1,181 @@
+package com.cuido.cuido.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Cliente HTTP de un usuario virtual: guarda su token y mide cada solicitud.
+ *
+ * Cada usuario envía su propio X-Forwarded-For para que el rate limiting por IP
+ * lo trate como un cliente distinto, como ocurre con usuarios reales.
+ */
+class ClienteCarga {
+
+    static final ObjectMapper JSON = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final HttpClient http;
+    private final String api;
+    private final EstadisticasCarga estadisticas;
+    private final boolean gzip;
+    private final String ip;
+    private String token;
+
+    ClienteCarga(HttpClient http, String url, EstadisticasCarga estadisticas, boolean gzip, int numero) {
+        this.http = http;
+        this.api = url + "/api";
+        this.estadisticas = estadisticas;
+        this.gzip = gzip;
+        this.ip = "10.0." + (numero / 250) + "." + (numero % 250 + 1);
+    }
+
+    static HttpClient crearHttpClient(boolean http2) {
+        return HttpClient.newBuilder()
+            .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    void login(String email, String password) {
+        JsonNode respuesta = post("POST /auth/login", "/auth/login",
+            Map.of("email", email, "password", password));
+        token = respuesta.get("token").asText();
+    }
+
+    void registrar(String nombre, String email, String password, String rol) {
+        JsonNode respuesta = post("POST /auth/register", "/auth/register",
+            Map.of("nombreCompleto", nombre, "email", email, "password", password, "rol", rol));
+        token = respuesta.get("token").asText();
+    }
+
+    JsonNode get(String endpoint, String ruta) {
+        return enviar(endpoint, solicitud(ruta).GET());
+    }
+
+    JsonNode post(String endpoint, String ruta, Object cuerpo) {
+        return enviar(endpoint, solicitud(ruta)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(aJson(cuerpo))));
+    }
+
+    JsonNode patch(String endpoint, String ruta, Object cuerpo) {
+        HttpRequest.BodyPublisher publisher = cuerpo == null
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(aJson(cuerpo));
+        return enviar(endpoint, solicitud(ruta)
+            .header("Content-Type", "application/json")
+            .method("PATCH", publisher));
+    }
+
+    /**
+     * Sube un archivo como multipart/form-data junto con los campos de texto
+     */
+    JsonNode subir(String endpoint, String ruta, Map<String, String> campos, String archivo, byte[] contenido) {
+        String limite = "carga-" + UUID.randomUUID();
+        ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+        campos.forEach((nombre, valor) -> escribir(cuerpo, "--" + limite + "\r\n"
+            + "Content-Disposition: form-data; name=\"" + nombre + "\"\r\n\r\n" + valor + "\r\n"));
+        escribir(cuerpo, "--" + limite + "\r\n"
+            + "Content-Disposition: form-data; name=\"archivo\"; filename=\"" + archivo + "\"\r\n"
+            + "Content-Type: application/pdf\r\n\r\n");
+        cuerpo.writeBytes(contenido);
+        escribir(cuerpo, "\r\n--" + limite + "--\r\n");
+
+        return enviar(endpoint, solicitud(ruta)
+            .header("Content-Type", "multipart/form-data; boundary=" + limite)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(cuerpo.toByteArray())));
+    }
+
+    private HttpRequest.Builder solicitud(String ruta) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(api + ruta))
+            .timeout(Duration.ofSeconds(60))
+            .header("X-Forwarded-For", ip);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder;
+    }
+
+    /**
+     * Envía la solicitud, registra latencia, status y bytes recibidos, y retorna el cuerpo
+     * JSON (o null si no hay). Un status de error lanza ErrorCarga después de registrarse.
+     */
+    private JsonNode enviar(String endpoint, HttpRequest.Builder builder) {
+        HttpResponse<byte[]> respuesta;
+        long inicio = System.nanoTime();
+        try {
+            respuesta = http.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            estadisticas.registrar(endpoint, System.nanoTime() - inicio, 0, 0);
+            throw new ErrorCarga(endpoint + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ErrorCarga(endpoint + ": interrumpido");
+        }
+        estadisticas.registrar(endpoint, System.nanoTime() - inicio, respuesta.statusCode(), respuesta.body().length);
+
+        byte[] cuerpo = descomprimir(respuesta);
+        if (respuesta.statusCode() >= 400) {
+            throw new ErrorCarga(endpoint + ": HTTP " + respuesta.statusCode() + " "
+                + new String(cuerpo, StandardCharsets.UTF_8));
+        }
+        if (cuerpo.length == 0 || respuesta.headers().firstValue("Content-Type").filter(t -> t.contains("json")).isEmpty()) {
+            return null;
+        }
+        try {
+            return JSON.readTree(cuerpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] descomprimir(HttpResponse<byte[]> respuesta) {
+        if (!respuesta.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+            return respuesta.body();
+        }
+        try (GZIPInputStream entrada = new GZIPInputStream(new java.io.ByteArrayInputStream(respuesta.body()))) {
+            return entrada.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] aJson(Object cuerpo) {
+        try {
+            return JSON.writeValueAsBytes(cuerpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void escribir(ByteArrayOutputStream salida, String texto) {
+        salida.writeBytes(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Solicitud fallida: ya quedó registrada como error en las estadísticas
+     */
+    static class ErrorCarga extends RuntimeException {
+        ErrorCarga(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
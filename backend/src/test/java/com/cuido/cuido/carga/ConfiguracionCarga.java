@@ -0,0 +1,53 @@
+package com.cuido.cuido.carga;
+
+import java.nio.file.Path;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema (-Dcarga.*)
+ *
+ * @param url              API a probar (p. ej. http://localhost:8082); vacía levanta la app
+ *                         en este proceso con el perfil carga (H2 en memoria)
+ * @param usuarios         usuarios virtuales concurrentes, un hilo cada uno
+ * @param duracionSegundos duración de la medición
+ * @param calentamientoSegundos tiempo inicial con carga que no se mide
+ * @param pausaMillis      pausa entre operaciones de un mismo usuario
+ * @param pacientes        pacientes sembrados, cada uno con un cuidador
+ * @param aniosMedicacion  años cubiertos por los tratamientos (mitad pasados, mitad futuros)
+ * @param bitacoras        bitácoras por paciente
+ * @param documentos       documentos por paciente
+ * @param http2            usar HTTP/2 (h2c) en lugar de HTTP/1.1
+ * @param gzip             pedir respuestas comprimidas (Accept-Encoding: gzip)
+ * @param resultados       archivo JSON con los resultados
+ */
+record ConfiguracionCarga(
+    String url,
+    int usuarios,
+    int duracionSegundos,
+    int calentamientoSegundos,
+    int pausaMillis,
+    int pacientes,
+    int aniosMedicacion,
+    int bitacoras,
+    int documentos,
+    boolean http2,
+    boolean gzip,
+    Path resultados
+) {
+
+    static ConfiguracionCarga desdePropiedades() {
+        return new ConfiguracionCarga(
+            System.getProperty("carga.url", ""),
+            Integer.getInteger("carga.usuarios", 20),
+            Integer.getInteger("carga.duracion-s", 60),
+            Integer.getInteger("carga.calentamiento-s", 15),
+            Integer.getInteger("carga.pausa-ms", 100),
+            Integer.getInteger("carga.pacientes", 10),
+            Integer.getInteger("carga.anios-medicacion", 2),
+            Integer.getInteger("carga.bitacoras", 200),
+            Integer.getInteger("carga.documentos", 20),
+            Boolean.parseBoolean(System.getProperty("carga.http2", "false")),
+            Boolean.parseBoolean(System.getProperty("carga.gzip", "true")),
+            Path.of(System.getProperty("carga.resultados", "target/carga-resultados.json"))
+        );
+    }
+}
@@ -0,0 +1,221 @@
+package com.cuido.cuido.carga;
+
+import com.cuido.cuido.carga.SembradorCarga.PacienteSembrado;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpClient;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Mezcla de operaciones de un usuario virtual. Los pesos aproximan el uso de la app:
+ * la agenda del día domina, los cuidadores marcan tomas y cargan bitácoras, los pacientes
+ * mayormente consultan. Cada usuario repite operaciones con una pausa hasta que termina la prueba.
+ */
+class EscenarioCarga {
+
+    private static final int MAX_ERRORES_IMPRESOS = 20;
+
+    private static final List<Operacion> CUIDADOR = List.of(
+        new Operacion(25, EscenarioCarga::agenda),
+        new Operacion(10, EscenarioCarga::ciclarEstado),
+        new Operacion(10, EscenarioCarga::pendientes),
+        new Operacion(10, EscenarioCarga::bitacoras),
+        new Operacion(5, EscenarioCarga::crearBitacora),
+        new Operacion(8, EscenarioCarga::documentos),
+        new Operacion(2, EscenarioCarga::subirDocumento),
+        new Operacion(8, EscenarioCarga::perfil),
+        new Operacion(7, EscenarioCarga::medicamentos),
+        new Operacion(7, EscenarioCarga::tareas),
+        new Operacion(5, EscenarioCarga::citas),
+        new Operacion(3, EscenarioCarga::login)
+    );
+
+    private static final List<Operacion> PACIENTE = List.of(
+        new Operacion(35, EscenarioCarga::agenda),
+        new Operacion(15, EscenarioCarga::pendientes),
+        new Operacion(15, EscenarioCarga::bitacoras),
+        new Operacion(10, EscenarioCarga::documentos),
+        new Operacion(15, EscenarioCarga::perfil),
+        new Operacion(5, EscenarioCarga::medicamentos),
+        new Operacion(5, EscenarioCarga::citas),
+        new Operacion(3, EscenarioCarga::login)
+    );
+
+    private final ConfiguracionCarga configuracion;
+    private final HttpClient http;
+    private final String url;
+    private final EstadisticasCarga estadisticas;
+    private final AtomicInteger erroresImpresos = new AtomicInteger();
+
+    EscenarioCarga(ConfiguracionCarga configuracion, HttpClient http, String url, EstadisticasCarga estadisticas) {
+        this.configuracion = configuracion;
+        this.http = http;
+        this.url = url;
+        this.estadisticas = estadisticas;
+    }
+
+    /**
+     * Crea el usuario virtual número n: cuatro de cada cinco son cuidadores
+     */
+    UsuarioVirtual usuario(int numero, List<PacienteSembrado> pacientes, long finNanos) {
+        PacienteSembrado paciente = pacientes.get(numero % pacientes.size());
+        boolean esCuidador = numero % 5 != 4;
+        ClienteCarga cliente = new ClienteCarga(http, url, estadisticas, configuracion.gzip(), numero);
+        return new UsuarioVirtual(cliente, paciente,
+            esCuidador ? paciente.emailCuidador() : paciente.emailPaciente(),
+            esCuidador ? CUIDADOR : PACIENTE, finNanos);
+    }
+
+    class UsuarioVirtual implements Runnable {
+
+        private final ClienteCarga cliente;
+        private final PacienteSembrado paciente;
+        private final String email;
+        private final List<Operacion> operaciones;
+        private final int pesoTotal;
+        private final long finNanos;
+        private final List<Long> recordatoriosDelDia = new ArrayList<>();
+        private boolean autenticado;
+
+        UsuarioVirtual(ClienteCarga cliente, PacienteSembrado paciente, String email,
+                       List<Operacion> operaciones, long finNanos) {
+            this.cliente = cliente;
+            this.paciente = paciente;
+            this.email = email;
+            this.operaciones = operaciones;
+            this.pesoTotal = operaciones.stream().mapToInt(Operacion::peso).sum();
+            this.finNanos = finNanos;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < finNanos && !Thread.currentThread().isInterrupted()) {
+                try {
+                    if (!autenticado) {
+                        login(this);
+                    }
+                    elegir(random.nextInt(pesoTotal)).accion().accept(this);
+                } catch (ClienteCarga.ErrorCarga e) {
+                    if (erroresImpresos.incrementAndGet() <= MAX_ERRORES_IMPRESOS) {
+                        System.err.println("Error: " + e.getMessage());
+                    }
+                }
+                pausar(random);
+            }
+        }
+
+        private Operacion elegir(int valor) {
+            for (Operacion operacion : operaciones) {
+                valor -= operacion.peso();
+                if (valor < 0) {
+                    return operacion;
+                }
+            }
+            return operaciones.get(operaciones.size() - 1);
+        }
+
+        private void pausar(ThreadLocalRandom random) {
+            if (configuracion.pausaMillis() <= 0) {
+                return;
+            }
+            try {
+                // Pausa variable (entre la mitad y el doble) para no sincronizar a los usuarios
+                Thread.sleep(random.nextLong(configuracion.pausaMillis() / 2, configuracion.pausaMillis() * 2L + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private String rutaPaciente(String formato) {
+            return formato.formatted(paciente.pacienteId());
+        }
+    }
+
+    private static void login(UsuarioVirtual usuario) {
+        usuario.cliente.login(usuario.email, SembradorCarga.PASSWORD);
+        usuario.autenticado = true;
+    }
+
+    /**
+     * Agenda de un día: casi siempre hoy, a veces un día cercano
+     */
+    private static void agenda(UsuarioVirtual usuario) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate fecha = random.nextInt(10) < 7 ? LocalDate.now() : LocalDate.now().plusDays(random.nextInt(-7, 8));
+        JsonNode recordatorios = usuario.cliente.get("GET /recordatorios/paciente/{id}/dia",
+            usuario.rutaPaciente("/recordatorios/paciente/%d/dia?fecha=" + fecha));
+        usuario.recordatoriosDelDia.clear();
+        if (recordatorios != null) {
+            recordatorios.forEach(r -> usuario.recordatoriosDelDia.add(r.get("id").asLong()));
+        }
+    }
+
+    /**
+     * Marca una toma de la última agenda consultada (la consulta primero si no hay)
+     */
+    private static void ciclarEstado(UsuarioVirtual usuario) {
+        if (usuario.recordatoriosDelDia.isEmpty()) {
+            agenda(usuario);
+            if (usuario.recordatoriosDelDia.isEmpty()) {
+                return;
+            }
+        }
+        long id = usuario.recordatoriosDelDia.get(
+            ThreadLocalRandom.current().nextInt(usuario.recordatoriosDelDia.size()));
+        usuario.cliente.patch("PATCH /recordatorios/{id}/ciclar-estado",
+            "/recordatorios/" + id + "/ciclar-estado", null);
+    }
+
+    private static void pendientes(UsuarioVirtual usuario) {
+        usuario.cliente.get("GET /recordatorios/paciente/{id}/pendientes",
+            usuario.rutaPaciente("/recordatorios/paciente/%d/pendientes"));
+    }
+
+    private static void bitacoras(UsuarioVirtual usuario) {
+        usuario.cliente.get("GET /bitacoras/paciente/{id}", usuario.rutaPaciente("/bitacoras/paciente/%d"));
+    }
+
+    private static void crearBitacora(UsuarioVirtual usuario) {
+        usuario.cliente.post("POST /bitacoras", "/bitacoras", Map.of(
+            "pacienteId", usuario.paciente.pacienteId(),
+            "fecha", LocalDate.now(),
+            "descripcion", "Registro durante la prueba de carga"));
+    }
+
+    private static void documentos(UsuarioVirtual usuario) {
+        usuario.cliente.get("GET /documentos/paciente/{id}", usuario.rutaPaciente("/documentos/paciente/%d"));
+    }
+
+    private static void subirDocumento(UsuarioVirtual usuario) {
+        SembradorCarga.subirDocumento(usuario.cliente, usuario.paciente.pacienteId(),
+            ThreadLocalRandom.current().nextInt(1_000_000));
+    }
+
+    private static void perfil(UsuarioVirtual usuario) {
+        usuario.cliente.get("GET /pacientes/usuario/{id}", usuario.rutaPaciente("/pacientes/usuario/%d"));
+    }
+
+    private static void medicamentos(UsuarioVirtual usuario) {
+        usuario.cliente.get("GET /recordatorios/medicamentos/paciente/{id}",
+            usuario.rutaPaciente("/recordatorios/medicamentos/paciente/%d"));
+    }
+
+    private static void tareas(UsuarioVirtual usuario) {
+        usuario.cliente.get("GET /tareas/paciente/{id}", usuario.rutaPaciente("/tareas/paciente/%d"));
+    }
+
+    private static void citas(UsuarioVirtual usuario) {
+        usuario.cliente.get("GET /recordatorios/citas/paciente/{id}",
+            usuario.rutaPaciente("/recordatorios/citas/paciente/%d"));
+    }
+
+    private record Operacion(int peso, Consumer<UsuarioVirtual> accion) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.cuido.cuido.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencias y errores por endpoint. Solo se registra mientras la medición está activa
+ * (después del calentamiento); los percentiles se calculan al final sobre todas las muestras.
+ */
+class EstadisticasCarga {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean midiendo;
+    private volatile long inicioNanos;
+    private volatile long finNanos;
+
+    void iniciarMedicion() {
+        inicioNanos = System.nanoTime();
+        midiendo = true;
+    }
+
+    void detenerMedicion() {
+        midiendo = false;
+        finNanos = System.nanoTime();
+    }
+
+    void registrar(String endpoint, long duracionNanos, int status, long bytes) {
+        if (!midiendo) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, e -> new Endpoint()).registrar(duracionNanos, status, bytes);
+    }
+
+    /**
+     * Imprime la tabla por endpoint y escribe el JSON de resultados
+     */
+    void reportar(ConfiguracionCarga configuracion) throws IOException {
+        double segundos = (finNanos - inicioNanos) / 1e9;
+        List<Map<String, Object>> filas = new ArrayList<>();
+        long total = 0;
+        long errores = 0;
+
+        System.out.printf("%n%-50s %8s %7s %8s %8s %8s %8s %8s %8s %9s%n",
+            "endpoint", "solic.", "errores", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "media ms", "bytes");
+        for (Map.Entry<String, Endpoint> entrada : new java.util.TreeMap<>(endpoints).entrySet()) {
+            Map<String, Object> fila = entrada.getValue().resumen(segundos);
+            fila.put("endpoint", entrada.getKey());
+            filas.add(fila);
+            total += (long) fila.get("solicitudes");
+            errores += (long) fila.get("errores");
+            System.out.printf("%-50s %8d %7d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %9d%n",
+                entrada.getKey(), fila.get("solicitudes"), fila.get("errores"), fila.get("rps"),
+                fila.get("p50Ms"), fila.get("p90Ms"), fila.get("p99Ms"), fila.get("maxMs"),
+                fila.get("mediaMs"), fila.get("bytesPromedio"));
+        }
+        System.out.printf("%nTotal: %d solicitudes en %.0f s (%.1f req/s), %d errores%n",
+            total, segundos, total / segundos, errores);
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("configuracion", configuracion);
+        resultado.put("segundos", segundos);
+        resultado.put("solicitudes", total);
+        resultado.put("errores", errores);
+        resultado.put("rps", total / segundos);
+        resultado.put("endpoints", filas);
+
+        Files.createDirectories(configuracion.resultados().toAbsolutePath().getParent());
+        new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(configuracion.resultados().toFile(), resultado);
+        System.out.println("Resultados en " + configuracion.resultados().toAbsolutePath());
+    }
+
+    private static final class Endpoint {
+
+        private long[] duraciones = new long[1024];
+        private int cantidad;
+        private long errores;
+        private long bytes;
+
+        synchronized void registrar(long duracionNanos, int status, long bytesRespuesta) {
+            if (cantidad == duraciones.length) {
+                duraciones = Arrays.copyOf(duraciones, cantidad * 2);
+            }
+            duraciones[cantidad++] = duracionNanos;
+            bytes += bytesRespuesta;
+            if (status < 200 || status >= 400) {
+                errores++;
+            }
+        }
+
+        synchronized Map<String, Object> resumen(double segundos) {
+            long[] ordenadas = Arrays.copyOf(duraciones, cantidad);
+            Arrays.sort(ordenadas);
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("solicitudes", (long) cantidad);
+            fila.put("errores", errores);
+            fila.put("rps", cantidad / segundos);
+            fila.put("p50Ms", percentil(ordenadas, 0.50));
+            fila.put("p90Ms", percentil(ordenadas, 0.90));
+            fila.put("p95Ms", percentil(ordenadas, 0.95));
+            fila.put("p99Ms", percentil(ordenadas, 0.99));
+            fila.put("maxMs", cantidad > 0 ? millis(ordenadas[cantidad - 1]) : 0.0);
+            fila.put("mediaMs", cantidad > 0 ? millis(Arrays.stream(ordenadas).sum() / cantidad) : 0.0);
+            fila.put("bytesPromedio", cantidad > 0 ? bytes / cantidad : 0L);
+            return fila;
+        }
+
+        private static double percentil(long[] ordenadas, double percentil) {
+            if (ordenadas.length == 0) {
+                return 0.0;
+            }
+            int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return millis(ordenadas[Math.max(indice, 0)]);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
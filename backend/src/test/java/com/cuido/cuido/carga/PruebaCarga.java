@@ -0,0 +1,128 @@
+package com.cuido.cuido.carga;
+
+import com.cuido.cuido.CuidoApplication;
+import com.cuido.cuido.carga.SembradorCarga.PacienteSembrado;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.net.http.HttpClient;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga de punta a punta: siembra pacientes con datos de varios años a través
+ * de la API y luego simula cuidadores y pacientes concurrentes con la mezcla de
+ * EscenarioCarga, reportando latencia por endpoint (p50/p90/p99), throughput y errores.
+ *
+ * Uso: mvn -Pcarga -DskipTests verify [-Dcarga.usuarios=50 -Dcarga.duracion-s=120 ...]
+ *
+ * Sin -Dcarga.url levanta la aplicación en este proceso con el perfil carga (H2 en memoria,
+ * emails descartados); con -Dcarga.url=http://host:8082 prueba una instancia ya levantada
+ * (idealmente con MySQL). Comparar HTTP/1.1 vs HTTP/2 y con/sin gzip con -Dcarga.http2
+ * y -Dcarga.gzip: los bytes promedio por endpoint muestran el efecto de la compresión.
+ */
+public final class PruebaCarga {
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdePropiedades();
+        ConfigurableApplicationContext contexto = null;
+        String url = configuracion.url();
+        if (url.isBlank()) {
+            contexto = levantarAplicacion(args);
+            url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            ejecutar(configuracion, url);
+            if (contexto != null) {
+                reportarSentencias(contexto.getBean(MeterRegistry.class));
+            }
+        } finally {
+            if (contexto != null) {
+                contexto.close();
+            }
+        }
+    }
+
+    private static void ejecutar(ConfiguracionCarga configuracion, String url) throws Exception {
+        System.out.printf("Prueba de carga contra %s: %d usuarios, %d s (+%d s de calentamiento), %s, gzip=%s%n",
+            url, configuracion.usuarios(), configuracion.duracionSegundos(), configuracion.calentamientoSegundos(),
+            configuracion.http2() ? "HTTP/2" : "HTTP/1.1", configuracion.gzip());
+
+        EstadisticasCarga estadisticas = new EstadisticasCarga();
+        HttpClient http = ClienteCarga.crearHttpClient(configuracion.http2());
+
+        long inicioSiembra = System.nanoTime();
+        List<PacienteSembrado> pacientes = new SembradorCarga(configuracion, http, url, estadisticas).sembrar();
+        System.out.printf("Siembra de %d pacientes en %d s%n",
+            pacientes.size(), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicioSiembra));
+
+        EscenarioCarga escenario = new EscenarioCarga(configuracion, http, url, estadisticas);
+        long finNanos = System.nanoTime()
+            + TimeUnit.SECONDS.toNanos(configuracion.calentamientoSegundos() + configuracion.duracionSegundos());
+
+        // Hilos de plataforma, uno por usuario virtual (Java 17, sin hilos virtuales)
+        ExecutorService usuarios = Executors.newFixedThreadPool(configuracion.usuarios());
+        try {
+            for (int i = 0; i < configuracion.usuarios(); i++) {
+                usuarios.submit(escenario.usuario(i, pacientes, finNanos));
+            }
+            TimeUnit.SECONDS.sleep(configuracion.calentamientoSegundos());
+            estadisticas.iniciarMedicion();
+            TimeUnit.SECONDS.sleep(configuracion.duracionSegundos());
+            estadisticas.detenerMedicion();
+        } finally {
+            usuarios.shutdown();
+            if (!usuarios.awaitTermination(1, TimeUnit.MINUTES)) {
+                usuarios.shutdownNow();
+            }
+        }
+
+        estadisticas.reportar(configuracion);
+    }
+
+    /**
+     * Levanta la aplicación con el perfil carga en un puerto libre y sin envío de emails
+     */
+    private static ConfigurableApplicationContext levantarAplicacion(String[] args) {
+        SpringApplication aplicacion = new SpringApplication(CuidoApplication.class);
+        aplicacion.setAdditionalProfiles("carga");
+        aplicacion.addInitializers(contexto -> ((GenericApplicationContext) contexto)
+            .registerBean(JavaMailSender.class, SinEnvioMailSender::new));
+        String[] argumentos = Arrays.copyOf(args, args.length + 1);
+        argumentos[args.length] = "--server.port=0";
+        return aplicacion.run(argumentos);
+    }
+
+    /**
+     * Sentencias SQL promedio y máximas por endpoint, medidas por el propio servidor
+     */
+    private static void reportarSentencias(MeterRegistry registry) {
+        System.out.printf("%n%-65s %10s %10s%n", "sentencias SQL por solicitud", "promedio", "max");
+        registry.find("cuido.solicitud.sentencias").summaries().stream()
+            .sorted((a, b) -> Double.compare(b.mean(), a.mean()))
+            .forEach((DistributionSummary resumen) -> System.out.printf("%-65s %10.1f %10.0f%n",
+                resumen.getId().getTag("method") + " " + resumen.getId().getTag("uri"), resumen.mean(), resumen.max()));
+    }
+
+    /**
+     * Descarta los emails: la prueba no debe depender de un servidor SMTP
+     */
+    private static final class SinEnvioMailSender extends JavaMailSenderImpl {
+        @Override
+        protected void doSend(MimeMessage[] mensajes, Object[] originales) {
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.cuido.cuido.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Crea los datos de la prueba a través de la API, como lo haría la app: por cada paciente
+ * registra paciente y cuidador, vincula ambos y carga varios años de medicación, citas,
+ * bitácoras, documentos y tareas. Así los recordatorios se generan con la lógica real.
+ */
+class SembradorCarga {
+
+    static final String PASSWORD = "Carga-123456";
+
+    private static final String[] MEDICAMENTOS = {
+        "Enalapril", "Metformina", "Atorvastatina", "Levotiroxina", "Omeprazol", "Aspirina"
+    };
+    private static final LocalTime[] HORAS = {
+        LocalTime.of(8, 0), LocalTime.of(12, 0), LocalTime.of(16, 0), LocalTime.of(20, 0), LocalTime.of(23, 0)
+    };
+
+    private final ConfiguracionCarga configuracion;
+    private final HttpClient http;
+    private final String url;
+    private final EstadisticasCarga estadisticas;
+    private final String corrida = Long.toString(System.currentTimeMillis(), 36);
+
+    SembradorCarga(ConfiguracionCarga configuracion, HttpClient http, String url, EstadisticasCarga estadisticas) {
+        this.configuracion = configuracion;
+        this.http = http;
+        this.url = url;
+        this.estadisticas = estadisticas;
+    }
+
+    /**
+     * Siembra los pacientes en paralelo (hasta 8 a la vez) y retorna sus credenciales
+     */
+    List<PacienteSembrado> sembrar() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(configuracion.pacientes(), 8));
+        try {
+            List<Future<PacienteSembrado>> futuros = new ArrayList<>();
+            for (int i = 0; i < configuracion.pacientes(); i++) {
+                int numero = i;
+                futuros.add(executor.submit(() -> sembrarPaciente(numero)));
+            }
+            List<PacienteSembrado> pacientes = new ArrayList<>();
+            for (Future<PacienteSembrado> futuro : futuros) {
+                pacientes.add(futuro.get());
+            }
+            return pacientes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PacienteSembrado sembrarPaciente(int numero) {
+        Random random = new Random(numero);
+        String emailPaciente = "paciente" + numero + "-" + corrida + "@carga.test";
+        String emailCuidador = "cuidador" + numero + "-" + corrida + "@carga.test";
+
+        ClienteCarga paciente = cliente(numero * 2);
+        paciente.registrar("Paciente Carga " + numero, emailPaciente, PASSWORD, "PACIENTE");
+        long pacienteId = paciente.get("GET /usuarios/me", "/usuarios/me").get("id").asLong();
+
+        ClienteCarga cuidador = cliente(numero * 2 + 1);
+        cuidador.registrar("Cuidador Carga " + numero, emailCuidador, PASSWORD, "CUIDADOR");
+        long cuidadorId = cuidador.get("GET /usuarios/me", "/usuarios/me").get("id").asLong();
+
+        paciente.post("POST /cuidadores-pacientes/invitar",
+            "/cuidadores-pacientes/invitar?pacienteId=" + pacienteId, Map.of("emailCuidador", emailCuidador));
+        for (JsonNode invitacion : cuidador.get("GET /cuidadores-pacientes/cuidador/{id}/pendientes",
+                "/cuidadores-pacientes/cuidador/" + cuidadorId + "/pendientes")) {
+            cuidador.post("POST /cuidadores-pacientes/{id}/aceptar",
+                "/cuidadores-pacientes/" + invitacion.get("id").asLong() + "/aceptar", Map.of());
+        }
+
+        LocalDate hoy = LocalDate.now();
+        int diasMedicacion = configuracion.aniosMedicacion() * 365;
+        LocalDate inicio = hoy.minusDays(diasMedicacion / 2);
+        for (int m = 0; m < 4; m++) {
+            List<Map<String, Object>> horarios = new ArrayList<>();
+            int cantidadHorarios = 2 + random.nextInt(2);
+            for (int h = 0; h < cantidadHorarios; h++) {
+                horarios.add(Map.of("hora", HORAS[(m + h * 2) % HORAS.length]));
+            }
+            Map<String, Object> medicamento = new HashMap<>();
+            medicamento.put("pacienteId", pacienteId);
+            medicamento.put("nombre", MEDICAMENTOS[(numero + m) % MEDICAMENTOS.length]);
+            medicamento.put("dosis", (1 + random.nextInt(4)) * 25 + " mg");
+            medicamento.put("fechaInicio", inicio.plusDays(m * 30L));
+            medicamento.put("fechaFin", inicio.plusDays(diasMedicacion - m * 30L));
+            medicamento.put("horarios", horarios);
+            cuidador.post("POST /recordatorios/medicamentos", "/recordatorios/medicamentos", medicamento);
+        }
+
+        for (int c = 0; c < 12; c++) {
+            cuidador.post("POST /recordatorios/citas", "/recordatorios/citas", Map.of(
+                "pacienteId", pacienteId,
+                "fechaHora", LocalDateTime.of(hoy.plusDays(c * 15L + 1), LocalTime.of(9 + c % 8, 30)),
+                "nombreDoctor", "Dra. Carga " + c,
+                "especialidad", c % 2 == 0 ? "Clínica" : "Cardiología",
+                "ubicacion", "Consultorio " + (c + 1)));
+        }
+
+        for (int b = 0; b < configuracion.bitacoras(); b++) {
+            cuidador.post("POST /bitacoras", "/bitacoras", Map.of(
+                "pacienteId", pacienteId,
+                "fecha", hoy.minusDays(b),
+                "descripcion", "Control de rutina " + b + ": presión estable, buen apetito, caminata corta."));
+        }
+
+        for (int d = 0; d < configuracion.documentos(); d++) {
+            subirDocumento(cuidador, pacienteId, d);
+        }
+
+        for (int t = 0; t < 30; t++) {
+            cuidador.post("POST /tareas", "/tareas", Map.of(
+                "pacienteId", pacienteId,
+                "titulo", "Tarea " + t,
+                "fechaVencimiento", LocalDateTime.of(hoy.plusDays(t - 10), LocalTime.NOON)));
+        }
+
+        System.out.printf("Sembrado paciente %d (usuario %d) con cuidador %d%n", numero, pacienteId, cuidadorId);
+        return new PacienteSembrado(pacienteId, emailPaciente, emailCuidador);
+    }
+
+    static JsonNode subirDocumento(ClienteCarga cuidador, long pacienteId, int numero) {
+        byte[] pdf = ("%PDF-1.4\n% documento de carga " + numero + "\n" + "x".repeat(20_000) + "\n%%EOF\n")
+            .getBytes(StandardCharsets.UTF_8);
+        return cuidador.subir("POST /documentos", "/documentos", Map.of(
+                "pacienteId", Long.toString(pacienteId),
+                "nombre", "Estudio " + numero,
+                "tipo", "ESTUDIO"),
+            "estudio-" + numero + ".pdf", pdf);
+    }
+
+    private ClienteCarga cliente(int numero) {
+        // Rango de IPs distinto al de los usuarios virtuales de la medición
+        return new ClienteCarga(http, url, estadisticas, configuracion.gzip(), 50_000 + numero);
+    }
+
+    /**
+     * Paciente sembrado: el id es el del usuario, que la API usa como pacienteId
+     */
+    record PacienteSembrado(long pacienteId, String emailPaciente, String emailCuidador) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.cuido.cuido.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enrutamiento entre primario, lotes y réplica usando una base H2 en memoria por pool.
+ * Cada base tiene una tabla con su propio nombre para saber a cuál llegó la consulta.
+ */
+class EnrutadorDataSourceTest {
+
+    private static final Duration VENTANA = Duration.ofSeconds(5);
+
+    private HikariDataSource primario;
+    private HikariDataSource lotes;
+    private HikariDataSource replica;
+    private RelojAjustable reloj;
+
+    @BeforeEach
+    void setUp() {
+        primario = crearBase("primario");
+        lotes = crearBase("lotes");
+        replica = crearBase("replica");
+        reloj = new RelojAjustable();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primario.close();
+        lotes.close();
+        replica.close();
+    }
+
+    @Test
+    void transaccionSoloLecturaVaALaReplica() {
+        Enrutado enrutado = enrutado(replica);
+
+        assertEquals("replica", enrutado.leer(true));
+        assertEquals("primario", enrutado.leer(false));
+    }
+
+    @Test
+    void sinReplicaTodoVaAlPrimario() {
+        Enrutado enrutado = enrutado(null);
+
+        assertEquals("primario", enrutado.leer(true));
+        assertEquals("primario", enrutado.leer(false));
+    }
+
+    @Test
+    void fueraDeTransaccionVaAlPrimario() {
+        Enrutado enrutado = enrutado(replica);
+
+        assertEquals("primario", enrutado.jdbc.queryForObject("SELECT nombre FROM origen", String.class));
+    }
+
+    @Test
+    void cargaPorLotesUsaElPoolDeLotesAunqueSeaSoloLectura() {
+        Enrutado enrutado = enrutado(replica);
+
+        ContextoCarga.Tipo anterior = ContextoCarga.establecer(ContextoCarga.Tipo.LOTES);
+        try {
+            assertEquals("lotes", enrutado.leer(true));
+            assertEquals("lotes", enrutado.leer(false));
+        } finally {
+            ContextoCarga.restaurar(anterior);
+        }
+        assertEquals("replica", enrutado.leer(true));
+    }
+
+    @Test
+    void trasEscribirElUsuarioLeeDelPrimarioDuranteLaVentana() {
+        Enrutado enrutado = enrutado(replica);
+
+        autenticar("paciente@cuido.test");
+        enrutado.escribir();
+        assertEquals("primario", enrutado.leer(true));
+
+        // Otros usuarios siguen leyendo de la réplica
+        autenticar("cuidador@cuido.test");
+        assertEquals("replica", enrutado.leer(true));
+
+        autenticar("paciente@cuido.test");
+        reloj.avanzar(VENTANA.plusMillis(1));
+        assertEquals("replica", enrutado.leer(true));
+    }
+
+    @Test
+    void escrituraPorLotesTambienFijaAlPrimario() {
+        Enrutado enrutado = enrutado(replica);
+
+        autenticar("cuidador@cuido.test");
+        ContextoCarga.Tipo anterior = ContextoCarga.establecer(ContextoCarga.Tipo.LOTES);
+        try {
+            enrutado.escribir();
+        } finally {
+            ContextoCarga.restaurar(anterior);
+        }
+
+        assertEquals("primario", enrutado.leer(true));
+    }
+
+    @Test
+    void escrituraRevertidaNoFijaAlPrimario() {
+        Enrutado enrutado = enrutado(replica);
+
+        autenticar("paciente@cuido.test");
+        enrutado.transacciones(false).executeWithoutResult(status -> {
+            enrutado.jdbc.update("UPDATE origen SET nombre = nombre");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", enrutado.leer(true));
+    }
+
+    private Enrutado enrutado(HikariDataSource replica) {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(
+            primario, lotes, replica, new AfinidadEscritura(VENTANA, reloj), 500
+        );
+        enrutador.afterPropertiesSet();
+        return new Enrutado(new LazyConnectionDataSourceProxy(enrutador));
+    }
+
+    private static HikariDataSource crearBase(String nombre) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + nombre + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName(nombre);
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE origen (nombre VARCHAR(20))");
+        jdbc.update("INSERT INTO origen VALUES (?)", nombre);
+        return dataSource;
+    }
+
+    private static void autenticar(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(email, null, AuthorityUtils.NO_AUTHORITIES)
+        );
+    }
+
+    private static final class Enrutado {
+
+        private final JdbcTemplate jdbc;
+        private final DataSourceTransactionManager transactionManager;
+
+        Enrutado(DataSource dataSource) {
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.transactionManager = new DataSourceTransactionManager(dataSource);
+        }
+
+        TransactionTemplate transacciones(boolean soloLectura) {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(soloLectura);
+            return template;
+        }
+
+        String leer(boolean soloLectura) {
+            return transacciones(soloLectura).execute(status ->
+                jdbc.queryForObject("SELECT nombre FROM origen", String.class)
+            );
+        }
+
+        void escribir() {
+            transacciones(false).executeWithoutResult(status -> jdbc.update("UPDATE origen SET nombre = nombre"));
+        }
+    }
+
+    private static final class RelojAjustable extends Clock {
+
+        private Instant ahora = Instant.parse("2025-01-01T12:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.cuido.cuido.repository;
+
+import com.cuido.cuido.model.AdherenciaDiaria.FranjaHoraria;
+import com.cuido.cuido.model.CuidadorPaciente.EstadoRelacion;
+import com.cuido.cuido.model.Documento.CategoriaArchivo;
+import com.cuido.cuido.model.Documento.TipoDocumento;
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.model.RecordatorioInstancia.TipoRecordatorio;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Planes de ejecución de las consultas frecuentes de los repositorios sobre el esquema de
+ * las migraciones: ninguna sentencia puede recorrer una tabla completa. Se llama al
+ * método del repositorio y, antes de cada sentencia, se ejecuta un EXPLAIN con los
+ * mismos parámetros.
+ *
+ * Por defecto corre en H2 (modo MySQL) con db/migration/h2. H2 agrega un índice propio
+ * por cada clave foránea y, sin estadísticas, entre dos índices con el mismo prefijo elige
+ * el más angosto: por eso el índice compuesto esperado de cada consulta solo se verifica
+ * contra MySQL, con db/migration/mysql y una base con datos (perfil semilla) para que el
+ * optimizador elija como en producción:
+ *   mvn test -Dtest=IndicesConsultasTest -Dindices.url=jdbc:mysql://localhost:3306/cuido_indices
+ *       -Dindices.usuario=... -Dindices.clave=...
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IndicesConsultasTest.Configuracion.class)
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    // El esquema de las migraciones debe coincidir con las entidades
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class IndicesConsultasTest {
+
+    private static final String URL = System.getProperty("indices.url",
+        "jdbc:h2:mem:indices;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+    private static final boolean H2 = URL.startsWith("jdbc:h2:");
+    private static final Long ID = 1L;
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 10);
+    private static final LocalDateTime AHORA = HOY.atTime(12, 0);
+
+    @Autowired private AdherenciaDiariaRepository adherencias;
+    @Autowired private BitacoraRepository bitacoras;
+    @Autowired private CitaMedicaRepository citas;
+    @Autowired private ClaveIdempotenciaRepository clavesIdempotencia;
+    @Autowired private ContactoEmergenciaRepository contactos;
+    @Autowired private CuidadorPacienteRepository relaciones;
+    @Autowired private DocumentoRepository documentos;
+    @Autowired private HorarioMedicamentoRepository horarios;
+    @Autowired private MedicamentoRepository medicamentos;
+    @Autowired private PacienteRepository pacientes;
+    @Autowired private PasswordResetTokenRepository tokens;
+    @Autowired private RecordatorioArchivadoRepository archivados;
+    @Autowired private RecordatorioInstanciaRepository recordatorios;
+    @Autowired private TareaRepository tareas;
+    @Autowired private UsuarioRepository usuarios;
+    @Autowired private VersionRecursoRepository versiones;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registro) {
+        registro.add("spring.datasource.url", () -> URL);
+        registro.add("spring.datasource.username", () -> System.getProperty("indices.usuario", "sa"));
+        registro.add("spring.datasource.password", () -> System.getProperty("indices.clave", ""));
+        if (H2) {
+            registro.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+            registro.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        }
+    }
+
+    static Stream<Arguments> consultas() {
+        List<EstadoRecordatorio> estados = List.of(EstadoRecordatorio.values());
+        return Stream.of(
+            consulta("usuarios.findByEmail", "UKkfsp0s1tflm1cwlj8idhqsad0",
+                t -> t.usuarios.findByEmail("paciente@cuido.local")),
+            consulta("pacientes.findByUsuarioId", "UK8djq3l2bga12won1nr4uhovlo",
+                t -> t.pacientes.findByUsuarioId(ID)),
+
+            consulta("bitacoras.findByPacienteIdOrderByFechaDescCreatedAtDesc", "idx_bitacora_paciente_fecha_creado",
+                t -> t.bitacoras.findByPacienteIdOrderByFechaDescCreatedAtDesc(ID)),
+            consulta("bitacoras.findByPacienteIdAndFechaBetweenOrderByFechaDescCreatedAtDesc", "idx_bitacora_paciente_fecha_creado",
+                t -> t.bitacoras.findByPacienteIdAndFechaBetweenOrderByFechaDescCreatedAtDesc(ID, HOY.minusDays(7), HOY)),
+            consulta("bitacoras.findByPacienteIdAndFechaOrderByCreatedAtAsc", "idx_bitacora_paciente_fecha_creado",
+                t -> t.bitacoras.findByPacienteIdAndFechaOrderByCreatedAtAsc(ID, HOY)),
+            consulta("bitacoras.countByPacienteIdAndFecha", "idx_bitacora_paciente_fecha_creado",
+                t -> t.bitacoras.countByPacienteIdAndFecha(ID, HOY)),
+            consulta("bitacoras.findByCuidadorIdOrderByFechaDesc", "idx_bitacora_cuidador_fecha",
+                t -> t.bitacoras.findByCuidadorIdOrderByFechaDesc(ID)),
+
+            consulta("citas.findByPacienteIdOrderByFechaHoraAsc", "idx_cita_paciente_fecha",
+                t -> t.citas.findByPacienteIdOrderByFechaHoraAsc(ID)),
+            consulta("citas.findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc", "idx_cita_paciente_fecha",
+                t -> t.citas.findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc(ID, AHORA, AHORA.plusDays(30))),
+            consulta("citas.findByCuidadorIdOrderByFechaHoraDesc", "idx_cita_cuidador_fecha",
+                t -> t.citas.findByCuidadorIdOrderByFechaHoraDesc(ID)),
+
+            consulta("contactos.findByPacienteId", "idx_paciente_contacto",
+                t -> t.contactos.findByPacienteId(ID)),
+
+            consulta("relaciones.findByCuidadorIdAndEstado", "idx_cuidador_estado",
+                t -> t.relaciones.findByCuidadorIdAndEstado(ID, EstadoRelacion.ACEPTADO)),
+            consulta("relaciones.findByPacienteIdAndEstado", "idx_paciente_estado",
+                t -> t.relaciones.findByPacienteIdAndEstado(ID, EstadoRelacion.ACEPTADO)),
+            consulta("relaciones.findByPacienteId", "idx_paciente_estado",
+                t -> t.relaciones.findByPacienteId(ID)),
+            consulta("relaciones.countCuidadoresAceptadosByPaciente", "idx_paciente_estado",
+                t -> t.relaciones.countCuidadoresAceptadosByPaciente(ID)),
+
+            consulta("documentos.findByPacienteIdOrderByCreatedAtDesc", "idx_documento_paciente_creado",
+                t -> t.documentos.findByPacienteIdOrderByCreatedAtDesc(ID)),
+            consulta("documentos.findByPacienteIdAndTipoOrderByCreatedAtDesc", "idx_documento_paciente_tipo_creado",
+                t -> t.documentos.findByPacienteIdAndTipoOrderByCreatedAtDesc(ID, TipoDocumento.ESTUDIO)),
+            consulta("documentos.findFichasMedicasByPacienteId", "idx_documento_paciente_tipo_creado",
+                t -> t.documentos.findFichasMedicasByPacienteId(ID)),
+            consulta("documentos.findByPacienteIdAndCategoriaArchivoOrderByCreatedAtDesc", "idx_documento_paciente_categoria_creado",
+                t -> t.documentos.findByPacienteIdAndCategoriaArchivoOrderByCreatedAtDesc(ID, CategoriaArchivo.IMAGEN)),
+            consulta("documentos.findByCuidadorIdOrderByCreatedAtDesc", "idx_documento_cuidador_creado",
+                t -> t.documentos.findByCuidadorIdOrderByCreatedAtDesc(ID)),
+            consulta("documentos.findPacienteIdsByCuidadorId", "idx_documento_cuidador_creado",
+                t -> t.documentos.findPacienteIdsByCuidadorId(ID)),
+
+            consulta("horarios.findByMedicamentoIdOrderByHoraAsc", "idx_horario_medicamento_hora",
+                t -> t.horarios.findByMedicamentoIdOrderByHoraAsc(ID)),
+            consulta("horarios.deleteByMedicamentoId", "idx_horario_medicamento_hora",
+                t -> t.horarios.deleteByMedicamentoId(ID)),
+
+            consulta("medicamentos.findByPacienteIdAndActivoTrueOrderByNombreAsc", "idx_medicamento_paciente_activo_nombre",
+                t -> t.medicamentos.findByPacienteIdAndActivoTrueOrderByNombreAsc(ID)),
+            consulta("medicamentos.findByPacienteIdOrderByCreatedAtDesc", "idx_medicamento_paciente_creado",
+                t -> t.medicamentos.findByPacienteIdOrderByCreatedAtDesc(ID)),
+            consulta("medicamentos.findByCuidadorIdOrderByCreatedAtDesc", "idx_medicamento_cuidador_creado",
+                t -> t.medicamentos.findByCuidadorIdOrderByCreatedAtDesc(ID)),
+            consulta("medicamentos.findPacienteIdsByCuidadorId", "idx_medicamento_cuidador_creado",
+                t -> t.medicamentos.findPacienteIdsByCuidadorId(ID)),
+
+            consulta("tareas.findByPacienteIdOrderByOrdenManualAsc", "idx_paciente_orden",
+                t -> t.tareas.findByPacienteIdOrderByOrdenManualAsc(ID)),
+            consulta("tareas.findMaxOrdenManualByPacienteId", "idx_paciente_orden",
+                t -> t.tareas.findMaxOrdenManualByPacienteId(ID)),
+            consulta("tareas.findByPacienteIdAndCompletadaOrderByOrdenManualAsc", "idx_tarea_paciente_completada_orden",
+                t -> t.tareas.findByPacienteIdAndCompletadaOrderByOrdenManualAsc(ID, false)),
+            consulta("tareas.countByPacienteIdAndCompletada", "idx_tarea_paciente_completada_orden",
+                t -> t.tareas.countByPacienteIdAndCompletada(ID, false)),
+            consulta("tareas.findByPacienteIdAndFechaVencimientoBetween", "idx_tarea_paciente_vencimiento",
+                t -> t.tareas.findByPacienteIdAndFechaVencimientoBetween(ID, AHORA, AHORA.plusDays(7))),
+            consulta("tareas.findByCuidadorIdOrderByCreatedAtDesc", "idx_tarea_cuidador_creado",
+                t -> t.tareas.findByCuidadorIdOrderByCreatedAtDesc(ID)),
+
+            consulta("recordatorios.findByPacienteIdOrderByFechaHoraAsc", "idx_paciente_fecha",
+                t -> t.recordatorios.findByPacienteIdOrderByFechaHoraAsc(ID)),
+            consulta("recordatorios.findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc", "idx_paciente_fecha",
+                t -> t.recordatorios.findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc(ID, AHORA, AHORA.plusDays(1))),
+            consulta("recordatorios.findRecordatoriosDelDia", "idx_paciente_fecha",
+                t -> t.recordatorios.findRecordatoriosDelDia(ID, HOY.atStartOfDay(), HOY.plusDays(1).atStartOfDay())),
+            consulta("recordatorios.findByPacienteIdAndEstadoOrderByFechaHoraAsc", "idx_recordatorio_paciente_estado_fecha",
+                t -> t.recordatorios.findByPacienteIdAndEstadoOrderByFechaHoraAsc(ID, EstadoRecordatorio.PENDIENTE)),
+            consulta("recordatorios.findByTipoAndReferenciaId", "idx_tipo_referencia_fecha",
+                t -> t.recordatorios.findByTipoAndReferenciaId(TipoRecordatorio.MEDICAMENTO, ID)),
+            consulta("recordatorios.findEstadosPosteriores", "idx_tipo_referencia_fecha",
+                t -> t.recordatorios.findEstadosPosteriores(TipoRecordatorio.MEDICAMENTO, ID, AHORA)),
+            consulta("recordatorios.actualizarDescripcionPendientes", "idx_tipo_referencia_fecha",
+                t -> t.recordatorios.actualizarDescripcionPendientes(TipoRecordatorio.MEDICAMENTO, ID, "Ibuprofeno", AHORA)),
+            consulta("recordatorios.deleteLoteByTipoAndReferenciaId", "idx_tipo_referencia_fecha",
+                t -> t.recordatorios.deleteLoteByTipoAndReferenciaId(TipoRecordatorio.MEDICAMENTO.name(), ID, 500)),
+            consulta("recordatorios.findProgramadosEntre", "idx_estado_fecha",
+                t -> t.recordatorios.findProgramadosEntre(EstadoRecordatorio.PENDIENTE, AHORA, AHORA.plusMinutes(5))),
+            consulta("recordatorios.findIdsAnteriores", "idx_estado_fecha",
+                t -> t.recordatorios.findIdsAnteriores(estados, AHORA.minusDays(90), PageRequest.of(0, 500))),
+            consulta("recordatorios.contarPorDiaHoraYEstado", "idx_estado_fecha",
+                t -> t.recordatorios.contarPorDiaHoraYEstado(TipoRecordatorio.MEDICAMENTO, estados, AHORA.minusHours(1), AHORA)),
+            consulta("recordatorios.actualizarEstadoEnRango", "idx_estado_fecha",
+                t -> t.recordatorios.actualizarEstadoEnRango(TipoRecordatorio.MEDICAMENTO, EstadoRecordatorio.PENDIENTE,
+                    EstadoRecordatorio.OMITIDO, AHORA.minusHours(1), AHORA, AHORA)),
+
+            consulta("archivados.findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc", "idx_archivo_paciente_fecha",
+                t -> t.archivados.findByPacienteIdAndFechaHoraBetweenOrderByFechaHoraAsc(ID, AHORA.minusDays(30), AHORA)),
+            consulta("archivados.deleteLoteByTipoAndReferenciaId", "idx_archivo_tipo_referencia",
+                t -> t.archivados.deleteLoteByTipoAndReferenciaId(TipoRecordatorio.MEDICAMENTO.name(), ID, 500)),
+
+            consulta("adherencias.findByPacienteIdAndFechaBetweenOrderByFechaAsc", "idx_adherencia_paciente_fecha",
+                t -> t.adherencias.findByPacienteIdAndFechaBetweenOrderByFechaAsc(ID, HOY.minusDays(30), HOY)),
+            consulta("adherencias.incrementar", "uk_adherencia_clave",
+                t -> t.adherencias.incrementar(ID, ID, HOY, FranjaHoraria.MANANA, 1, 1, 0, 0)),
+            consulta("adherencias.deleteByMedicamentoId", "idx_adherencia_medicamento",
+                t -> t.adherencias.deleteByMedicamentoId(ID)),
+
+            consulta("tokens.findByCodigoHash", "uk_reset_codigo_hash",
+                t -> t.tokens.findByCodigoHash("0".repeat(64))),
+            consulta("tokens.registrarIntento", "idx_reset_usuario_usado",
+                t -> t.tokens.registrarIntento(ID, 5)),
+            consulta("tokens.deleteByUsuarioId", "idx_reset_usuario_usado",
+                t -> t.tokens.deleteByUsuarioId(ID)),
+            consulta("tokens.deleteLoteExpirados", "idx_reset_expiracion",
+                t -> t.tokens.deleteLoteExpirados(AHORA, 500)),
+
+            consulta("clavesIdempotencia.guardarRespuesta", "PRIMARY",
+                t -> t.clavesIdempotencia.guardarRespuesta("1:clave", AHORA, "{}", AHORA)),
+            consulta("clavesIdempotencia.liberar", "PRIMARY",
+                t -> t.clavesIdempotencia.liberar("1:clave", AHORA)),
+            consulta("clavesIdempotencia.deleteVencida", "PRIMARY",
+                t -> t.clavesIdempotencia.deleteVencida("1:clave", AHORA)),
+            consulta("clavesIdempotencia.deleteLoteVencidas", "idx_idempotencia_expiracion",
+                t -> t.clavesIdempotencia.deleteLoteVencidas(AHORA, 500)),
+
+            consulta("versiones.findParaEtag", "PRIMARY",
+                t -> t.versiones.findParaEtag(List.of("PERFIL", "USUARIOS"), ID))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    void laConsultaUsaSuIndice(String nombre, String indice, Consumer<IndicesConsultasTest> consulta) {
+        List<String> planes = PlanesConsultas.capturar(() -> consulta.accept(this));
+
+        assertFalse(planes.isEmpty(), "No se ejecutó ninguna sentencia");
+        for (String plan : planes) {
+            assertFalse(PlanesConsultas.recorreTablaCompleta(plan), "Recorrido completo:\n" + plan);
+        }
+        if (!H2) {
+            assertTrue(planes.stream().anyMatch(plan -> PlanesConsultas.usaIndice(plan, indice)),
+                "No usa " + indice + ":\n" + String.join("\n", planes));
+        }
+    }
+
+    private static Arguments consulta(String nombre, String indice, Consumer<IndicesConsultasTest> consulta) {
+        return Arguments.of(nombre, indice, consulta);
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+        @Bean
+        static BeanPostProcessor explicarSentencias() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nombre) {
+                    return bean instanceof DataSource dataSource ? PlanesConsultas.envolver(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Envuelve el DataSource: mientras hay una captura activa en el hilo, cada sentencia
+     * preparada se explica con los mismos parámetros antes de ejecutarse. El plan queda en
+     * texto: en H2 la columna PLAN, en MySQL las columnas de cada fila (table, type, key...)
+     */
+    static final class PlanesConsultas {
+
+        private static final ThreadLocal<List<String>> PLANES = new ThreadLocal<>();
+        private static final Pattern RECORRIDO_INDICE_H2 = Pattern.compile("/\\* [\\w.]+ \\*/");
+
+        private PlanesConsultas() {
+        }
+
+        static List<String> capturar(Runnable consulta) {
+            List<String> planes = new ArrayList<>();
+            PLANES.set(planes);
+            try {
+                consulta.run();
+            } finally {
+                PLANES.remove();
+            }
+            return planes;
+        }
+
+        // H2 marca el recorrido completo como tabla.tableScan, o con el índice sin condiciones
+        // si lo recorre entero; MySQL con type=ALL o type=index
+        static boolean recorreTablaCompleta(String plan) {
+            return plan.contains(".tableScan") || RECORRIDO_INDICE_H2.matcher(plan).find()
+                || plan.contains(" type=ALL ") || plan.contains(" type=index ");
+        }
+
+        // MySQL informa el índice elegido en la columna key
+        static boolean usaIndice(String plan, String indice) {
+            return plan.contains(" key=" + indice + " ");
+        }
+
+        static DataSource envolver(DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return conexion(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String usuario, String clave) throws SQLException {
+                    return conexion(super.getConnection(usuario, clave));
+                }
+            };
+        }
+
+        private static Connection conexion(Connection conexion) {
+            return proxy(Connection.class, (p, metodo, args) -> {
+                Object resultado = invocar(conexion, metodo, args);
+                if (metodo.getName().equals("prepareStatement")) {
+                    return sentencia(conexion, (PreparedStatement) resultado, (String) args[0]);
+                }
+                return resultado;
+            });
+        }
+
+        private static PreparedStatement sentencia(Connection conexion, PreparedStatement sentencia, String sql) {
+            List<Parametro> parametros = new ArrayList<>();
+            return proxy(PreparedStatement.class, (p, metodo, args) -> {
+                String nombre = metodo.getName();
+                if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parametros.add(new Parametro(metodo, args));
+                } else if (nombre.equals("clearParameters")) {
+                    parametros.clear();
+                } else if (nombre.startsWith("execute") && args == null && PLANES.get() != null) {
+                    PLANES.get().add(explicar(conexion, sql, parametros));
+                }
+                return invocar(sentencia, metodo, args);
+            });
+        }
+
+        private static String explicar(Connection conexion, String sql, List<Parametro> parametros) throws Throwable {
+            try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+                for (Parametro parametro : parametros) {
+                    invocar(explain, parametro.metodo(), parametro.args());
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet filas = explain.executeQuery()) {
+                    ResultSetMetaData columnas = filas.getMetaData();
+                    while (filas.next()) {
+                        for (int i = 1; i <= columnas.getColumnCount(); i++) {
+                            plan.append(' ').append(columnas.getColumnLabel(i)).append('=').append(filas.getString(i));
+                        }
+                        plan.append(" \n");
+                    }
+                }
+                return plan.toString();
+            }
+        }
+
+        private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(PlanesConsultas.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+        }
+
+        private record Parametro(Method metodo, Object[] args) {
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cuido.cuido.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Una base creada por ddl-auto=update antes de las migraciones: tiene el esquema de V1,
+ * con datos y sin historial de Flyway. Se marca en V1 sin ejecutarlo y las migraciones
+ * siguientes la llevan al esquema que validan las entidades.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MigracionBaseExistenteTest.Configuracion.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:base-existente;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=true",
+    "spring.flyway.baseline-on-migrate=true",
+    "spring.flyway.baseline-version=1",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class MigracionBaseExistenteTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lasMigracionesCompletanUnaBaseCreadaPorDdlAutoUpdate() {
+        List<String> aplicadas = jdbcTemplate.queryForList(
+            "SELECT CONCAT(\"version\", ':', \"type\") FROM \"flyway_schema_history\""
+                + " WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"",
+            String.class);
+        assertEquals("1:BASELINE", aplicadas.get(0));
+        assertEquals("7:SQL", aplicadas.get(aplicadas.size() - 1));
+
+        // Los datos anteriores siguen ahí y aceptan el estado que agregan las migraciones
+        assertEquals(1, jdbcTemplate.update(
+            "UPDATE recordatorios_instancia SET estado = 'OMITIDO' WHERE descripcion = 'Enalapril - 10 mg'"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT version FROM recordatorios_instancia WHERE descripcion = 'Enalapril - 10 mg'", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM adherencia_diaria", Integer.class));
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+
+        // Arma la base existente antes de que Flyway la encuentre
+        @Bean
+        FlywayMigrationStrategy migrarBaseExistente() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__esquema_inicial.sql"))
+                    .execute(dataSource);
+                JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+                jdbc.update("INSERT INTO usuarios (id, nombre_completo, email, password, rol, activo, created_at, updated_at)"
+                    + " VALUES (1, 'Ana Pérez', 'ana@cuido.test', 'x', 'PACIENTE', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+                jdbc.update("INSERT INTO recordatorios_instancia (tipo, referencia_id, paciente_id, fecha_hora, estado,"
+                    + " descripcion) VALUES ('MEDICAMENTO', 1, 1, TIMESTAMP '2025-03-10 08:00:00', 'PENDIENTE',"
+                    + " 'Enalapril - 10 mg')");
+                flyway.migrate();
+            };
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.cuido.cuido.semilla;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Volúmenes y relaciones de los datos sintéticos con parámetros chicos
+ */
+@DataJpaTest
+@ActiveProfiles("semilla")
+@Import({SembradorDatos.class, SembradorDatosTest.Configuracion.class})
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    // Esquema desde las entidades: la base embebida no está en modo MySQL (ver IndicesConsultasTest)
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "app.upload.dir=target/semilla-test-uploads",
+    "app.semilla.fecha-referencia=2025-03-10",
+    "app.semilla.cuidadores=2",
+    "app.semilla.pacientes-por-cuidador=3",
+    "app.semilla.medicamentos-por-paciente=2",
+    "app.semilla.tomas-por-dia=2",
+    "app.semilla.dias-historial=10",
+    "app.semilla.dias-futuros=5",
+    "app.semilla.citas-por-paciente=1",
+    "app.semilla.bitacoras-por-paciente=4",
+    "app.semilla.tareas-por-paciente=3",
+    "app.semilla.documentos-por-paciente=1",
+    "app.semilla.lote=7"
+})
+class SembradorDatosTest {
+
+    private static final int PACIENTES = 2 * 3;
+
+    @Autowired
+    private SembradorDatos sembradorDatos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Los lotes de la semilla se confirman por su cuenta: cada test arranca con la base vacía
+    @BeforeEach
+    void borrarTodo() {
+        jdbcTemplate.update("DELETE FROM adherencia_diaria");
+        jdbcTemplate.update("DELETE FROM job_watermarks");
+        jdbcTemplate.update("DELETE FROM recordatorios_instancia");
+        jdbcTemplate.update("DELETE FROM horarios_medicamento");
+        jdbcTemplate.update("DELETE FROM medicamentos");
+        jdbcTemplate.update("DELETE FROM citas_medicas");
+        jdbcTemplate.update("DELETE FROM bitacoras");
+        jdbcTemplate.update("DELETE FROM tareas");
+        jdbcTemplate.update("DELETE FROM documentos");
+        jdbcTemplate.update("DELETE FROM cuidadores_pacientes");
+        jdbcTemplate.update("DELETE FROM pacientes");
+        jdbcTemplate.update("DELETE FROM usuarios");
+    }
+
+    @Test
+    void generaLosVolumenesConfiguradosUnaSolaVez() throws Exception {
+        sembradorDatos.run();
+        sembradorDatos.run();
+
+        assertEquals(2 + PACIENTES, contar("SELECT COUNT(*) FROM usuarios"));
+        assertEquals(PACIENTES, contar("SELECT COUNT(*) FROM pacientes"));
+        assertEquals(PACIENTES, contar("SELECT COUNT(*) FROM cuidadores_pacientes WHERE estado = 'ACEPTADO'"));
+        assertEquals(PACIENTES * 2 * 2, contar("SELECT COUNT(*) FROM horarios_medicamento"));
+        // medicamentos x tomas x (historial + futuros) más un recordatorio por cita
+        assertEquals(PACIENTES * 2 * 2 * 15 + PACIENTES,
+            contar("SELECT COUNT(*) FROM recordatorios_instancia"));
+        assertEquals(PACIENTES * 4, contar("SELECT COUNT(*) FROM bitacoras"));
+        assertEquals(PACIENTES * 3, contar("SELECT COUNT(*) FROM tareas"));
+        assertEquals(PACIENTES, contar("SELECT COUNT(*) FROM documentos"));
+
+        // Cada recordatorio apunta a un medicamento o cita del mismo paciente
+        assertEquals(0, contar("SELECT COUNT(*) FROM recordatorios_instancia r"
+            + " LEFT JOIN medicamentos m ON r.tipo = 'MEDICAMENTO' AND m.id = r.referencia_id"
+            + " AND m.paciente_id = r.paciente_id"
+            + " LEFT JOIN citas_medicas c ON r.tipo = 'CITA_MEDICA' AND c.id = r.referencia_id"
+            + " AND c.paciente_id = r.paciente_id"
+            + " WHERE m.id IS NULL AND c.id IS NULL"));
+        // Lo futuro queda pendiente
+        assertEquals(0, contar("SELECT COUNT(*) FROM recordatorios_instancia"
+            + " WHERE fecha_hora >= TIMESTAMP '2025-03-10 00:00:00' AND estado <> 'PENDIENTE'"));
+    }
+
+    @Test
+    void cuentaLaAdherenciaDelHistorialYDejaLaMarcaDeAgua() throws Exception {
+        sembradorDatos.run();
+
+        assertEquals(LocalDateTime.of(2025, 3, 10, 0, 0), jdbcTemplate.queryForObject(
+            "SELECT valor FROM job_watermarks WHERE nombre = 'dosis-omitidas'", LocalDateTime.class));
+        assertAdherenciaIgualALosRecordatoriosHasta("2025-03-10 00:00:00");
+    }
+
+    @Test
+    void conUnaMarcaDeAguaPosteriorCuentaHastaEllaYMarcaLasOmitidas() throws Exception {
+        jdbcTemplate.update("INSERT INTO job_watermarks (nombre, valor, updated_at)"
+            + " VALUES ('dosis-omitidas', TIMESTAMP '2025-03-12 12:00:00', CURRENT_TIMESTAMP)");
+
+        sembradorDatos.run();
+
+        assertEquals(LocalDateTime.of(2025, 3, 12, 12, 0), jdbcTemplate.queryForObject(
+            "SELECT valor FROM job_watermarks WHERE nombre = 'dosis-omitidas'", LocalDateTime.class));
+        // Lo que quedó detrás de la marca ya no está pendiente, como si lo hubiera procesado el detector
+        assertEquals(0, contar("SELECT COUNT(*) FROM recordatorios_instancia WHERE tipo = 'MEDICAMENTO'"
+            + " AND fecha_hora <= TIMESTAMP '2025-03-12 12:00:00' AND estado = 'PENDIENTE'"));
+        assertAdherenciaIgualALosRecordatoriosHasta("2025-03-12 12:00:00");
+    }
+
+    @Test
+    void laMismaSemillaGeneraLosMismosDatos() throws Exception {
+        sembradorDatos.run();
+        List<String> primera = huella();
+
+        borrarTodo();
+        sembradorDatos.run();
+
+        assertEquals(primera, huella());
+    }
+
+    private void assertAdherenciaIgualALosRecordatoriosHasta(String marca) {
+        String filtro = " FROM recordatorios_instancia WHERE tipo = 'MEDICAMENTO'"
+            + " AND fecha_hora <= TIMESTAMP '" + marca + "'";
+        assertEquals(contar("SELECT COUNT(*)" + filtro), contar("SELECT SUM(programados) FROM adherencia_diaria"));
+        assertEquals(contar("SELECT COUNT(*)" + filtro + " AND estado = 'COMPLETADO'"),
+            contar("SELECT SUM(completados) FROM adherencia_diaria"));
+        assertEquals(contar("SELECT COUNT(*)" + filtro + " AND estado = 'OMITIDO'"),
+            contar("SELECT SUM(omitidos) FROM adherencia_diaria"));
+        assertEquals(contar("SELECT COUNT(*)" + filtro + " AND estado = 'CANCELADO'"),
+            contar("SELECT SUM(cancelados) FROM adherencia_diaria"));
+        // Una fila por medicamento, día y franja
+        assertEquals(contar("SELECT COUNT(*) FROM (SELECT DISTINCT referencia_id, CAST(fecha_hora AS DATE),"
+                + " HOUR(fecha_hora) / 6" + filtro + ") t"),
+            contar("SELECT COUNT(*) FROM adherencia_diaria"));
+    }
+
+    private List<String> huella() {
+        return jdbcTemplate.queryForList(
+            "SELECT CONCAT(u.email, '|', u.nombre_completo, '|', r.fecha_hora, '|', r.estado, '|', r.descripcion)"
+                + " FROM recordatorios_instancia r JOIN usuarios u ON u.id = r.paciente_id"
+                + " ORDER BY u.email, r.fecha_hora, r.descripcion",
+            String.class);
+    }
+
+    private int contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
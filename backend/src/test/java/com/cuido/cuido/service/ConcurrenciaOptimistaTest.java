@@ -0,0 +1,212 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.concurrencia.ReintentoConflictosAspect;
+import com.cuido.cuido.exception.ConflictoEdicionException;
+import com.cuido.cuido.model.RecordatorioInstancia;
+import com.cuido.cuido.model.RecordatorioInstancia.EstadoRecordatorio;
+import com.cuido.cuido.model.Rol;
+import com.cuido.cuido.model.Tarea;
+import com.cuido.cuido.model.Usuario;
+import com.cuido.cuido.repository.RecordatorioInstanciaRepository;
+import com.cuido.cuido.repository.TareaRepository;
+import com.cuido.cuido.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Escrituras concurrentes sobre la misma tarea o recordatorio: ningún cambio se pierde y
+ * las operaciones que fijan un estado no escriben de nuevo si ya está aplicado.
+ * Cada servicio corre sin la transacción del test para que el reintento abra las suyas.
+ */
+@DataJpaTest
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({
+    TareaService.class,
+    RecordatorioService.class,
+    ArchivoRecordatoriosService.class,
+    ReintentoConflictosAspect.class,
+    ConcurrenciaOptimistaTest.Configuracion.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    // Esquema desde las entidades: la base embebida no está en modo MySQL (ver IndicesConsultasTest)
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    // Con todos los hilos sobre una misma fila los conflictos son continuos; se mide que
+    // el resultado sea correcto, no el presupuesto de reintentos de producción
+    "app.concurrencia.reintentos=100",
+    "app.concurrencia.espera-ms=2"
+})
+class ConcurrenciaOptimistaTest {
+
+    private static final int HILOS = 6;
+    private static final int CAMBIOS_POR_HILO = 5;
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private RecordatorioService recordatorioService;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private RecordatorioInstanciaRepository recordatorioInstanciaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @MockitoBean
+    private AuthorizationService authorizationService;
+
+    @MockitoBean
+    private AdherenciaService adherenciaService;
+
+    @Test
+    void alternarDesdeVariosHilosNoPierdeCambios() throws Exception {
+        Long tareaId = crearTarea().getId();
+
+        concurrentemente(HILOS, () -> {
+            for (int i = 0; i < CAMBIOS_POR_HILO; i++) {
+                tareaService.toggleCompletada(tareaId);
+            }
+            return null;
+        });
+
+        // Cada cambio confirmado aumenta la versión una vez
+        Tarea tarea = tareaRepository.findById(tareaId).orElseThrow();
+        assertEquals(HILOS * CAMBIOS_POR_HILO, tarea.getVersion());
+        assertEquals((HILOS * CAMBIOS_POR_HILO) % 2 == 1, tarea.getCompletada());
+    }
+
+    @Test
+    void marcarCompletadaEsIdempotente() throws Exception {
+        Long tareaId = crearTarea().getId();
+
+        concurrentemente(HILOS, () -> tareaService.marcarCompletada(tareaId, true));
+
+        Tarea tarea = tareaRepository.findById(tareaId).orElseThrow();
+        assertTrue(tarea.getCompletada());
+        assertEquals(1, tarea.getVersion());
+    }
+
+    @Test
+    void ciclarDesdeElEstadoVistoSeAplicaUnaSolaVez() throws Exception {
+        Long recordatorioId = crearRecordatorio().getId();
+
+        concurrentemente(HILOS, () -> recordatorioService.ciclarEstadoRecordatorio(recordatorioId, "PENDIENTE"));
+
+        RecordatorioInstancia recordatorio = recordatorioInstanciaRepository.findById(recordatorioId).orElseThrow();
+        assertEquals(EstadoRecordatorio.COMPLETADO, recordatorio.getEstado());
+        assertEquals(1, recordatorio.getVersion());
+
+        // Quien todavía ve CANCELADO no puede ciclar: el estado real es otro
+        assertThrows(ConflictoEdicionException.class,
+            () -> recordatorioService.ciclarEstadoRecordatorio(recordatorioId, "CANCELADO"));
+    }
+
+    @Test
+    void laActualizacionMasivaInvalidaLasLecturasAnteriores() throws Exception {
+        Long recordatorioId = crearRecordatorio().getId();
+
+        concurrentemente(HILOS, () -> {
+            for (int i = 0; i < CAMBIOS_POR_HILO; i++) {
+                recordatorioService.ciclarEstadoRecordatorio(recordatorioId, null);
+            }
+            return null;
+        });
+        recordatorioService.actualizarEstadoRecordatorios(List.of(recordatorioId), "OMITIDO");
+
+        RecordatorioInstancia recordatorio = recordatorioInstanciaRepository.findById(recordatorioId).orElseThrow();
+        assertEquals(EstadoRecordatorio.OMITIDO, recordatorio.getEstado());
+        assertEquals(HILOS * CAMBIOS_POR_HILO + 1, recordatorio.getVersion());
+    }
+
+    /**
+     * Lanza la operación en varios hilos a la vez y propaga el primer error
+     */
+    private static void concurrentemente(int hilos, Callable<?> operacion) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return operacion.call();
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Tarea crearTarea() {
+        Tarea tarea = new Tarea();
+        tarea.setPaciente(crearUsuario(Rol.PACIENTE));
+        tarea.setCuidador(crearUsuario(Rol.CUIDADOR));
+        tarea.setTitulo("Comprar pañales");
+        return tareaRepository.save(tarea);
+    }
+
+    private RecordatorioInstancia crearRecordatorio() {
+        RecordatorioInstancia recordatorio = new RecordatorioInstancia();
+        recordatorio.setPaciente(crearUsuario(Rol.PACIENTE));
+        recordatorio.setTipo(RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO);
+        recordatorio.setReferenciaId(1L);
+        recordatorio.setFechaHora(LocalDateTime.now().plusHours(1));
+        return recordatorioInstanciaRepository.save(recordatorio);
+    }
+
+    private Usuario crearUsuario(Rol rol) {
+        Usuario usuario = new Usuario();
+        usuario.setEmail(UUID.randomUUID() + "@cuido.test");
+        usuario.setNombreCompleto("Usuario " + rol);
+        usuario.setPassword("x");
+        usuario.setRol(rol);
+        return usuarioRepository.save(usuario);
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.dto.response.ActualizacionEstadoMasivaResponseDTO;
+import com.cuido.cuido.exception.BadRequestException;
+import com.cuido.cuido.repository.ClaveIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Claves de idempotencia compartidas entre instancias: dos servicios sobre la misma base
+ * hacen de dos nodos detrás del balanceador. Sin la transacción del test, para que cada
+ * servicio vea lo que el otro confirma.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdempotenciaService.class, IdempotenciaServiceTest.Configuracion.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    // Esquema de las migraciones en modo MySQL: la purga usa DELETE ... LIMIT
+    "spring.datasource.url=jdbc:h2:mem:idempotencia;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "app.idempotencia.espera-maxima-ms=5000",
+    "app.idempotencia.purga-lote=2"
+})
+class IdempotenciaServiceTest {
+
+    @Autowired
+    private IdempotenciaService nodoA;
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private IdempotenciaService nodoB;
+
+    @BeforeEach
+    void crearSegundoNodo() {
+        nodoB = new IdempotenciaService(claveIdempotenciaRepository, transactionTemplate, objectMapper);
+        ReflectionTestUtils.setField(nodoB, "ttlMinutos", 1440L);
+        ReflectionTestUtils.setField(nodoB, "esperaMaximaMillis", 5000L);
+        ReflectionTestUtils.setField(nodoB, "purgaLote", 2);
+    }
+
+    @Test
+    void elReintentoEnOtraInstanciaRecibeLaRespuestaOriginal() {
+        String clave = nuevaClave();
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        ActualizacionEstadoMasivaResponseDTO primera = nodoA.ejecutar(clave, "COMPLETADO:[1, 2]",
+            ActualizacionEstadoMasivaResponseDTO.class, () -> respuesta(ejecuciones.incrementAndGet()));
+        ActualizacionEstadoMasivaResponseDTO reintento = nodoB.ejecutar(clave, "COMPLETADO:[1, 2]",
+            ActualizacionEstadoMasivaResponseDTO.class, () -> respuesta(ejecuciones.incrementAndGet()));
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(primera, reintento);
+
+        assertThrows(BadRequestException.class, () -> nodoB.ejecutar(clave, "CANCELADO:[1, 2]",
+            ActualizacionEstadoMasivaResponseDTO.class, () -> respuesta(ejecuciones.incrementAndGet())));
+    }
+
+    @Test
+    void elReintentoConcurrenteEsperaALaEjecucionEnCurso() throws Exception {
+        String clave = nuevaClave();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+
+        CompletableFuture<ActualizacionEstadoMasivaResponseDTO> original = CompletableFuture.supplyAsync(() ->
+            nodoA.ejecutar(clave, "OMITIDO:[3]", ActualizacionEstadoMasivaResponseDTO.class, () -> {
+                enCurso.countDown();
+                esperar(continuar);
+                return respuesta(ejecuciones.incrementAndGet());
+            }));
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<ActualizacionEstadoMasivaResponseDTO> reintento = CompletableFuture.supplyAsync(() ->
+            nodoB.ejecutar(clave, "OMITIDO:[3]", ActualizacionEstadoMasivaResponseDTO.class,
+                () -> respuesta(ejecuciones.incrementAndGet())));
+        continuar.countDown();
+
+        assertEquals(original.get(10, TimeUnit.SECONDS), reintento.get(10, TimeUnit.SECONDS));
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void unaEjecucionFallidaLiberaLaClave() {
+        String clave = nuevaClave();
+
+        assertThrows(IllegalStateException.class, () -> nodoA.ejecutar(clave, "COMPLETADO:[4]",
+            ActualizacionEstadoMasivaResponseDTO.class, () -> {
+                throw new IllegalStateException("falla");
+            }));
+
+        ActualizacionEstadoMasivaResponseDTO reintento = nodoB.ejecutar(clave, "COMPLETADO:[4]",
+            ActualizacionEstadoMasivaResponseDTO.class, () -> respuesta(7));
+        assertEquals(7, reintento.getActualizados());
+    }
+
+    @Test
+    void laPurgaBorraLasClavesVencidasEnLotes() {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            String clave = nuevaClave();
+            transactionTemplate.executeWithoutResult(status ->
+                claveIdempotenciaRepository.reservar(clave, "0".repeat(64), ahora.minusMinutes(1), ahora.minusMinutes(2)));
+        }
+        nodoA.ejecutar(nuevaClave(), "COMPLETADO:[5]", ActualizacionEstadoMasivaResponseDTO.class, () -> respuesta(1));
+
+        nodoA.purgarVencidas();
+
+        assertEquals(1, claveIdempotenciaRepository.count());
+    }
+
+    private static ActualizacionEstadoMasivaResponseDTO respuesta(int actualizados) {
+        return ActualizacionEstadoMasivaResponseDTO.builder()
+            .estado("COMPLETADO")
+            .actualizados(actualizados)
+            .sinCambios(0)
+            .noEncontrados(0)
+            .resultados(List.of(new ActualizacionEstadoMasivaResponseDTO.ResultadoDTO(1L, "ACTUALIZADO", "PENDIENTE")))
+            .build();
+    }
+
+    private static String nuevaClave() {
+        return "1:" + UUID.randomUUID();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.exception.BadRequestException;
+import com.cuido.cuido.model.PasswordResetToken;
+import com.cuido.cuido.model.Rol;
+import com.cuido.cuido.model.Usuario;
+import com.cuido.cuido.repository.PasswordResetTokenRepository;
+import com.cuido.cuido.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Códigos de recuperación guardados como hash: cada código vale solo para su email, los
+ * intentos se cuentan aunque la validación falle y la purga borra en lotes.
+ * Sin la transacción del test, para ver lo que el servicio confirma.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PasswordResetService.class, PasswordResetServiceTest.Configuracion.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    // Esquema de las migraciones en modo MySQL: la purga usa DELETE ... LIMIT
+    "spring.datasource.url=jdbc:h2:mem:recuperacion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "app.recuperacion.clave-hmac=clave-de-prueba",
+    "app.recuperacion.max-intentos=3",
+    "app.recuperacion.purga-lote=3"
+})
+class PasswordResetServiceTest {
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Test
+    void elCodigoSoloValeConElEmailAlQueSeEnvio() {
+        Usuario ana = crearUsuario();
+        Usuario beto = crearUsuario();
+        String codigoAna = solicitar(ana);
+        solicitar(beto);
+
+        assertThrows(BadRequestException.class,
+            () -> passwordResetService.resetearPassword(beto.getEmail(), codigoAna, "NuevaClave1"));
+
+        passwordResetService.resetearPassword(" " + ana.getEmail(), codigoAna, "NuevaClave1");
+        assertTrue(passwordEncoder.matches("NuevaClave1", usuarioRepository.findById(ana.getId()).orElseThrow().getPassword()));
+
+        // Ya utilizado
+        assertThrows(BadRequestException.class,
+            () -> passwordResetService.resetearPassword(ana.getEmail(), codigoAna, "OtraClave1"));
+    }
+
+    @Test
+    void alAgotarLosIntentosNiElCodigoCorrectoSirve() {
+        Usuario usuario = crearUsuario();
+        String codigo = solicitar(usuario);
+        String incorrecto = codigo.equals("100000") ? "100001" : "100000";
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(BadRequestException.class,
+                () -> passwordResetService.resetearPassword(usuario.getEmail(), incorrecto, "NuevaClave1"));
+        }
+        assertThrows(BadRequestException.class,
+            () -> passwordResetService.resetearPassword(usuario.getEmail(), codigo, "NuevaClave1"));
+
+        // Los rechazos se confirman: los intentos quedan registrados
+        PasswordResetToken token = tokenRepository.findAll().stream()
+            .filter(t -> t.getUsuario().getId().equals(usuario.getId()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(3, token.getIntentos());
+        assertFalse(passwordEncoder.matches("NuevaClave1", usuarioRepository.findById(usuario.getId()).orElseThrow().getPassword()));
+
+        // Un código nuevo reemplaza al agotado
+        String nuevo = solicitar(usuario);
+        passwordResetService.resetearPassword(usuario.getEmail(), nuevo, "NuevaClave1");
+    }
+
+    @Test
+    void laPurgaBorraLosVencidosEnLotes() {
+        Usuario usuario = crearUsuario();
+        for (int i = 0; i < 7; i++) {
+            PasswordResetToken token = new PasswordResetToken();
+            token.setUsuario(usuario);
+            token.setCodigoHash(UUID.randomUUID().toString().replace("-", ""));
+            token.setFechaExpiracion(LocalDateTime.now().minusMinutes(i + 1));
+            tokenRepository.save(token);
+        }
+        solicitar(crearUsuario());
+
+        passwordResetService.limpiarTokensExpirados();
+
+        assertEquals(1, tokenRepository.count());
+    }
+
+    private String solicitar(Usuario usuario) {
+        passwordResetService.solicitarRecuperacion(usuario.getEmail());
+        ArgumentCaptor<String> codigo = ArgumentCaptor.forClass(String.class);
+        verify(emailService, atLeastOnce())
+            .enviarCodigoOTP(eq(usuario.getEmail()), anyString(), codigo.capture());
+        return codigo.getValue();
+    }
+
+    private Usuario crearUsuario() {
+        Usuario usuario = new Usuario();
+        usuario.setEmail(UUID.randomUUID() + "@cuido.test");
+        usuario.setNombreCompleto("Usuario");
+        usuario.setPassword(passwordEncoder.encode("ClaveInicial1"));
+        usuario.setRol(Rol.CUIDADOR);
+        return usuarioRepository.save(usuario);
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.config.ObservabilidadConfig;
+import com.cuido.cuido.dto.response.RecordatorioResponseDTO;
+import com.cuido.cuido.model.CitaMedica;
+import com.cuido.cuido.model.Medicamento;
+import com.cuido.cuido.model.RecordatorioInstancia;
+import com.cuido.cuido.model.Rol;
+import com.cuido.cuido.model.Usuario;
+import com.cuido.cuido.observabilidad.ConsultasSolicitud;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Presupuesto de sentencias de las lecturas de recordatorios: el enriquecimiento con
+ * medicamentos y citas no debe hacer una consulta por recordatorio (N+1)
+ */
+@DataJpaTest
+@Import({ObservabilidadConfig.class, RecordatorioService.class, ArchivoRecordatoriosService.class})
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    // Esquema desde las entidades: la base embebida no está en modo MySQL (ver IndicesConsultasTest)
+    "spring.flyway.enabled=false",
+    // Sin caché de segundo nivel: se cuentan las sentencias con la caché fría
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class RecordatorioServiceConsultasTest {
+
+    private static final int MEDICAMENTOS = 6;
+    private static final int CITAS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecordatorioService recordatorioService;
+
+    @MockitoBean
+    private AuthorizationService authorizationService;
+
+    @MockitoBean
+    private AdherenciaService adherenciaService;
+
+    @Test
+    void recordatoriosPendientesCarganLasReferenciasEnUnaConsultaPorTipo() {
+        Usuario paciente = crearPacienteConRecordatorios();
+
+        ConsultasSolicitud solicitud = ConsultasSolicitud.iniciar("test");
+        List<RecordatorioResponseDTO> recordatorios;
+        try {
+            recordatorios = recordatorioService.obtenerRecordatoriosPendientes(paciente.getId());
+        } finally {
+            ConsultasSolicitud.finalizar();
+        }
+
+        assertEquals((MEDICAMENTOS + CITAS) * 2, recordatorios.size());
+        assertTrue(recordatorios.stream()
+            .filter(r -> r.getTipo().equals("MEDICAMENTO"))
+            .allMatch(r -> r.getNombreMedicamento() != null));
+        assertTrue(recordatorios.stream()
+            .filter(r -> r.getTipo().equals("CITA_MEDICA"))
+            .allMatch(r -> r.getNombreDoctor() != null));
+
+        // recordatorios + paciente + medicamentos + citas
+        assertTrue(solicitud.getConsultas() <= 4, "Consultas ejecutadas: " + solicitud.getConsultas());
+        Map.Entry<String, Integer> masRepetida = solicitud.masRepetida();
+        assertEquals(1, masRepetida.getValue(), "Consulta repetida: " + masRepetida.getKey());
+    }
+
+    private Usuario crearPacienteConRecordatorios() {
+        Usuario paciente = crearUsuario("paciente@cuido.test", Rol.PACIENTE);
+        Usuario cuidador = crearUsuario("cuidador@cuido.test", Rol.CUIDADOR);
+        LocalDateTime fecha = LocalDateTime.now().plusDays(1);
+
+        for (int i = 0; i < MEDICAMENTOS; i++) {
+            Medicamento medicamento = new Medicamento();
+            medicamento.setPaciente(paciente);
+            medicamento.setCuidador(cuidador);
+            medicamento.setNombre("Medicamento " + i);
+            medicamento.setDosis(i + " mg");
+            entityManager.persist(medicamento);
+            crearRecordatorios(paciente, RecordatorioInstancia.TipoRecordatorio.MEDICAMENTO, medicamento.getId(), fecha);
+        }
+        for (int i = 0; i < CITAS; i++) {
+            CitaMedica cita = new CitaMedica();
+            cita.setPaciente(paciente);
+            cita.setCuidador(cuidador);
+            cita.setFechaHora(fecha);
+            cita.setNombreDoctor("Doctor " + i);
+            entityManager.persist(cita);
+            crearRecordatorios(paciente, RecordatorioInstancia.TipoRecordatorio.CITA_MEDICA, cita.getId(), fecha);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return paciente;
+    }
+
+    private void crearRecordatorios(
+        Usuario paciente,
+        RecordatorioInstancia.TipoRecordatorio tipo,
+        Long referenciaId,
+        LocalDateTime fecha
+    ) {
+        for (int i = 0; i < 2; i++) {
+            RecordatorioInstancia recordatorio = new RecordatorioInstancia();
+            recordatorio.setPaciente(paciente);
+            recordatorio.setTipo(tipo);
+            recordatorio.setReferenciaId(referenciaId);
+            recordatorio.setFechaHora(fecha.plusHours(i));
+            entityManager.persist(recordatorio);
+        }
+    }
+
+    private Usuario crearUsuario(String email, Rol rol) {
+        Usuario usuario = new Usuario();
+        usuario.setNombreCompleto(email);
+        usuario.setEmail(email);
+        usuario.setPassword("x");
+        usuario.setRol(rol);
+        return entityManager.persist(usuario);
+    }
+}
@@ -0,0 +1,155 @@
+package com.cuido.cuido.service;
+
+import com.cuido.cuido.repository.DocumentoRepository;
+import com.cuido.cuido.repository.MedicamentoRepository;
+import com.cuido.cuido.repository.VersionRecursoRepository;
+import com.cuido.cuido.service.VersionRecursoService.Recurso;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * ETags armados con las versiones de versiones_recurso: dos servicios sobre la misma
+ * base hacen de dos instancias. Sin la transacción del test, para que cada servicio
+ * vea lo que el otro confirma.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(VersionRecursoService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    // Esquema de las migraciones en modo MySQL: el incremento usa ON DUPLICATE KEY UPDATE
+    "spring.datasource.url=jdbc:h2:mem:versiones;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+class VersionRecursoServiceTest {
+
+    private static final AtomicLong PACIENTES = new AtomicLong(1000);
+
+    @Autowired
+    private VersionRecursoService instanciaA;
+
+    @Autowired
+    private VersionRecursoRepository versionRecursoRepository;
+
+    @Autowired
+    private MedicamentoRepository medicamentoRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private VersionRecursoService instanciaB;
+
+    @BeforeEach
+    void crearSegundaInstancia() {
+        instanciaB = new VersionRecursoService(versionRecursoRepository, medicamentoRepository, documentoRepository);
+    }
+
+    @Test
+    void unCambioEnUnaInstanciaCambiaElEtagEnLaOtra() {
+        Long pacienteId = PACIENTES.incrementAndGet();
+        String inicial = instanciaB.etag(Recurso.MEDICAMENTOS, pacienteId);
+
+        instanciaA.incrementar(Recurso.MEDICAMENTOS, pacienteId);
+
+        String nuevo = instanciaB.etag(Recurso.MEDICAMENTOS, pacienteId);
+        assertNotEquals(inicial, nuevo);
+        assertEquals(nuevo, instanciaA.etag(Recurso.MEDICAMENTOS, pacienteId));
+        // Los demás recursos del paciente no cambian
+        assertEquals(inicial, instanciaB.etag(Recurso.CONTACTOS, pacienteId));
+    }
+
+    @Test
+    void elIncrementoSeConfirmaConLaTransaccionQueModifica() {
+        Long pacienteId = PACIENTES.incrementAndGet();
+        String inicial = instanciaA.etag(Recurso.CONTACTOS, pacienteId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            instanciaB.incrementar(Recurso.CONTACTOS, pacienteId);
+            status.setRollbackOnly();
+        });
+        assertEquals(inicial, instanciaA.etag(Recurso.CONTACTOS, pacienteId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            instanciaB.incrementar(Recurso.CONTACTOS, pacienteId);
+            instanciaB.incrementar(Recurso.CONTACTOS, pacienteId);
+        });
+        assertEquals("\"0-2\"", instanciaA.etag(Recurso.CONTACTOS, pacienteId));
+    }
+
+    @Test
+    void elCambioDeUnCuidadorInvalidaLosRecursosQueLoMuestran() {
+        Long cuidadorId = crearUsuario("CUIDADOR");
+        Long pacienteId = crearUsuario("PACIENTE");
+        Long otroPacienteId = crearUsuario("PACIENTE");
+        jdbcTemplate.update("INSERT INTO medicamentos (paciente_id, cuidador_id, nombre, activo, created_at, updated_at,"
+            + " version) VALUES (?, ?, 'Enalapril', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)", pacienteId, cuidadorId);
+        String medicamentos = instanciaB.etag(Recurso.MEDICAMENTOS, pacienteId);
+        String documentos = instanciaB.etag(Recurso.DOCUMENTOS, pacienteId);
+        String contactos = instanciaB.etag(Recurso.CONTACTOS, pacienteId);
+        String otro = instanciaB.etag(Recurso.MEDICAMENTOS, otroPacienteId);
+
+        instanciaA.incrementarUsuario(cuidadorId);
+
+        assertNotEquals(medicamentos, instanciaB.etag(Recurso.MEDICAMENTOS, pacienteId));
+        assertNotEquals(documentos, instanciaB.etag(Recurso.DOCUMENTOS, pacienteId));
+        // Los contactos no muestran usuarios y el otro paciente no tiene nada del cuidador
+        assertEquals(contactos, instanciaB.etag(Recurso.CONTACTOS, pacienteId));
+        assertEquals(otro, instanciaB.etag(Recurso.MEDICAMENTOS, otroPacienteId));
+    }
+
+    @Test
+    void conCacheDeSegundoNivelLoRecienModificadoSeRespondeSinEtag() {
+        ReflectionTestUtils.setField(instanciaB, "cacheHabilitada", true);
+        ReflectionTestUtils.setField(instanciaB, "cacheTtlMillis", 60_000L);
+        Long pacienteId = PACIENTES.incrementAndGet();
+
+        instanciaA.incrementar(Recurso.MEDICAMENTOS, pacienteId);
+        instanciaA.incrementar(Recurso.DOCUMENTOS, pacienteId);
+
+        // Medicamento está en la caché; Documento no
+        assertNull(instanciaB.etag(Recurso.MEDICAMENTOS, pacienteId));
+        assertNotNull(instanciaB.etag(Recurso.DOCUMENTOS, pacienteId));
+
+        // Usuario sí: los documentos que lo muestran también, pero no los contactos ni otros pacientes
+        instanciaA.incrementarUsuario(pacienteId);
+        assertNull(instanciaB.etag(Recurso.DOCUMENTOS, pacienteId));
+        assertNotNull(instanciaB.etag(Recurso.CONTACTOS, pacienteId));
+        assertNotNull(instanciaB.etag(Recurso.DOCUMENTOS, PACIENTES.incrementAndGet()));
+    }
+
+    private Long crearUsuario(String rol) {
+        String email = UUID.randomUUID() + "@cuido.test";
+        jdbcTemplate.update("INSERT INTO usuarios (nombre_completo, email, password, rol, activo, created_at, updated_at)"
+            + " VALUES ('Usuario', ?, 'x', ?, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", email, rol);
+        return jdbcTemplate.queryForObject("SELECT id FROM usuarios WHERE email = ?", Long.class, email);
+    }
+}
@@ -1,7 +1,7 @@
 import React, { useState } from "react";
 import { useNavigate, useLocation, Link } from "react-router-dom";
 import { authAPI } from "../../services/api";
-import { IoLockClosedOutline, IoKeyOutline, IoEyeOutline, IoEyeOffOutline, IoArrowBackOutline } from "react-icons/io5";
+import { IoMailOutline, IoLockClosedOutline, IoKeyOutline, IoEyeOutline, IoEyeOffOutline, IoArrowBackOutline } from "react-icons/io5";
 
 export default function ResetPassword() {
 	const [codigoOtp, setCodigoOtp] = useState("");
@@ -15,6 +15,8 @@ export default function ResetPassword() {
 	const nav = useNavigate();
 	const location = useLocation();
 	const emailFromState = location.state?.email || "";
+	// El código solo vale junto con el email al que se envió
+	const [email, setEmail] = useState(emailFromState);
 
 	const submit = async (e) => {
 		e.preventDefault();
@@ -39,7 +41,7 @@ export default function ResetPassword() {
 		setLoading(true);
 
 		try {
-			await authAPI.resetPassword(codigoOtp, nuevaPassword);
+			await authAPI.resetPassword(email, codigoOtp, nuevaPassword);
 			setSuccess(true);
 			// Redirigir al login después de 2 segundos
 			setTimeout(() => {
@@ -99,6 +101,38 @@ export default function ResetPassword() {
 							</div>
 						)}
 
+						{!emailFromState && (
+							<div className="form-row">
+								<label>
+									Email <span style={{ color: "var(--danger)" }}>*</span>
+								</label>
+								<div style={{ position: "relative" }}>
+									<IoMailOutline style={{
+										position: "absolute",
+										left: "14px",
+										top: "50%",
+										transform: "translateY(-50%)",
+										color: "var(--muted)",
+										fontSize: "18px"
+									}} />
+									<input
+										className="input"
+										value={email}
+										onChange={e => setEmail(e.target.value)}
+										type="email"
+										required
+										placeholder="tu@email.com"
+										disabled={loading}
+										style={{
+											paddingLeft: "44px",
+											fontSize: "15px",
+											borderRadius: "10px"
+										}}
+									/>
+								</div>
+							</div>
+						)}
+
 						<div className="form-row">
 							<label>
 								Código de verificación <span style={{ color: "var(--danger)" }}>*</span>
@@ -337,9 +337,9 @@ export default function Recordatorios() {
 		setErroresValidacion({});
 	};
 
-	const ciclarEstado = async (id) => {
+	const ciclarEstado = async (id, estadoActual) => {
 		try {
-			const recordatorioActualizado = await recordatoriosAPI.ciclarEstado(id);
+			const recordatorioActualizado = await recordatoriosAPI.ciclarEstado(id, estadoActual);
 
 			// Actualizar en el estado local
 			setRecordatorios(prev => prev.map(r =>
@@ -347,7 +347,11 @@ export default function Recordatorios() {
 			));
 		} catch (err) {
 			console.error('Error al actualizar estado:', err);
-			setError('No se pudo actualizar el estado');
+			if (err.status === 409) {
+				// Otro cuidador lo cambió: se muestra el estado actual
+				await cargarRecordatorios();
+			}
+			setError(err.status === 409 ? err.message : 'No se pudo actualizar el estado');
 		}
 	};
 
@@ -388,6 +392,7 @@ export default function Recordatorios() {
 		switch (estado) {
 			case "COMPLETADO": return "estado-completado";
 			case "CANCELADO": return "estado-cancelado";
+			case "OMITIDO": return "estado-omitido";
 			case "PENDIENTE": return "estado-pendiente";
 			default: return "estado-pendiente";
 		}
@@ -848,11 +853,12 @@ export default function Recordatorios() {
 									<div className="recordatorio-acciones">
 										<button
 											className={`btn-estado ${obtenerEstiloEstado(recordatorio.estado)}`}
-											onClick={() => ciclarEstado(recordatorio.id)}
+											onClick={() => ciclarEstado(recordatorio.id, recordatorio.estado)}
 											title="Click para cambiar estado"
 										>
 											{recordatorio.estado === "COMPLETADO" ? "Completado" :
 											 recordatorio.estado === "CANCELADO" ? "Cancelado" :
+											 recordatorio.estado === "OMITIDO" ? "Omitido" :
 											 "Pendiente"}
 										</button>
 										<button
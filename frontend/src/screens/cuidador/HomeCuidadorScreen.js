@@ -107,9 +107,9 @@ export default function HomeCuidadorScreen() {
 		}
 	};
 
-	const handleToggleTarea = async (tareaId) => {
+	const handleToggleTarea = async (tarea) => {
 		try {
-			await tareasAPI.toggleCompletada(tareaId);
+			await tareasAPI.marcarCompletada(tarea.id, !tarea.completada);
 			await cargarTareas();
 		} catch (err) {
 			console.error('Error al cambiar estado de tarea:', err);
@@ -222,7 +222,7 @@ export default function HomeCuidadorScreen() {
 							<View key={tarea.id} style={styles.tareaItem}>
 								<TouchableOpacity
 									style={styles.tareaCheckbox}
-									onPress={() => handleToggleTarea(tarea.id)}
+									onPress={() => handleToggleTarea(tarea)}
 									activeOpacity={0.7}
 								>
 									<Text style={[styles.checkboxIcono, tarea.completada && styles.checkboxCompletado]}>
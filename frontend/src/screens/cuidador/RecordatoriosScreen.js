@@ -174,13 +174,17 @@ export default function RecordatoriosScreen() {
 		setTipoRecordatorio('MEDICAMENTO');
 	};
 
-	const ciclarEstado = async (id) => {
+	const ciclarEstado = async (id, estadoActual) => {
 		try {
-			const recordatorioActualizado = await recordatoriosAPI.ciclarEstado(id);
+			const recordatorioActualizado = await recordatoriosAPI.ciclarEstado(id, estadoActual);
 			setRecordatorios((prev) => prev.map((r) => (r.id === id ? recordatorioActualizado : r)));
 		} catch (err) {
 			console.error('Error al actualizar estado:', err);
-			Alert.alert('Error', 'No se pudo actualizar el estado');
+			if (err.status === 409) {
+				// Otro cuidador lo cambió: se muestra el estado actual
+				await cargarRecordatorios();
+			}
+			Alert.alert('Error', err.status === 409 ? err.message : 'No se pudo actualizar el estado');
 		}
 	};
 
@@ -228,6 +232,8 @@ export default function RecordatoriosScreen() {
 				return '#66BB6A';
 			case 'CANCELADO':
 				return '#E53935';
+			case 'OMITIDO':
+				return '#8D6E63';
 			case 'PENDIENTE':
 				return '#FFA726';
 			default:
@@ -241,6 +247,8 @@ export default function RecordatoriosScreen() {
 				return 'Completado';
 			case 'CANCELADO':
 				return 'Cancelado';
+			case 'OMITIDO':
+				return 'Omitido';
 			case 'PENDIENTE':
 				return 'Pendiente';
 			default:
@@ -267,7 +275,7 @@ export default function RecordatoriosScreen() {
 				<View style={styles.recordatorioAcciones}>
 					<TouchableOpacity
 						style={[styles.btnEstado, { backgroundColor: getEstadoColor(item.estado) + '20' }]}
-						onPress={() => ciclarEstado(item.id)}
+						onPress={() => ciclarEstado(item.id, item.estado)}
 					>
 						<Text style={[styles.btnEstadoText, { color: getEstadoColor(item.estado) }]}>
 							{getEstadoTexto(item.estado)}
@@ -215,9 +215,9 @@ export default function TareasScreen() {
 		}
 	};
 
-	const handleToggleTarea = async (tareaId) => {
+	const handleToggleTarea = async (tarea) => {
 		try {
-			await tareasAPI.toggleCompletada(tareaId);
+			await tareasAPI.marcarCompletada(tarea.id, !tarea.completada);
 			await cargarTareas();
 		} catch (err) {
 			console.error('Error al cambiar estado:', err);
@@ -355,7 +355,7 @@ export default function TareasScreen() {
 				{/* Checkbox */}
 				<TouchableOpacity
 					style={styles.tareaCheckbox}
-					onPress={() => handleToggleTarea(item.id)}
+					onPress={() => handleToggleTarea(item)}
 				>
 					<View
 						style={[
@@ -130,10 +130,10 @@ export const authAPI = {
 		});
 	},
 
-	resetPassword: async (codigoOtp, nuevaPassword) => {
+	resetPassword: async (email, codigoOtp, nuevaPassword) => {
 		return apiRequest('/auth/reset-password', {
 			method: 'POST',
-			body: JSON.stringify({ codigoOtp, nuevaPassword }),
+			body: JSON.stringify({ email, codigoOtp, nuevaPassword }),
 		});
 	},
 };
@@ -228,8 +228,10 @@ export const recordatoriosAPI = {
 		});
 	},
 
-	ciclarEstado: async (recordatorioId) => {
-		return apiRequest(`/recordatorios/${recordatorioId}/ciclar-estado`, {
+	// estadoActual: el estado que se muestra; si otro usuario ya lo cambió responde 409
+	ciclarEstado: async (recordatorioId, estadoActual) => {
+		const desde = estadoActual ? `?desde=${estadoActual}` : '';
+		return apiRequest(`/recordatorios/${recordatorioId}/ciclar-estado${desde}`, {
 			method: 'PATCH',
 		});
 	},
@@ -530,6 +532,17 @@ export const tareasAPI = {
 		});
 	},
 
+	/**
+	 * PATCH /api/tareas/{id}/completada
+	 * Marcar como completada o pendiente (idempotente)
+	 */
+	marcarCompletada: async (tareaId, completada) => {
+		return apiRequest(`/tareas/${tareaId}/completada`, {
+			method: 'PATCH',
+			body: JSON.stringify({ completada }),
+		});
+	},
+
 	/**
 	 * PATCH /api/tareas/{id}/toggle
 	 * Toggle completada